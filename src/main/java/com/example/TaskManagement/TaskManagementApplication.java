@@ -2,6 +2,7 @@ package com.example.TaskManagement;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Entry point for the Task Management application.
@@ -16,8 +17,10 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  *   <li>{@code @EnableAutoConfiguration}: Enables automatic configuration of Spring components.</li>
  *   <li>{@code @ComponentScan}: Scans the package and sub-packages for Spring components.</li>
  * </ul>
+ * Scheduling is enabled for periodic maintenance jobs such as rebuilding the token revocation filter.
  */
 @SpringBootApplication
+@EnableScheduling
 public class TaskManagementApplication {
 
 	/**
@@ -0,0 +1,75 @@
+package com.example.TaskManagement.configRedis;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Redis configuration shared by the components that exchange messages between application instances.
+ * <p>
+ * Components that need to react to messages published by other instances register their listeners
+ * on the {@link RedisMessageListenerContainer} declared here.
+ * </p>
+ * <p>
+ * It also declares the blocking and the reactive template of the compact task-role store, which keep
+ * string keys and raw binary hash fields and values.
+ * </p>
+ */
+@Configuration
+public class RedisConfiguration {
+
+    /**
+     * Configures the container that dispatches Redis pub/sub messages to the registered listeners.
+     *
+     * @param connectionFactory the Redis connection factory
+     * @return the message listener container
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * Configures the template used by {@link com.example.TaskManagement.securityRedis.RedisTaskRoleRepository}:
+     * string keys, and hash fields, hash values and script arguments passed through as raw bytes.
+     *
+     * @param connectionFactory the Redis connection factory
+     * @return the task-role template
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> taskRoleRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(RedisSerializer.byteArray());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
+    /**
+     * Configures the non-blocking counterpart of {@link #taskRoleRedisTemplate}, used by
+     * {@link com.example.TaskManagement.securityRedis.ReactiveTaskRoleRepository} with the same serialization.
+     *
+     * @param connectionFactory the reactive Redis connection factory
+     * @return the reactive task-role template
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, byte[]> reactiveTaskRoleRedisTemplate(ReactiveRedisConnectionFactory connectionFactory) {
+        RedisSerializationContext<String, byte[]> serializationContext = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(RedisSerializer.string())
+                .value(RedisSerializer.byteArray())
+                .hashKey(RedisSerializer.byteArray())
+                .hashValue(RedisSerializer.byteArray())
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.TaskManagement.configSecurity;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt strength (log2 of the number of rounds) whose hashing time on this machine is closest to,
+ * without exceeding, a target duration. Each additional strength step doubles the hashing time.
+ */
+@Slf4j
+final class BCryptStrengthCalibrator {
+
+    private static final String PROBE_PASSWORD = "bcrypt-calibration";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    /**
+     * Measures one hash at the minimum strength and extrapolates to the strongest cost that fits the target.
+     *
+     * @param target      the desired time to hash one password
+     * @param minStrength the lowest strength that may be returned
+     * @param maxStrength the highest strength that may be returned
+     * @return the calibrated strength, between {@code minStrength} and {@code maxStrength}
+     */
+    static int calibrate(Duration target, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode(PROBE_PASSWORD);
+
+        long start = System.nanoTime();
+        probe.encode(PROBE_PASSWORD);
+        long nanos = System.nanoTime() - start;
+
+        int strength = minStrength;
+        while (strength < maxStrength && nanos * 2 <= target.toNanos()) {
+            nanos *= 2;
+            strength++;
+        }
+        log.info("BCrypt strength calibrated to " + strength + " (~" + Duration.ofNanos(nanos).toMillis()
+                + " ms per hash, target " + target.toMillis() + " ms)");
+        return strength;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.TaskManagement.configSecurity;
 import com.example.TaskManagement.filter.JwtAuthenticationFilter;
 import com.example.TaskManagement.services.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,6 +22,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 
+import java.time.Duration;
 import java.util.Arrays;
 
 /**
@@ -42,6 +44,24 @@ public class SecurityConfiguration {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final UserService userService;
 
+    /**
+     * The time hashing one password should take on this machine; used to pick the BCrypt strength.
+     */
+    @Value("${security.password.bcrypt.target-hash-ms:250}")
+    private long targetHashMs;
+
+    /**
+     * The lowest BCrypt strength that may be picked, whatever the hardware.
+     */
+    @Value("${security.password.bcrypt.min-strength:10}")
+    private int minStrength;
+
+    /**
+     * The highest BCrypt strength that may be picked, whatever the hardware.
+     */
+    @Value("${security.password.bcrypt.max-strength:16}")
+    private int maxStrength;
+
     /**
      * Configures the security filter chain for the application.
      * This method sets up authorization rules for HTTP requests,
@@ -83,18 +103,22 @@ public class SecurityConfiguration {
     /**
      * Configures the password encoder for the application.
      * The BCrypt password encoder is used to securely hash and verify user passwords.
+     * Its strength is calibrated at startup so that one hash takes about
+     * {@code security.password.bcrypt.target-hash-ms} on this machine.
      *
      * @return a BCryptPasswordEncoder bean
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength = BCryptStrengthCalibrator.calibrate(Duration.ofMillis(targetHashMs), minStrength, maxStrength);
+        return new BCryptPasswordEncoder(strength);
     }
 
     /**
      * Configures the authentication provider for the application.
      * This method sets up a DaoAuthenticationProvider, which uses the {@link UserService}
      * to retrieve user details and the {@link PasswordEncoder} to verify the user's password.
+     * Stored hashes weaker than the configured strength are re-hashed and saved on successful login.
      *
      * @return an AuthenticationProvider bean configured with the user service and password encoder
      */
@@ -103,6 +127,7 @@ public class SecurityConfiguration {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService.userDetailsService());
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userService);
         return authProvider;
     }
 
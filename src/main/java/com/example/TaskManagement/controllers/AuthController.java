@@ -1,19 +1,25 @@
 package com.example.TaskManagement.controllers;
 
-import com.example.TaskManagement.entity.User;
+import com.example.TaskManagement.model.AuthenticatedUser;
 import com.example.TaskManagement.model.JwtAuthenticationResponse;
+import com.example.TaskManagement.model.RefreshTokenRequest;
 import com.example.TaskManagement.model.SignInRequest;
 import com.example.TaskManagement.model.SignUpRequest;
 
+import com.example.TaskManagement.filter.JwtAuthenticationFilter;
 import com.example.TaskManagement.services.AuthorizationService;
-import com.example.TaskManagement.services.UserService;
+import com.example.TaskManagement.services.TokenVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -31,14 +37,14 @@ import java.util.Map;
 @Tag(name = "authentication and authorization")
 public class AuthController {
     private final AuthorizationService authenticationService;
-    private final UserService userService;
+    private final TokenVersionService tokenVersionService;
 
     /**
      * Handles user registration by accepting a {@link SignUpRequest} and
-     * responding with a message and a JWT token for the newly registered user.
+     * responding with a message and a JWT access and refresh token for the newly registered user.
      *
      * @param request the user sign-up request containing the necessary user details
-     * @return a {@link ResponseEntity} containing a message and the JWT token in a map
+     * @return a {@link ResponseEntity} containing a message and the JWT tokens in a map
      */
     @Operation(summary = "user registration")
     @PostMapping("/sign-up")
@@ -48,26 +54,78 @@ public class AuthController {
         Map<String, String> response = new HashMap<>();
         response.put("message", "User registered successfully");
         response.put("token", jwtResponse.getToken());
+        response.put("refreshToken", jwtResponse.getRefreshToken());
 
         return ResponseEntity.ok(response);
     }
 
     /**
      * Handles user login by accepting a {@link SignInRequest}, validating the user,
-     * and responding with a personalized greeting and a JWT token for the logged-in user.
+     * and responding with a personalized greeting and a JWT access and refresh token for the logged-in user.
      *
      * @param request the user sign-in request containing the user's credentials
-     * @return a {@link ResponseEntity} containing a greeting message and the JWT token in a map
+     * @return a {@link ResponseEntity} containing a greeting message and the JWT tokens in a map
      */
     @Operation(summary = "user authorization")
     @PostMapping("/sign-in")
     public ResponseEntity<Map<String, String>> signIn(@RequestBody @Valid SignInRequest request) {
         JwtAuthenticationResponse jwtResponse = authenticationService.signIn(request);
-        User user = userService.getByEmail(request.getEmail());
         Map<String, String> response = new HashMap<>();
-        response.put("message", "Hello " + user.getUsername() + " !");
+        response.put("message", "Hello " + jwtResponse.getUsername() + " !");
         response.put("token", jwtResponse.getToken());
+        response.put("refreshToken", jwtResponse.getRefreshToken());
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Exchanges a refresh token for a new access and refresh token pair, without checking the password again.
+     * Each refresh token can be used only once.
+     *
+     * @param request the request containing the refresh token
+     * @return a {@link ResponseEntity} containing the new JWT tokens in a map
+     */
+    @Operation(summary = "refresh the access token")
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, String>> refresh(@RequestBody @Valid RefreshTokenRequest request) {
+        JwtAuthenticationResponse jwtResponse = authenticationService.refresh(request.getRefreshToken());
+        Map<String, String> response = new HashMap<>();
+        response.put("token", jwtResponse.getToken());
+        response.put("refreshToken", jwtResponse.getRefreshToken());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Signs the authenticated user out on this device by revoking the access token of the request
+     * and the refresh token issued with it.
+     *
+     * @param authHeader the Authorization header carrying the access token
+     * @param request    the request containing the refresh token, optional
+     * @return a {@link ResponseEntity} with status NO_CONTENT (204) once the tokens are revoked
+     */
+    @Operation(summary = "sign out on this device")
+    @PreAuthorize("isAuthenticated()")
+    @PostMapping("/sign-out")
+    public ResponseEntity<Void> signOut(@RequestHeader(JwtAuthenticationFilter.HEADER_NAME) String authHeader,
+                                        @RequestBody(required = false) RefreshTokenRequest request) {
+        authenticationService.signOut(authHeader.substring(JwtAuthenticationFilter.BEARER_PREFIX.length()),
+                request == null ? null : request.getRefreshToken());
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+
+    /**
+     * Revokes every token issued so far to the authenticated user, on all devices.
+     * The token used for this request is revoked as well.
+     *
+     * @param user the authenticated user
+     * @return a {@link ResponseEntity} with status NO_CONTENT (204) once the tokens are revoked
+     */
+    @Operation(summary = "revoke all tokens of the current user")
+    @PreAuthorize("isAuthenticated()")
+    @PostMapping("/revoke-tokens")
+    public ResponseEntity<Void> revokeTokens(@AuthenticationPrincipal AuthenticatedUser user) {
+        tokenVersionService.revokeTokens(user.getId());
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
 }
@@ -2,6 +2,7 @@ package com.example.TaskManagement.controllers;
 
 import com.example.TaskManagement.model.CommentRequestDTO;
 import com.example.TaskManagement.model.CommentResponseDTO;
+import com.example.TaskManagement.model.CursorPage;
 import com.example.TaskManagement.services.CommentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -42,16 +43,25 @@ public class CommentController {
     }
 
     /**
-     * Retrieves all comments for a specific task.
+     * Retrieves one page of the comments of a specific task, newest first, with cursor-based pagination.
+     * Whether a next page exists is returned in the {@value TaskController#HAS_NEXT_HEADER} header and its
+     * cursor, if any, in the {@value TaskController#NEXT_CURSOR_HEADER} header. The comments cursor of a task
+     * continues after the comments embedded in it.
      *
      * @param taskId the ID of the task whose comments are to be fetched
-     * @return a {@link ResponseEntity} containing a collection of {@link CommentResponseDTO} for all comments
+     * @param cursor the cursor returned with the previous page, omitted for the first page
+     * @param size the number of comments per page (default is 10)
+     * @return a {@link ResponseEntity} containing a list of {@link CommentResponseDTO}
      */
     @GetMapping
-    public ResponseEntity<Collection<CommentResponseDTO>> getAllComments(@PathVariable Long taskId) {
-        log.info("Fetching all comments");
-        Collection<CommentResponseDTO> commentsDto = commentService.listComment(taskId);
-        return ResponseEntity.ok(commentsDto);
+    public ResponseEntity<Collection<CommentResponseDTO>> getAllComments(
+            @PathVariable Long taskId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        log.info("Fetching comments, cursor: " + cursor + ", size: " + size);
+        CursorPage<CommentResponseDTO> commentsPage = commentService.listComment(taskId, cursor, size);
+        return TaskController.pageHeaders(commentsPage).body(commentsPage.getItems());
     }
 
     /**
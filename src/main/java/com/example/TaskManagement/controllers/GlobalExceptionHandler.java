@@ -2,10 +2,17 @@ package com.example.TaskManagement.controllers;
 
 import com.example.TaskManagement.exception.CommentNotFoundException;
 import com.example.TaskManagement.exception.DuplicateException;
+import com.example.TaskManagement.exception.InvalidCursorException;
+import com.example.TaskManagement.exception.InvalidSearchException;
+import com.example.TaskManagement.exception.InvalidTokenException;
+import com.example.TaskManagement.exception.PasswordHashingOverloadedException;
 import com.example.TaskManagement.exception.TaskNotFoundException;
+import com.example.TaskManagement.exception.TaskVersionConflictException;
 import com.example.TaskManagement.model.CommentResponseDTO;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -34,6 +41,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    /**
+     * Handles {@link TaskVersionConflictException} and returns a response with status PRECONDITION_FAILED (412),
+     * as the version given in {@code If-Match} no longer matches.
+     *
+     * @param ex the exception to be handled
+     * @return a {@link ResponseEntity} containing the exception message with a PRECONDITION_FAILED status
+     */
+    @ExceptionHandler(TaskVersionConflictException.class)
+    public ResponseEntity<String> handleTaskVersionConflictException(TaskVersionConflictException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
+    /**
+     * Handles {@link ObjectOptimisticLockingFailureException}, raised when an entity changed between being read
+     * and written back, and returns a response with status CONFLICT (409).
+     *
+     * @param ex the exception to be handled
+     * @return a {@link ResponseEntity} containing the exception message with a CONFLICT status
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(ObjectOptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("The task was changed concurrently, please retry");
+    }
+
     /**
      * Handles {@link UsernameNotFoundException} and returns a response with status NOT_FOUND (404).
      *
@@ -67,6 +98,53 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    /**
+     * Handles {@link PasswordHashingOverloadedException} and returns a response with status SERVICE_UNAVAILABLE (503)
+     * and a {@code Retry-After} header, so that clients back off during login storms.
+     *
+     * @param ex the exception to be handled
+     * @return a {@link ResponseEntity} containing the exception message with a SERVICE_UNAVAILABLE status
+     */
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<String> handlePasswordHashingOverloadedException(PasswordHashingOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Handles {@link InvalidTokenException} and returns a response with status UNAUTHORIZED (401).
+     *
+     * @param ex the exception to be handled
+     * @return a {@link ResponseEntity} containing the exception message with an UNAUTHORIZED status
+     */
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<String> handleInvalidTokenException(InvalidTokenException ex) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ex.getMessage());
+    }
+
+    /**
+     * Handles {@link InvalidCursorException} and returns a response with status BAD_REQUEST (400).
+     *
+     * @param ex the exception to be handled
+     * @return a {@link ResponseEntity} containing the exception message with a BAD_REQUEST status
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursorException(InvalidCursorException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    /**
+     * Handles {@link InvalidSearchException} and returns a response with status BAD_REQUEST (400).
+     *
+     * @param ex the exception to be handled
+     * @return a {@link ResponseEntity} containing the exception message with a BAD_REQUEST status
+     */
+    @ExceptionHandler(InvalidSearchException.class)
+    public ResponseEntity<String> handleInvalidSearchException(InvalidSearchException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
     /**
      * Handles validation exceptions (e.g., {@link MethodArgumentNotValidException}) and returns a response with status BAD_REQUEST (400).
      * This method maps field errors into a more readable format.
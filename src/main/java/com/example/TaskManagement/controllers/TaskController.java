@@ -1,25 +1,52 @@
 package com.example.TaskManagement.controllers;
 
+import com.example.TaskManagement.model.AuthenticatedUser;
+import com.example.TaskManagement.model.BulkTaskChangeRequest;
+import com.example.TaskManagement.model.BulkTaskResultDTO;
+import com.example.TaskManagement.model.CursorPage;
+import com.example.TaskManagement.model.TaskImportReport;
 import com.example.TaskManagement.model.TaskRequestDTO;
 import com.example.TaskManagement.model.TaskResponseDTO;
+import com.example.TaskManagement.model.TaskSearchHitDTO;
+import com.example.TaskManagement.model.TaskSearchRequest;
+import com.example.TaskManagement.model.TaskTitleSuggestionDTO;
+import com.example.TaskManagement.services.TaskBulkService;
+import com.example.TaskManagement.services.TaskETags;
+import com.example.TaskManagement.services.TaskCountService;
+import com.example.TaskManagement.services.TaskEventStream;
+import com.example.TaskManagement.services.TaskExportService;
+import com.example.TaskManagement.services.TaskImportService;
+import com.example.TaskManagement.services.TaskSearchService;
 import com.example.TaskManagement.services.TaskService;
+import com.example.TaskManagement.services.TaskTypeaheadService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.List;
 
 /**
  * Controller for managing tasks in the application. This class handles requests related to tasks,
  * including retrieving, creating, updating, and deleting tasks, as well as modifying task statuses
- * and priorities. It also enforces authorization using security annotations.
+ * and priorities. It also enforces authorization using security annotations; the caller's role for a task
+ * is resolved once per request by {@link com.example.TaskManagement.securityRedis.TaskSecurityService}.
  */
 @RestController
 @RequestMapping("/api")
@@ -28,61 +55,207 @@ import java.util.List;
 @Tag(name = "Task Management")
 public class TaskController {
 
+    /**
+     * Response header carrying the cursor of the next page of a task list.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Response header telling whether a task list has a next page.
+     */
+    public static final String HAS_NEXT_HEADER = "X-Has-Next";
+
+    /**
+     * Response header carrying the approximate total of a task list, if requested.
+     */
+    public static final String APPROXIMATE_TOTAL_HEADER = "X-Total-Count-Approximate";
+
+    /**
+     * Media type of a CSV import.
+     */
+    public static final String TEXT_CSV = "text/csv";
+
+    /**
+     * Request header carrying the ID of the last change event a reconnecting client received.
+     */
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
     private final TaskService taskService;
+    private final TaskCountService taskCountService;
+    private final TaskSearchService taskSearchService;
+    private final TaskTypeaheadService taskTypeaheadService;
+    private final TaskBulkService taskBulkService;
+    private final TaskImportService taskImportService;
+    private final TaskExportService taskExportService;
+    private final TaskEventStream taskEventStream;
 
     /**
-     * Retrieves a task by its ID.
+     * Retrieves a task by its ID, with its ETag. A request whose {@code If-None-Match} header holds the current
+     * ETag is answered NOT_MODIFIED from the task version alone, without loading the task.
      *
      * @param taskId the ID of the task to be retrieved
+     * @param request the request, for its conditional headers
      * @return a {@link ResponseEntity} containing the task details if found, or a NOT_FOUND status if the task does not exist
      */
     @Operation(summary = "getting task by ID")
-    @PreAuthorize("@taskSecurityService.checkAuthorRole(#taskId, authentication.name)")
+    @PreAuthorize("@taskSecurityService.isAuthor(#taskId)")
     @GetMapping("/tasks/{taskId}")
-    public ResponseEntity<TaskResponseDTO> getTaskById(@PathVariable Long taskId) {
+    public ResponseEntity<TaskResponseDTO> getTaskById(@PathVariable Long taskId, WebRequest request) {
         log.info("Fetching task with id {}", taskId);
+        if (request.checkNotModified(taskService.getETag(taskId))) {
+            return null;
+        }
         TaskResponseDTO taskResponseDTO = taskService.getById(taskId);
-        return ResponseEntity.ok(taskResponseDTO);
+        return ResponseEntity.ok().eTag(TaskETags.of(taskResponseDTO)).body(taskResponseDTO);
     }
 
     /**
-     * Retrieves all tasks assigned to a specific author, with pagination support.
+     * Retrieves one page of the tasks of a specific author, with cursor-based pagination.
+     * Whether a next page exists is returned in the {@value #HAS_NEXT_HEADER} header and its cursor, if any,
+     * in the {@value #NEXT_CURSOR_HEADER} header; no total is counted unless asked for. The page is returned
+     * with an ETag, and answered NOT_MODIFIED from the versions of its tasks alone when it has not changed.
      *
      * @param author the username of the author whose tasks are to be retrieved
-     * @param page the page number to retrieve (default is 0)
+     * @param cursor the cursor returned with the previous page, omitted for the first page
      * @param size the number of tasks per page (default is 10)
+     * @param includeTotal whether to return the approximate total in the {@value #APPROXIMATE_TOTAL_HEADER} header
+     * @param request the request, for its conditional headers
      * @return a {@link ResponseEntity} containing a list of task DTOs
      */
     @Operation(summary = "getting all tasks of the author")
     @GetMapping("/users/{author}/allTasksOfAuthor")
     public ResponseEntity<Collection<TaskResponseDTO>> getAllTasksAuthor(
             @PathVariable String author,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            WebRequest request
     ) {
-        log.info("Fetching tasks for author: " + author + ", page: " + page + ", size: " + size);
-        List<TaskResponseDTO> tasksPage = taskService.getAllTasksAuthor(author, page, size);
-        return ResponseEntity.ok(tasksPage);
+        log.info("Fetching tasks for author: " + author + ", cursor: " + cursor + ", size: " + size);
+        if (request.checkNotModified(taskService.getAllTasksAuthorETag(author, cursor, size))) {
+            return null;
+        }
+        CursorPage<TaskResponseDTO> tasksPage = taskService.getAllTasksAuthor(author, cursor, size);
+        ResponseEntity.BodyBuilder response = pageHeaders(tasksPage)
+                .eTag(TaskETags.ofTasks(tasksPage.getItems(), tasksPage.hasNext()));
+        if (includeTotal) {
+            response.header(APPROXIMATE_TOTAL_HEADER, Long.toString(taskCountService.approximateAuthorTaskCount(author)));
+        }
+        return response.body(tasksPage.getItems());
     }
 
     /**
-     * Retrieves all tasks assigned to a specific executor, with pagination support.
+     * Retrieves one page of the tasks assigned to a specific executor, with cursor-based pagination.
+     * Whether a next page exists is returned in the {@value #HAS_NEXT_HEADER} header and its cursor, if any,
+     * in the {@value #NEXT_CURSOR_HEADER} header; no total is counted unless asked for. The page is returned
+     * with an ETag, and answered NOT_MODIFIED from the versions of its tasks alone when it has not changed.
      *
      * @param executor the username of the executor whose tasks are to be retrieved
-     * @param page the page number to retrieve (default is 0)
+     * @param cursor the cursor returned with the previous page, omitted for the first page
      * @param size the number of tasks per page (default is 10)
+     * @param includeTotal whether to return the approximate total in the {@value #APPROXIMATE_TOTAL_HEADER} header
+     * @param request the request, for its conditional headers
      * @return a {@link ResponseEntity} containing a list of task DTOs
      */
     @Operation(summary = "getting all tasks of the executor")
     @GetMapping("/users/{executor}/allTasksOfExecutor")
     public ResponseEntity<Collection<TaskResponseDTO>> getAllTasksExecutor(
             @PathVariable String executor,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            WebRequest request
+    ) {
+        log.info("Fetching tasks for executor: " + executor + ", cursor: " + cursor + ", size: " + size);
+        if (request.checkNotModified(taskService.getAllTasksExecutorETag(executor, cursor, size))) {
+            return null;
+        }
+        CursorPage<TaskResponseDTO> tasksPage = taskService.getAllTasksExecutor(executor, cursor, size);
+        ResponseEntity.BodyBuilder response = pageHeaders(tasksPage)
+                .eTag(TaskETags.ofTasks(tasksPage.getItems(), tasksPage.hasNext()));
+        if (includeTotal) {
+            response.header(APPROXIMATE_TOTAL_HEADER, Long.toString(taskCountService.approximateExecutorTaskCount(executor)));
+        }
+        return response.body(tasksPage.getItems());
+    }
+
+    /**
+     * Searches the tasks of an author or an executor, filtered by status, priority and creation or update time,
+     * and sorted by creation or update time, with cursor-based pagination.
+     * Whether a next page exists is returned in the {@value #HAS_NEXT_HEADER} header and its cursor, if any,
+     * in the {@value #NEXT_CURSOR_HEADER} header.
+     *
+     * @param searchRequest the filters, the order ({@code sort} = createdAt or updatedAt, {@code direction} = asc or desc),
+     *                      the cursor and the page size
+     * @return a {@link ResponseEntity} containing a list of task DTOs
+     */
+    @Operation(summary = "search tasks")
+    @GetMapping("/tasks/search")
+    public ResponseEntity<Collection<TaskResponseDTO>> searchTasks(@ModelAttribute TaskSearchRequest searchRequest) {
+        log.info("Searching tasks, author: " + searchRequest.getAuthor() + ", executor: " + searchRequest.getExecutor());
+        CursorPage<TaskResponseDTO> tasksPage = taskSearchService.search(searchRequest);
+        return pageHeaders(tasksPage).body(tasksPage.getItems());
+    }
+
+    /**
+     * Searches the titles, texts and comments of the tasks the authenticated user authored or executes,
+     * best match first, with highlighted fragments and cursor-based pagination.
+     * Whether a next page exists is returned in the {@value #HAS_NEXT_HEADER} header and its cursor, if any,
+     * in the {@value #NEXT_CURSOR_HEADER} header.
+     *
+     * @param user the authenticated user
+     * @param q the search text: words, quoted phrases, {@code or}, and {@code -} to exclude a word
+     * @param cursor the cursor returned with the previous page, omitted for the first page
+     * @param size the number of results per page (default is 10)
+     * @return a {@link ResponseEntity} containing a list of search results
+     */
+    @Operation(summary = "full-text search of own tasks")
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/tasks/text-search")
+    public ResponseEntity<Collection<TaskSearchHitDTO>> searchTasksText(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size
     ) {
-        log.info("Fetching tasks for author: " + executor + ", page: " + page + ", size: " + size);
-        List<TaskResponseDTO> tasksPage = taskService.getAllTasksExecutor(executor, page, size);
-        return ResponseEntity.ok(tasksPage);
+        log.info("Full-text searching tasks, cursor: " + cursor + ", size: " + size);
+        CursorPage<TaskSearchHitDTO> hitsPage = taskSearchService.searchText(user.getId(), q, cursor, size);
+        return pageHeaders(hitsPage).body(hitsPage.getItems());
+    }
+
+    /**
+     * Suggests titles of the tasks the authenticated user authored or executes while the title is being typed.
+     * Titles containing the text are matched, ignoring case; titles starting with it come first.
+     *
+     * @param user the authenticated user
+     * @param q the text typed so far
+     * @param limit the maximum number of suggestions (default is 10, at most 20)
+     * @return a {@link ResponseEntity} containing a list of suggestions
+     */
+    @Operation(summary = "autocomplete titles of own tasks")
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/tasks/typeahead")
+    public ResponseEntity<List<TaskTitleSuggestionDTO>> suggestTitles(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(taskTypeaheadService.suggest(user.getId(), q, limit));
+    }
+
+    /**
+     * Starts an OK response carrying the pagination headers of a page.
+     *
+     * @param page the page being returned
+     * @return the response builder, to which the page items are added as body
+     */
+    static ResponseEntity.BodyBuilder pageHeaders(CursorPage<?> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HAS_NEXT_HEADER, Boolean.toString(page.hasNext()));
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response;
     }
 
     /**
@@ -99,6 +272,81 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    /**
+     * Imports tasks in bulk, streaming the request body: NDJSON with one task per line, comments included, or CSV
+     * with a header naming the columns. Invalid rows are skipped and reported with their line number.
+     *
+     * @param contentType the media type of the body, {@code application/x-ndjson} or {@code text/csv}
+     * @param body the body
+     * @return a {@link ResponseEntity} containing the report of the import
+     * @throws IOException if the body cannot be read
+     */
+    @Operation(summary = "import tasks from NDJSON or CSV")
+    @PostMapping(value = "/tasks/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV})
+    public ResponseEntity<TaskImportReport> importTasks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        TaskImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? TaskImportService.Format.NDJSON
+                : TaskImportService.Format.CSV;
+        log.info("Importing tasks from " + format);
+        return ResponseEntity.ok(taskImportService.importTasks(body, format));
+    }
+
+    /**
+     * Exports all tasks the authenticated user authored or executes, with their comments, streamed as they are
+     * read from the database. Tasks come in ascending ID order; after a dropped connection, the export is resumed
+     * by passing the ID of the last complete task received as {@code after}. The export may run for up to
+     * {@code tasks.export.timeout-ms}, instead of the timeout of other asynchronous requests.
+     *
+     * @param user the authenticated user
+     * @param role AUTHOR for the tasks the user authored (default), EXECUTOR for the tasks assigned to them
+     * @param format NDJSON, one task per line with its comments (default), or CSV, a row per task and per comment
+     * @param gzip whether to gzip-compress the export
+     * @param after the ID of the last task already received, omitted for a full export
+     * @param request the current request
+     * @return a {@link ResponseEntity} streaming the export as a file download
+     */
+    @Operation(summary = "export own tasks as NDJSON or CSV")
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/tasks/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = "AUTHOR") TaskExportService.Role role,
+            @RequestParam(defaultValue = "NDJSON") TaskExportService.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(defaultValue = "0") long after,
+            WebRequest request
+    ) {
+        log.info("Exporting tasks as " + format + ", after: " + after);
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(taskExportService.getTimeoutMs());
+        Long userId = user.getId();
+        String fileName = "tasks-" + role.name().toLowerCase() + "." + format.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = output -> taskExportService.export(userId, role, format, gzip, after, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Streams the changes to the tasks the authenticated user authored or executes, and to their comments, as
+     * Server-Sent Events named after the kind of change. A reconnecting client sends the ID of the last event it
+     * received in the {@value #LAST_EVENT_ID_HEADER} header and is replayed what it missed, or sent a
+     * {@value TaskEventStream#RESET_EVENT} event if that is no longer possible and it has to reload its tasks.
+     *
+     * @param user the authenticated user
+     * @param lastEventId the ID of the last event received, omitted for a new stream
+     * @return the emitter streaming the events
+     */
+    @Operation(summary = "stream changes to own tasks")
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping(value = "/tasks/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@AuthenticationPrincipal AuthenticatedUser user,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        log.info("Opening change stream, last event: " + lastEventId);
+        return taskEventStream.subscribe(user.getId(), lastEventId(lastEventId));
+    }
+
     /**
      * Updates an existing task by its ID.
      *
@@ -107,7 +355,7 @@ public class TaskController {
      * @return a {@link ResponseEntity} indicating the result of the operation
      */
     @Operation(summary = "update task by ID")
-    @PreAuthorize("@taskSecurityService.checkAuthorRole(#taskId, authentication.name)")
+    @PreAuthorize("@taskSecurityService.isAuthor(#taskId)")
     @PutMapping("/tasks/{taskId}")
     public ResponseEntity<Void> updateTask(@PathVariable Long taskId,@Valid @RequestBody TaskRequestDTO taskRequestDto) {
         log.info("Updating task");
@@ -122,7 +370,7 @@ public class TaskController {
      * @return a {@link ResponseEntity} indicating the result of the operation
      */
     @Operation(summary = "delete task by ID")
-    @PreAuthorize("@taskSecurityService.checkAuthorRole(#taskId, authentication.name)")
+    @PreAuthorize("@taskSecurityService.isAuthor(#taskId)")
     @DeleteMapping("/tasks/{taskId}")
     public ResponseEntity<Void> deleteTask(@PathVariable Long taskId) {
         log.info("Deleting task with id {}", taskId);
@@ -134,15 +382,16 @@ public class TaskController {
      * Updates the status of a task to "COMPLETED".
      *
      * @param taskId the ID of the task to update
+     * @param ifMatch the version the task must be at, optional; a stale version is rejected with 412
      * @return a {@link ResponseEntity} indicating the result of the operation
      */
     @Operation(summary = "update task status - completed")
-    @PreAuthorize("@taskSecurityService.checkExecutorRole(#taskId, authentication.name) " +
-            "|| @taskSecurityService.checkAuthorRole(#taskId, authentication.name)")
+    @PreAuthorize("@taskSecurityService.isAuthorOrExecutor(#taskId)")
     @PatchMapping("/tasks/{taskId}/status/completed")
-    public ResponseEntity<Void> updateStatusCompleted(@PathVariable Long taskId) {
+    public ResponseEntity<Void> updateStatusCompleted(@PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Updating task status to COMPLETED for task with id {}", taskId);
-        taskService.patchStatusTaskCompleted(taskId);
+        taskService.patchStatusTaskCompleted(taskId, expectedVersion(ifMatch));
         return ResponseEntity.ok().build();
     }
 
@@ -150,15 +399,16 @@ public class TaskController {
      * Updates the status of a task to "IN_PROCESS".
      *
      * @param taskId the ID of the task to update
+     * @param ifMatch the version the task must be at, optional; a stale version is rejected with 412
      * @return a {@link ResponseEntity} indicating the result of the operation
      */
     @Operation(summary = "update task status - in progress")
-    @PreAuthorize("@taskSecurityService.checkExecutorRole(#taskId, authentication.name) " +
-            "|| @taskSecurityService.checkAuthorRole(#taskId, authentication.name)")
+    @PreAuthorize("@taskSecurityService.isAuthorOrExecutor(#taskId)")
     @PatchMapping("/tasks/{taskId}/status/in-process")
-    public ResponseEntity<Void> updateStatusInProcess(@PathVariable Long taskId) {
+    public ResponseEntity<Void> updateStatusInProcess(@PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Updating task status to IN_PROCESS for task with id {}", taskId);
-        taskService.patchStatusTaskInProgress(taskId);
+        taskService.patchStatusTaskInProgress(taskId, expectedVersion(ifMatch));
         return ResponseEntity.ok().build();
     }
 
@@ -166,14 +416,16 @@ public class TaskController {
      * Updates the priority of a task to "LOW".
      *
      * @param taskId the ID of the task to update
+     * @param ifMatch the version the task must be at, optional; a stale version is rejected with 412
      * @return a {@link ResponseEntity} indicating the result of the operation
      */
     @Operation(summary = "update task priority - low")
-    @PreAuthorize("@taskSecurityService.checkAuthorRole(#taskId, authentication.name)")
+    @PreAuthorize("@taskSecurityService.isAuthor(#taskId)")
     @PatchMapping("/tasks/{taskId}/priority/low")
-    public ResponseEntity<Void> updatePriorityMedium(@PathVariable Long taskId) {
+    public ResponseEntity<Void> updatePriorityMedium(@PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Updating task priority to LOW for task with id {}", taskId);
-        taskService.patchPriorityTaskLow(taskId);
+        taskService.patchPriorityTaskLow(taskId, expectedVersion(ifMatch));
         return ResponseEntity.ok().build();
     }
 
@@ -181,14 +433,16 @@ public class TaskController {
      * Updates the priority of a task to "HIGH".
      *
      * @param taskId the ID of the task to update
+     * @param ifMatch the version the task must be at, optional; a stale version is rejected with 412
      * @return a {@link ResponseEntity} indicating the result of the operation
      */
     @Operation(summary = "update task priority - high")
-    @PreAuthorize("@taskSecurityService.checkAuthorRole(#taskId, authentication.name)")
+    @PreAuthorize("@taskSecurityService.isAuthor(#taskId)")
     @PatchMapping("/tasks/{taskId}/priority/high")
-    public ResponseEntity<Void> updatePriorityHigh(@PathVariable Long taskId) {
+    public ResponseEntity<Void> updatePriorityHigh(@PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Updating task priority to HIGH for task with id {}", taskId);
-        taskService.patchPriorityTaskHigh(taskId);
+        taskService.patchPriorityTaskHigh(taskId, expectedVersion(ifMatch));
         return ResponseEntity.ok().build();
     }
 
@@ -197,14 +451,75 @@ public class TaskController {
      *
      * @param taskId the ID of the task to update
      * @param executorName the new executor's name
+     * @param ifMatch the version the task must be at, optional
      * @return a {@link ResponseEntity} indicating the result of the operation
      */
     @Operation(summary = "update task executor")
-    @PreAuthorize("@taskSecurityService.checkAuthorRole(#taskId, authentication.name)")
+    @PreAuthorize("@taskSecurityService.isAuthor(#taskId)")
     @PatchMapping("/tasks/{taskId}/{executorName}")
-    public ResponseEntity<Void> updateExecutor(@PathVariable Long taskId, @PathVariable String executorName) {
+    public ResponseEntity<Void> updateExecutor(@PathVariable Long taskId, @PathVariable String executorName,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Updating task executor to {} for task with id {}", executorName, taskId);
-        taskService.updateExecutor(taskId, executorName);
+        taskService.updateExecutor(taskId, executorName, expectedVersion(ifMatch));
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Applies one status, priority or executor change to many tasks at once. The author of a task may make any
+     * change, its executor only a status change; tasks the user may not change are skipped, not failed.
+     *
+     * @param user the authenticated user
+     * @param request the IDs of the tasks (at most 1000) and the change
+     * @return a {@link ResponseEntity} containing the outcome for every task: UPDATED, FORBIDDEN or NOT_FOUND
+     */
+    @Operation(summary = "change status, priority or executor of many tasks")
+    @PreAuthorize("isAuthenticated()")
+    @PatchMapping("/tasks/bulk")
+    public ResponseEntity<List<BulkTaskResultDTO>> updateTasks(@AuthenticationPrincipal AuthenticatedUser user,
+            @Valid @RequestBody BulkTaskChangeRequest request) {
+        log.info("Bulk updating " + request.getTaskIds().size() + " tasks");
+        return ResponseEntity.ok(taskBulkService.apply(user.getId(), request));
+    }
+
+    /**
+     * Reads the {@value #LAST_EVENT_ID_HEADER} header. An ID that is not a number cannot be resumed from, so it
+     * is treated as older than any event, which gets the client a reset.
+     *
+     * @param lastEventId the header value, or {@code null}
+     * @return the ID of the last event received, or {@code null} for a new stream
+     */
+    static Long lastEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(lastEventId.strip());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Reads the task version a change is conditioned on from an {@code If-Match} header: a version number or
+     * the ETag of the task, optionally quoted or weak. Only the version part of an ETag is compared, so new
+     * comments do not conflict with a change of the task. {@code *} or no header means any version.
+     *
+     * @param ifMatch the header value, or {@code null}
+     * @return the expected version, or {@code null} for any
+     */
+    static Integer expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return TaskETags.versionOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            // a tag that is not a version number can never match, versions are never negative
+            return -1;
+        }
+    }
+}
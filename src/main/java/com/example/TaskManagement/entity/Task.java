@@ -16,6 +16,7 @@ import java.util.Set;
  * Represents a task entity in the system.
  * This class defines the attributes and relationships of a task, including its title, description,
  * status, priority, author, executor, and related comments.
+ * IDs are drawn from a pooled sequence, a block of 50 per round trip, so that inserts can be batched.
  */
 @Entity
 @Getter
@@ -23,7 +24,8 @@ import java.util.Set;
 @Table(name = "tasks")
 public class Task {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id")
+    @SequenceGenerator(name = "tasks_id", sequenceName = "tasks_pooled_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -49,7 +51,7 @@ public class Task {
     @JoinColumn(name = "executor_id", referencedColumnName = "id")
     private User executor;
 
-    @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Comment> comments = new ArrayList<>();
 
     @CreationTimestamp
@@ -0,0 +1,18 @@
+package com.example.TaskManagement.exception;
+
+/**
+ * Exception thrown when a pagination cursor sent by a client cannot be decoded.
+ * This exception is used to reject the request with 400 Bad Request.
+ * It extends {@link RuntimeException} to be an unchecked exception.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidCursorException for the given cursor.
+     *
+     * @param cursor The cursor that could not be decoded.
+     */
+    public InvalidCursorException(String cursor) {
+        super("Invalid pagination cursor: " + cursor);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.TaskManagement.exception;
+
+/**
+ * Exception thrown when a task search request cannot be served with an index, e.g. because it names
+ * neither an author nor an executor, or uses an unknown sort field.
+ * This exception is used to reject the request with 400 Bad Request.
+ * It extends {@link RuntimeException} to be an unchecked exception.
+ */
+public class InvalidSearchException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidSearchException with the specified detail message.
+     *
+     * @param message The detail message explaining the cause of the exception.
+     */
+    public InvalidSearchException(String message) {
+        super(message);
+    }
+}
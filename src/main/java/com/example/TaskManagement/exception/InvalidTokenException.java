@@ -0,0 +1,18 @@
+package com.example.TaskManagement.exception;
+
+/**
+ * Exception thrown when a refresh token is malformed, expired, revoked or otherwise cannot be exchanged.
+ * This exception is used to reject token refresh and sign-out requests with 401 Unauthorized.
+ * It extends {@link RuntimeException} to be an unchecked exception.
+ */
+public class InvalidTokenException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidTokenException with the specified detail message.
+     *
+     * @param message The detail message explaining the cause of the exception.
+     */
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
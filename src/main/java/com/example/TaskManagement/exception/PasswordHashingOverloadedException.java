@@ -0,0 +1,18 @@
+package com.example.TaskManagement.exception;
+
+/**
+ * Exception thrown when a password hashing request cannot be accepted because the hashing executor is saturated.
+ * This exception is used to shed load quickly during login storms instead of queueing requests without bound.
+ * It extends {@link RuntimeException} to be an unchecked exception.
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+    /**
+     * Constructs a new PasswordHashingOverloadedException with the specified detail message.
+     *
+     * @param message The detail message explaining the cause of the exception.
+     */
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+}
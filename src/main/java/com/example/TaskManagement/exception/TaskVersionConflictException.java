@@ -0,0 +1,20 @@
+package com.example.TaskManagement.exception;
+
+/**
+ * Exception thrown when a task is changed on the condition that it is still at a given version, and it is not.
+ * This exception is used to reject the change with 412 Precondition Failed, as another change came first.
+ * It extends {@link RuntimeException} to be an unchecked exception.
+ */
+public class TaskVersionConflictException extends RuntimeException {
+
+    /**
+     * Constructs a new TaskVersionConflictException with a detail message indicating
+     * that the task with the specified ID is no longer at the expected version.
+     *
+     * @param taskId          The ID of the task.
+     * @param expectedVersion The version the change was conditioned on.
+     */
+    public TaskVersionConflictException(Long taskId, Integer expectedVersion) {
+        super("Task with ID " + taskId + " is no longer at version " + expectedVersion);
+    }
+}
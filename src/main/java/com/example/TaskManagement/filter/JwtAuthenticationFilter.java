@@ -10,6 +10,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,6 +23,11 @@ import org.springframework.web.filter.OncePerRequestFilter;
  * This filter is responsible for authenticating the user based on the JWT token provided in the HTTP request's Authorization header.
  * It checks if the request contains a valid Bearer token, extracts the username from the token, and sets the authentication context
  * if the token is valid. The filter ensures that authentication information is available for subsequent requests.
+ * <p>
+ * With {@code token.claims-only} enabled, the principal is built from the verified token claims instead of
+ * being loaded from the database, so an authenticated request costs no user query. Revoked tokens are still
+ * rejected through the per-user token version checked by {@link JwtService#isTokenValid}.
+ * </p>
  */
 @Component
 @RequiredArgsConstructor
@@ -41,6 +47,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserService userService;
 
+    /**
+     * Whether the principal is built from the token claims alone, without a user lookup.
+     */
+    @Value("${token.claims-only:false}")
+    private boolean claimsOnly;
+
     /**
      * This method is invoked for every incoming HTTP request to check the presence and validity of the JWT token.
      * If a valid token is found, it extracts the username from the token, verifies its validity, and sets the authentication context.
@@ -73,8 +85,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         var jwt = authHeader.substring(BEARER_PREFIX.length());
         var email = jwtService.extractUserName(jwt);
         if (StringUtils.isNotEmpty(email) && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService
-                    .loadUserByUsername(email);
+            UserDetails userDetails = claimsOnly ? jwtService.extractPrincipal(jwt).orElse(null) : null;
+            if (userDetails == null) {
+                userDetails = userService.loadUserByUsername(email);
+            }
 
             if (jwtService.isTokenValid(jwt, userDetails)) {
                 SecurityContext context = SecurityContextHolder.createEmptyContext();
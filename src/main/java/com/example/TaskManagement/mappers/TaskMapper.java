@@ -33,9 +33,20 @@ import java.util.stream.Collectors;
 @Mapper(componentModel = "spring")
 public interface TaskMapper {
 
+    /**
+     * Executor name shown for a task without an executor.
+     */
+    String NO_EXECUTOR = "You have not assigned a task executor";
+
     @Mapping(target = "executorName", expression = "java(getExecutorTask(task))")
     @Mapping(target = "authorName", source = "author.username")
     @Mapping(target = "comments", expression = "java(mapComments(task))")
+    @Mapping(target = "commentCount", expression = "java(task.getComments() == null ? 0 : task.getComments().size())")
+    @Mapping(target = "commentsCursor", ignore = true)
+    @Mapping(target = "commentsRevision", ignore = true)
+    @Mapping(target = "createdAt", source = "createdAtTask")
+    @Mapping(target = "updatedAt", source = "updatedAtTask")
+    @Mapping(target = "version", source = "versionTask")
     TaskResponseDTO toDTO(Task task);
 
     @Mapping(target = "id", ignore = true)
@@ -50,7 +61,7 @@ public interface TaskMapper {
         if (task.getExecutor() != null) {
             return task.getExecutor().getUsername();
         } else {
-            return "You have not assigned a task executor";
+            return NO_EXECUTOR;
         }
     }
 
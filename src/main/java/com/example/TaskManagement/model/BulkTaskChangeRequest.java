@@ -0,0 +1,61 @@
+package com.example.TaskManagement.model;
+
+import com.example.TaskManagement.entity.PriorityTask;
+import com.example.TaskManagement.entity.StatusTask;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One change applied to many tasks at once: a new status, priority or executor, or any combination of them.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Schema(description = "Bulk task change request")
+public class BulkTaskChangeRequest {
+
+    /**
+     * The largest number of tasks changed by one request.
+     */
+    public static final int MAX_TASKS = 1000;
+
+    @Schema(description = "IDs of the tasks to change")
+    @NotEmpty(message = "At least one task ID is required")
+    @Size(max = MAX_TASKS, message = "At most " + MAX_TASKS + " tasks can be changed at once")
+    private List<@NotNull Long> taskIds;
+
+    @Schema(description = "New status")
+    private StatusTask status;
+
+    @Schema(description = "New priority")
+    private PriorityTask priority;
+
+    @Schema(description = "Name of the new executor", example = "Jon")
+    private String executorName;
+
+    /**
+     * @return {@code true} if the request changes anything.
+     */
+    @JsonIgnore
+    @AssertTrue(message = "A status, priority or executor to set is required")
+    public boolean isChangeGiven() {
+        return status != null || priority != null || executorName != null;
+    }
+
+    /**
+     * @return {@code true} if only the status is changed, which the executor of a task may do as well as its author.
+     */
+    @JsonIgnore
+    public boolean isStatusOnly() {
+        return priority == null && executorName == null;
+    }
+}
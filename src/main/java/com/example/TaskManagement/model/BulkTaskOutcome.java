@@ -0,0 +1,19 @@
+package com.example.TaskManagement.model;
+
+/**
+ * What a bulk task change did to one task.
+ */
+public enum BulkTaskOutcome {
+    /**
+     * The change was applied.
+     */
+    UPDATED,
+    /**
+     * The caller may not make this change to the task.
+     */
+    FORBIDDEN,
+    /**
+     * The task does not exist.
+     */
+    NOT_FOUND
+}
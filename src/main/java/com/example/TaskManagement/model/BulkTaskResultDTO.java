@@ -0,0 +1,18 @@
+package com.example.TaskManagement.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The outcome of a bulk task change for one task.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BulkTaskResultDTO {
+    private Long taskId;
+    private BulkTaskOutcome outcome;
+}
@@ -0,0 +1,35 @@
+package com.example.TaskManagement.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list.
+ *
+ * @param <T> The type of the items.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /**
+     * The items of the page.
+     */
+    private final List<T> items;
+
+    /**
+     * The encoded {@link KeysetCursor} of the next page, or {@code null} if this is the last page.
+     */
+    private final String nextCursor;
+
+    /**
+     * Checks whether a next page exists, without any count having been made.
+     *
+     * @return {@code true} if a next page exists
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.TaskManagement.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,4 +15,14 @@ import lombok.NoArgsConstructor;
 public class JwtAuthenticationResponse {
     @Schema(description = "Access token")
     private String token;
-}
\ No newline at end of file
+
+    @Schema(description = "Refresh token")
+    private String refreshToken;
+
+    @JsonIgnore
+    private String username;
+
+    public JwtAuthenticationResponse(String token) {
+        this.token = token;
+    }
+}
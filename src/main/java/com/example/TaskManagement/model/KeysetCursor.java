@@ -0,0 +1,89 @@
+package com.example.TaskManagement.model;
+
+import com.example.TaskManagement.exception.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page in a keyset-paginated list, ordered by {@code (sortKey, id)}.
+ * <p>
+ * The next page is read with a seek predicate such as {@code WHERE (sort_key, id) > (:sortKey, :id)} on an
+ * index ending in those columns, so every page costs the same regardless of its depth, and rows inserted
+ * concurrently never shift the pages that follow. Clients receive the cursor as an opaque URL-safe string.
+ * </p>
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private static final int ENCODED_BYTES = 2 * Long.BYTES;
+    private static final LocalDateTime EPOCH = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+
+    /**
+     * The sort key of the last row; equal to {@link #id} for lists ordered by ID alone.
+     */
+    private final long sortKey;
+
+    /**
+     * The ID of the last row, breaking ties between equal sort keys.
+     */
+    private final long id;
+
+    /**
+     * Creates a cursor for a list ordered by a timestamp column, stored as microseconds since the epoch,
+     * the precision of Postgres timestamps.
+     *
+     * @param time The timestamp of the last row.
+     * @param id   The ID of the last row.
+     * @return The cursor.
+     */
+    public static KeysetCursor of(LocalDateTime time, long id) {
+        return new KeysetCursor(ChronoUnit.MICROS.between(EPOCH, time), id);
+    }
+
+    /**
+     * Returns the sort key of a cursor created with {@link #of(LocalDateTime, long)} as a timestamp.
+     *
+     * @return The timestamp of the last row.
+     */
+    public LocalDateTime getSortTime() {
+        return EPOCH.plus(sortKey, ChronoUnit.MICROS);
+    }
+
+    /**
+     * Encodes this cursor as an opaque, URL-safe string.
+     *
+     * @return The encoded cursor.
+     */
+    public String encode() {
+        byte[] bytes = ByteBuffer.allocate(ENCODED_BYTES).putLong(sortKey).putLong(id).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Decodes a cursor previously returned by {@link #encode()}.
+     *
+     * @param cursor The encoded cursor.
+     * @return The decoded cursor.
+     * @throws InvalidCursorException if the cursor is malformed.
+     */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length != ENCODED_BYTES) {
+                throw new InvalidCursorException(cursor);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new KeysetCursor(buffer.getLong(), buffer.getLong());
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.TaskManagement.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+@Schema(description = "Token refresh request")
+public class RefreshTokenRequest {
+    @Schema(description = "Refresh token")
+    @NotBlank(message = "Refresh token cannot be blank")
+    private String refreshToken;
+}
@@ -0,0 +1,29 @@
+package com.example.TaskManagement.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to a task or one of its comments, pushed to the author and the executor of the task on the change
+ * feed. Only the fields the change concerns are set; the event ID travels in the SSE {@code id} field.
+ */
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskChangeEvent {
+    private TaskChangeType type;
+    private Long taskId;
+    private Long commentId;
+    private String title;
+    private String status;
+    private String priority;
+    private String executorName;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,43 @@
+package com.example.TaskManagement.model;
+
+/**
+ * The kind of change announced by a {@link TaskChangeEvent}; also used as the SSE event name.
+ */
+public enum TaskChangeType {
+    /**
+     * A task was created.
+     */
+    TASK_CREATED,
+    /**
+     * A task was replaced as a whole.
+     */
+    TASK_UPDATED,
+    /**
+     * The status of a task changed.
+     */
+    STATUS_CHANGED,
+    /**
+     * The priority of a task changed.
+     */
+    PRIORITY_CHANGED,
+    /**
+     * The executor of a task changed.
+     */
+    EXECUTOR_CHANGED,
+    /**
+     * A task was deleted.
+     */
+    TASK_DELETED,
+    /**
+     * A comment was added to a task.
+     */
+    COMMENT_CREATED,
+    /**
+     * A comment of a task was edited.
+     */
+    COMMENT_UPDATED,
+    /**
+     * A comment of a task was deleted.
+     */
+    COMMENT_DELETED
+}
@@ -0,0 +1,26 @@
+package com.example.TaskManagement.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * The result of a bulk task import: how many rows were read, imported and rejected, the first errors with their
+ * line numbers, and the throughput.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskImportReport {
+    private long rows;
+    private long imported;
+    private long comments;
+    private long failed;
+    private List<String> errors;
+    private long elapsedMs;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,44 @@
+package com.example.TaskManagement.model;
+
+import com.example.TaskManagement.entity.PriorityTask;
+import com.example.TaskManagement.entity.StatusTask;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One task of a bulk import, as read from a line of NDJSON or a CSV record. Fields this application does not
+ * know, as exported by other trackers, are ignored.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TaskImportRow {
+    private String title;
+    private String text;
+    private StatusTask status;
+    private PriorityTask priority;
+    private String authorName;
+    private String executorName;
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private List<Comment> comments = new ArrayList<>();
+
+    /**
+     * One comment of an imported task.
+     */
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Comment {
+        private String authorName;
+        private String text;
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @NoArgsConstructor
@@ -19,5 +20,14 @@ public class TaskResponseDTO {
     private String priority;
     private String authorName;
     private String executorName;
+    private Integer version;
     private List<CommentRequestDTO> comments;
+    private long commentCount;
+    private String commentsCursor;
+    @JsonIgnore
+    private LocalDateTime createdAt;
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+    @JsonIgnore
+    private int commentsRevision;
 }
@@ -0,0 +1,17 @@
+package com.example.TaskManagement.model;
+
+/**
+ * Projection of the author and executor IDs of a task, read without loading the task or its users.
+ */
+public interface TaskRolesView {
+
+    /**
+     * @return The unique identifier of the author of the task.
+     */
+    Long getAuthorId();
+
+    /**
+     * @return The unique identifier of the executor of the task, or {@code null} if it has none.
+     */
+    Long getExecutorId();
+}
@@ -0,0 +1,25 @@
+package com.example.TaskManagement.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One result of a full-text task search: the task, its relevance and a highlighted fragment of its
+ * title and text.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+public class TaskSearchHitDTO {
+    @JsonIgnore
+    private Long id;
+    private String title;
+    private String headline;
+    private String status;
+    private String priority;
+    private String authorName;
+    private String executorName;
+    private float rank;
+}
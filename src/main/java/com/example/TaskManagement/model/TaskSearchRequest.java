@@ -0,0 +1,36 @@
+package com.example.TaskManagement.model;
+
+import com.example.TaskManagement.entity.PriorityTask;
+import com.example.TaskManagement.entity.StatusTask;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters of the task search endpoint. At least one of {@link #author} and {@link #executor}
+ * is required; every other filter is optional. Time ranges include their start and exclude their end.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+public class TaskSearchRequest {
+    private String author;
+    private String executor;
+    private StatusTask status;
+    private PriorityTask priority;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedTo;
+    private String sort = "createdAt";
+    private String direction = "desc";
+    private String cursor;
+    private int size = 10;
+}
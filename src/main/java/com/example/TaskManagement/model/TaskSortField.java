@@ -0,0 +1,42 @@
+package com.example.TaskManagement.model;
+
+import com.example.TaskManagement.exception.InvalidSearchException;
+
+/**
+ * Fields by which task search results can be sorted. Ties are always broken by task ID.
+ */
+public enum TaskSortField {
+    CREATED_AT("createdAt", "created_at"),
+    UPDATED_AT("updatedAt", "updated_at");
+
+    private final String parameter;
+    private final String column;
+
+    TaskSortField(String parameter, String column) {
+        this.parameter = parameter;
+        this.column = column;
+    }
+
+    /**
+     * @return The column of the {@code tasks} table sorted on.
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Resolves a sort field from its request parameter value, e.g. {@code createdAt}.
+     *
+     * @param parameter The request parameter value.
+     * @return The sort field.
+     * @throws InvalidSearchException if the value names no supported sort field.
+     */
+    public static TaskSortField fromParameter(String parameter) {
+        for (TaskSortField field : values()) {
+            if (field.parameter.equalsIgnoreCase(parameter)) {
+                return field;
+            }
+        }
+        throw new InvalidSearchException("Unsupported sort field: " + parameter);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.TaskManagement.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One title autocomplete suggestion: the task and its title.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskTitleSuggestionDTO {
+    private Long taskId;
+    private String title;
+}
@@ -0,0 +1,16 @@
+package com.example.TaskManagement.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The version of a task and the revision of its comments, which together identify the state of its response,
+ * read without loading the task.
+ */
+@AllArgsConstructor
+@Getter
+public class TaskVersion {
+    private final long id;
+    private final int version;
+    private final int commentsRevision;
+}
@@ -0,0 +1,17 @@
+package com.example.TaskManagement.model;
+
+/**
+ * Projection of the username and email of a user, read without loading the user.
+ */
+public interface UserIdentityView {
+
+    /**
+     * @return The username of the user.
+     */
+    String getUsername();
+
+    /**
+     * @return The email of the user.
+     */
+    String getEmail();
+}
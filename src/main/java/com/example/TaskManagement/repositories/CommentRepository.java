@@ -1,16 +1,13 @@
 package com.example.TaskManagement.repositories;
 
 import com.example.TaskManagement.entity.Comment;
-import com.example.TaskManagement.entity.Task;
-import com.example.TaskManagement.entity.User;
-import jakarta.persistence.EntityNotFoundException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Repository interface for managing {@link Comment} entities.
@@ -18,4 +15,34 @@ import java.util.Optional;
  * Extends {@link JpaRepository} for basic persistence operations.
  */
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    /**
+     * Retrieves the first page of the comments of a task, newest first, with their authors and task, served by
+     * the {@code (task_id, created_at, id)} index.
+     *
+     * @param taskId The ID of the task.
+     * @param pageable The number of comments to return.
+     * @return The comments of the page.
+     */
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author JOIN FETCH c.task " +
+            "WHERE c.task.id = :taskId " +
+            "ORDER BY c.createdAtComment DESC, c.id DESC")
+    List<Comment> findFirstPageByTask(@Param("taskId") Long taskId, Pageable pageable);
+
+    /**
+     * Retrieves the page of the comments of a task that follows the given comment, newest first, with their
+     * authors and task, served by the {@code (task_id, created_at, id)} index.
+     *
+     * @param taskId The ID of the task.
+     * @param createdAt The creation time of the last comment of the previous page.
+     * @param id The ID of the last comment of the previous page.
+     * @param pageable The number of comments to return.
+     * @return The comments of the page.
+     */
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author JOIN FETCH c.task " +
+            "WHERE c.task.id = :taskId " +
+            "AND (c.createdAtComment < :createdAt OR (c.createdAtComment = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAtComment DESC, c.id DESC")
+    List<Comment> findPageByTaskAfter(@Param("taskId") Long taskId, @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id, Pageable pageable);
 }
@@ -0,0 +1,96 @@
+package com.example.TaskManagement.repositories;
+
+import com.example.TaskManagement.entity.PriorityTask;
+import com.example.TaskManagement.entity.RedisTask;
+import com.example.TaskManagement.entity.StatusTask;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based reads and writes of many tasks at once, for bulk changes.
+ * <p>
+ * A change is applied with one {@code UPDATE ... WHERE id IN (...) RETURNING id} statement per batch of task IDs
+ * instead of one statement per task. Like the single-task patches of {@link TaskRepository}, the tasks are not
+ * loaded and their version is bumped. The statement also re-checks the caller's role, so a task whose author or
+ * executor changed since authorization is left alone and simply not returned.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskBulkRepository {
+
+    private static final String UPDATE_TASKS = "UPDATE tasks SET " +
+            "status = coalesce(CAST(:status AS VARCHAR), status), " +
+            "priority = coalesce(CAST(:priority AS VARCHAR), priority), " +
+            "executor_id = coalesce(CAST(:executorId AS BIGINT), executor_id), " +
+            "version = coalesce(version, 0) + 1, updated_at = now() " +
+            "WHERE id IN (:taskIds) " +
+            "AND (author_id = :userId OR (:statusOnly AND executor_id = :userId)) " +
+            "RETURNING id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * The maximum number of task IDs bound to one update statement.
+     */
+    @Value("${tasks.bulk.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Retrieves the author and executor IDs of several tasks with one query.
+     *
+     * @param taskIds The IDs of the tasks.
+     * @return The roles of the existing tasks, keyed by task ID.
+     */
+    public Map<Long, RedisTask> findRoles(Collection<Long> taskIds) {
+        Map<Long, RedisTask> roles = new HashMap<>();
+        if (taskIds.isEmpty()) {
+            return roles;
+        }
+        jdbcTemplate.query("SELECT t.id, t.author_id, t.executor_id FROM tasks t WHERE t.id IN (:taskIds)",
+                new MapSqlParameterSource("taskIds", taskIds), rs -> {
+                    long id = rs.getLong("id");
+                    roles.put(id, new RedisTask(id, rs.getObject("author_id", Long.class),
+                            rs.getObject("executor_id", Long.class)));
+                });
+        return roles;
+    }
+
+    /**
+     * Applies one change to several tasks in a single transaction, in batches of set-based updates.
+     *
+     * @param taskIds The IDs of the tasks to change.
+     * @param userId The ID of the user making the change; only tasks they author are changed, or also tasks they
+     *               execute if only the status is changed.
+     * @param status The new status, or {@code null} to keep it.
+     * @param priority The new priority, or {@code null} to keep it.
+     * @param executorId The ID of the new executor, or {@code null} to keep it.
+     * @return The IDs of the tasks that were changed.
+     */
+    @Transactional
+    public Set<Long> update(List<Long> taskIds, Long userId, StatusTask status, PriorityTask priority, Long executorId) {
+        Set<Long> updated = new HashSet<>();
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("status", status == null ? null : status.name())
+                .addValue("priority", priority == null ? null : priority.name())
+                .addValue("executorId", executorId)
+                .addValue("statusOnly", priority == null && executorId == null);
+        for (int from = 0; from < taskIds.size(); from += batchSize) {
+            parameters.addValue("taskIds", taskIds.subList(from, Math.min(from + batchSize, taskIds.size())));
+            updated.addAll(jdbcTemplate.queryForList(UPDATE_TASKS, parameters, Long.class));
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.TaskManagement.repositories;
+
+import com.example.TaskManagement.model.CommentResponseDTO;
+import com.example.TaskManagement.model.TaskResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads all tasks of a user with their comments in keyset chunks, for exports.
+ * <p>
+ * Each chunk is one query joining the next {@code tasks.export.chunk-size} tasks, in ascending ID order, with
+ * their comments, oldest first. The chunk is read completely and the connection returned to the pool before
+ * any of it is handed to a {@link Visitor}, so a client that reads slowly holds no connection and no
+ * transaction. No entities are created, and memory use depends on the chunk size only, not on the number of
+ * tasks exported. Chunks are read one after the other, so a long export sees later chunks as they are when it
+ * reaches them.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskExportRepository {
+
+    private static final String SELECT_EXPORT = "SELECT t.id, t.title, t.text, t.status, t.priority, " +
+            "t.created_at, t.updated_at, t.version, a.name AS author_name, e.name AS executor_name, " +
+            "c.id AS comment_id, c.text AS comment_text, c.created_at AS comment_created_at, " +
+            "ca.name AS comment_author_name " +
+            "FROM (SELECT * FROM tasks WHERE %s = ? AND id > ? ORDER BY id LIMIT ?) t " +
+            "JOIN users a ON a.id = t.author_id " +
+            "LEFT JOIN users e ON e.id = t.executor_id " +
+            "LEFT JOIN comments c ON c.task_id = t.id " +
+            "LEFT JOIN users ca ON ca.id = c.author_id " +
+            "ORDER BY t.id, c.created_at, c.id";
+
+    /**
+     * Receives the rows of an export in order: every task, followed by its comments.
+     */
+    public interface Visitor {
+
+        /**
+         * Receives a task. Its comments follow, before the next task.
+         *
+         * @param task The task, without comments.
+         * @throws IOException If the task cannot be written.
+         */
+        void task(TaskResponseDTO task) throws IOException;
+
+        /**
+         * Receives a comment of the last task.
+         *
+         * @param comment The comment.
+         * @param createdAt The creation time of the comment.
+         * @throws IOException If the comment cannot be written.
+         */
+        void comment(CommentResponseDTO comment, LocalDateTime createdAt) throws IOException;
+    }
+
+    /**
+     * A comment read with a chunk, with its creation time.
+     */
+    private record ExportedComment(CommentResponseDTO comment, LocalDateTime createdAt) {
+    }
+
+    /**
+     * A task read with a chunk, with its comments.
+     */
+    private record ExportedTask(TaskResponseDTO task, List<ExportedComment> comments) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The number of tasks read from the database per query.
+     */
+    @Value("${tasks.export.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Streams the tasks authored by a user, with their comments.
+     *
+     * @param authorId The ID of the author.
+     * @param afterId Only tasks with a greater ID are read; {@code 0} for all.
+     * @param visitor Receives the tasks and comments.
+     * @throws IOException If the visitor fails to write; no further chunk is read.
+     */
+    public void exportAuthored(Long authorId, long afterId, Visitor visitor) throws IOException {
+        export("author_id", authorId, afterId, visitor);
+    }
+
+    /**
+     * Streams the tasks assigned to a user, with their comments.
+     *
+     * @param executorId The ID of the executor.
+     * @param afterId Only tasks with a greater ID are read; {@code 0} for all.
+     * @param visitor Receives the tasks and comments.
+     * @throws IOException If the visitor fails to write; no further chunk is read.
+     */
+    public void exportExecuted(Long executorId, long afterId, Visitor visitor) throws IOException {
+        export("executor_id", executorId, afterId, visitor);
+    }
+
+    private void export(String userColumn, Long userId, long afterId, Visitor visitor) throws IOException {
+        String sql = String.format(SELECT_EXPORT, userColumn);
+        long lastTaskId = afterId;
+        List<ExportedTask> chunk;
+        do {
+            chunk = readChunk(sql, userId, lastTaskId);
+            for (ExportedTask exported : chunk) {
+                visitor.task(exported.task());
+                for (ExportedComment comment : exported.comments()) {
+                    visitor.comment(comment.comment(), comment.createdAt());
+                }
+                lastTaskId = exported.task().getId();
+            }
+        } while (chunk.size() == chunkSize);
+    }
+
+    private List<ExportedTask> readChunk(String sql, Long userId, long afterId) {
+        List<ExportedTask> chunk = new ArrayList<>(chunkSize);
+        jdbcTemplate.query(sql, rs -> {
+            long taskId = rs.getLong("id");
+            if (chunk.isEmpty() || chunk.get(chunk.size() - 1).task().getId() != taskId) {
+                TaskResponseDTO task = new TaskResponseDTO();
+                task.setId(taskId);
+                task.setTitle(rs.getString("title"));
+                task.setText(rs.getString("text"));
+                task.setStatus(rs.getString("status"));
+                task.setPriority(rs.getString("priority"));
+                task.setAuthorName(rs.getString("author_name"));
+                task.setExecutorName(rs.getString("executor_name"));
+                task.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+                task.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+                task.setVersion(rs.getObject("version", Integer.class));
+                chunk.add(new ExportedTask(task, new ArrayList<>()));
+            }
+            long commentId = rs.getLong("comment_id");
+            if (!rs.wasNull()) {
+                CommentResponseDTO comment = new CommentResponseDTO();
+                comment.setId(commentId);
+                comment.setText(rs.getString("comment_text"));
+                comment.setAuthorName(rs.getString("comment_author_name"));
+                chunk.get(chunk.size() - 1).comments()
+                        .add(new ExportedComment(comment, rs.getObject("comment_created_at", LocalDateTime.class)));
+            }
+        }, userId, afterId, chunkSize);
+        return chunk;
+    }
+}
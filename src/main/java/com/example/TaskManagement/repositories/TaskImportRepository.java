@@ -0,0 +1,79 @@
+package com.example.TaskManagement.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Writes imported tasks and comments with JDBC batches.
+ * <p>
+ * IDs come from the pooled sequences {@value #TASK_SEQUENCE} and {@value #COMMENT_SEQUENCE}, which the entities
+ * use as well: every {@code nextval} reserves a block of {@value #ID_BLOCK_SIZE} IDs starting at the returned
+ * value. Knowing the IDs up front lets comments reference their task inside the same batch, and with
+ * {@code reWriteBatchedInserts} the driver sends each batch as a few multi-row inserts.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskImportRepository {
+
+    /**
+     * The pooled sequence of task IDs.
+     */
+    public static final String TASK_SEQUENCE = "tasks_pooled_id_seq";
+
+    /**
+     * The pooled sequence of comment IDs.
+     */
+    public static final String COMMENT_SEQUENCE = "comments_pooled_id_seq";
+
+    /**
+     * The number of IDs reserved by one {@code nextval}; the increment of the pooled sequences.
+     */
+    public static final int ID_BLOCK_SIZE = 50;
+
+    private static final String INSERT_TASK = "INSERT INTO tasks " +
+            "(id, title, text, status, priority, author_id, executor_id, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, now(), now(), 0)";
+
+    private static final int[] TASK_TYPES = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.BIGINT, Types.BIGINT};
+
+    private static final String INSERT_COMMENT = "INSERT INTO comments " +
+            "(id, text, author_id, task_id, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, now(), now(), 0)";
+
+    private static final int[] COMMENT_TYPES = {Types.BIGINT, Types.VARCHAR, Types.BIGINT, Types.BIGINT};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserves blocks of IDs from a pooled sequence with one query.
+     *
+     * @param sequence The name of the sequence, {@value #TASK_SEQUENCE} or {@value #COMMENT_SEQUENCE}.
+     * @param blocks The number of blocks to reserve.
+     * @return The first ID of every block; each block holds {@value #ID_BLOCK_SIZE} IDs.
+     */
+    public List<Long> reserveIdBlocks(String sequence, int blocks) {
+        return jdbcTemplate.queryForList("SELECT nextval(CAST(? AS regclass)) FROM generate_series(1, ?)",
+                Long.class, sequence, blocks);
+    }
+
+    /**
+     * Inserts a batch of tasks and their comments in one transaction.
+     *
+     * @param tasks The values of the tasks: id, title, text, status, priority, author ID and executor ID.
+     * @param comments The values of the comments: id, text, author ID and task ID.
+     */
+    @Transactional
+    public void insert(List<Object[]> tasks, List<Object[]> comments) {
+        jdbcTemplate.batchUpdate(INSERT_TASK, tasks, TASK_TYPES);
+        if (!comments.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_COMMENT, comments, COMMENT_TYPES);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.TaskManagement.repositories;
+
+import com.example.TaskManagement.mappers.TaskMapper;
+import com.example.TaskManagement.model.CommentRequestDTO;
+import com.example.TaskManagement.model.KeysetCursor;
+import com.example.TaskManagement.model.TaskResponseDTO;
+import com.example.TaskManagement.model.TaskVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read model of tasks, assembling {@link TaskResponseDTO} objects straight from SQL rows without managed entities.
+ * <p>
+ * Any number of tasks costs exactly two queries: one for the task rows with the author and executor names
+ * joined in, and one for the comments of all those tasks with their author names. Loading the same tasks as
+ * entities would resolve the author, the executor, the comments and each comment's author separately.
+ * </p>
+ * <p>
+ * Only the most recent comments of each task are embedded, picked with a window function, together with the
+ * total number of comments and a cursor to list the older ones, so that a busy task does not inflate the
+ * response.
+ * </p>
+ * <p>
+ * For conditional requests, the versions of the same tasks can be read on their own, from the task rows only.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskReadRepository {
+
+    private static final String TASK_COLUMNS = "SELECT t.id, t.title, t.text, t.status, t.priority, " +
+            "t.created_at, t.updated_at, t.version, t.comments_revision, " +
+            "a.name AS author_name, e.name AS executor_name ";
+
+    private static final String JOIN_USERS = "JOIN users a ON a.id = t.author_id " +
+            "LEFT JOIN users e ON e.id = t.executor_id ";
+
+    private static final String SELECT_TASKS = TASK_COLUMNS + "FROM tasks t " + JOIN_USERS;
+
+    private static final String SELECT_COMMENTS = "SELECT r.task_id, r.id, r.text, r.created_at, r.comment_count, " +
+            "u.name AS author_name " +
+            "FROM (SELECT c.task_id, c.id, c.text, c.author_id, c.created_at, " +
+            "row_number() OVER (PARTITION BY c.task_id ORDER BY c.created_at DESC, c.id DESC) AS position, " +
+            "count(*) OVER (PARTITION BY c.task_id) AS comment_count " +
+            "FROM comments c " +
+            "WHERE c.task_id IN (:taskIds)) r " +
+            "JOIN users u ON u.id = r.author_id " +
+            "WHERE r.position <= :limit " +
+            "ORDER BY r.task_id, r.position";
+
+    private static final String SELECT_VERSIONS = "SELECT t.id, coalesce(t.version, 0) AS version, t.comments_revision " +
+            "FROM tasks t ";
+
+    private static final RowMapper<TaskVersion> VERSION_ROW_MAPPER = (rs, rowNum) ->
+            new TaskVersion(rs.getLong("id"), rs.getInt("version"), rs.getInt("comments_revision"));
+
+    private static final RowMapper<TaskResponseDTO> TASK_ROW_MAPPER = (rs, rowNum) -> {
+        TaskResponseDTO dto = new TaskResponseDTO();
+        dto.setId(rs.getLong("id"));
+        dto.setTitle(rs.getString("title"));
+        dto.setText(rs.getString("text"));
+        dto.setStatus(rs.getString("status"));
+        dto.setPriority(rs.getString("priority"));
+        dto.setAuthorName(rs.getString("author_name"));
+        String executorName = rs.getString("executor_name");
+        dto.setExecutorName(executorName == null ? TaskMapper.NO_EXECUTOR : executorName);
+        dto.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        dto.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        dto.setVersion(rs.getObject("version", Integer.class));
+        dto.setCommentsRevision(rs.getInt("comments_revision"));
+        dto.setComments(new ArrayList<>());
+        return dto;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * The maximum number of comments embedded in each task, newest first.
+     */
+    @Value("${tasks.embedded-comments:5}")
+    private int embeddedComments;
+
+    /**
+     * Retrieves a task by its ID.
+     *
+     * @param id The ID of the task.
+     * @return The task, or an empty {@link Optional} if it does not exist.
+     */
+    public Optional<TaskResponseDTO> findById(Long id) {
+        List<TaskResponseDTO> tasks = jdbcTemplate.query(SELECT_TASKS + "WHERE t.id = :id",
+                new MapSqlParameterSource("id", id), TASK_ROW_MAPPER);
+        return tasks.stream().findFirst().map(task -> withComments(List.of(task)).get(0));
+    }
+
+    /**
+     * Retrieves the page of tasks owned by the specified author that follows the given task ID, in ascending
+     * ID order, served by the {@code (author_id, id)} index.
+     *
+     * @param authorId The ID of the author.
+     * @param afterId The ID of the last task of the previous page, or {@code 0} for the first page.
+     * @param limit The maximum number of tasks to return.
+     * @return The tasks of the page.
+     */
+    public List<TaskResponseDTO> findAllWithAuthor(Long authorId, long afterId, int limit) {
+        return findPage("t.author_id", authorId, afterId, limit);
+    }
+
+    /**
+     * Retrieves the page of tasks assigned to the specified executor that follows the given task ID, in
+     * ascending ID order, served by the {@code (executor_id, id)} index.
+     *
+     * @param executorId The ID of the executor.
+     * @param afterId The ID of the last task of the previous page, or {@code 0} for the first page.
+     * @param limit The maximum number of tasks to return.
+     * @return The tasks of the page.
+     */
+    public List<TaskResponseDTO> findAllWithExecutor(Long executorId, long afterId, int limit) {
+        return findPage("t.executor_id", executorId, afterId, limit);
+    }
+
+    /**
+     * Retrieves the version of a task and the revision of its comments.
+     *
+     * @param id The ID of the task.
+     * @return The version, or an empty {@link Optional} if the task does not exist.
+     */
+    public Optional<TaskVersion> findVersion(Long id) {
+        return jdbcTemplate.query(SELECT_VERSIONS + "WHERE t.id = :id",
+                new MapSqlParameterSource("id", id), VERSION_ROW_MAPPER).stream().findFirst();
+    }
+
+    /**
+     * Retrieves the versions of the page of tasks {@link #findAllWithAuthor} returns, without their users or
+     * comments.
+     *
+     * @param authorId The ID of the author.
+     * @param afterId The ID of the last task of the previous page, or {@code 0} for the first page.
+     * @param limit The maximum number of tasks to return.
+     * @return The versions of the tasks of the page, in ascending ID order.
+     */
+    public List<TaskVersion> findVersionsWithAuthor(Long authorId, long afterId, int limit) {
+        return findVersionPage("t.author_id", authorId, afterId, limit);
+    }
+
+    /**
+     * Retrieves the versions of the page of tasks {@link #findAllWithExecutor} returns, without their users or
+     * comments.
+     *
+     * @param executorId The ID of the executor.
+     * @param afterId The ID of the last task of the previous page, or {@code 0} for the first page.
+     * @param limit The maximum number of tasks to return.
+     * @return The versions of the tasks of the page, in ascending ID order.
+     */
+    public List<TaskVersion> findVersionsWithExecutor(Long executorId, long afterId, int limit) {
+        return findVersionPage("t.executor_id", executorId, afterId, limit);
+    }
+
+    /**
+     * Runs a task search.
+     * <p>
+     * The query selects the page of task rows first; the user names are joined onto that page only, and the
+     * order of the query is restored on the result.
+     * </p>
+     *
+     * @param query The query built by {@link TaskSearchQueryBuilder}.
+     * @return The matching tasks, in the order of the query.
+     */
+    public List<TaskResponseDTO> search(TaskSearchQuery query) {
+        List<TaskResponseDTO> tasks = jdbcTemplate.query("WITH page AS (" + query.getSql() + ") " +
+                TASK_COLUMNS + "FROM page t " + JOIN_USERS +
+                "ORDER BY " + query.orderBy("t"), query.getParameters(), TASK_ROW_MAPPER);
+        return withComments(tasks);
+    }
+
+    private List<TaskResponseDTO> findPage(String userColumn, Long userId, long afterId, int limit) {
+        List<TaskResponseDTO> tasks = jdbcTemplate.query(SELECT_TASKS + pageOf(userColumn),
+                pageParameters(userId, afterId, limit), TASK_ROW_MAPPER);
+        return withComments(tasks);
+    }
+
+    private List<TaskVersion> findVersionPage(String userColumn, Long userId, long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_VERSIONS + pageOf(userColumn),
+                pageParameters(userId, afterId, limit), VERSION_ROW_MAPPER);
+    }
+
+    private static String pageOf(String userColumn) {
+        return "WHERE " + userColumn + " = :userId AND t.id > :afterId " +
+                "ORDER BY t.id " +
+                "LIMIT :limit";
+    }
+
+    private static MapSqlParameterSource pageParameters(Long userId, long afterId, int limit) {
+        return new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+    }
+
+    /**
+     * Loads the most recent comments of all given tasks with one query and attaches them to their tasks, with
+     * the total number of comments and, when some were left out, the cursor of the last embedded one.
+     */
+    private List<TaskResponseDTO> withComments(List<TaskResponseDTO> tasks) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        Map<Long, TaskResponseDTO> tasksById = new HashMap<>();
+        for (TaskResponseDTO task : tasks) {
+            tasksById.put(task.getId(), task);
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("taskIds", tasksById.keySet())
+                .addValue("limit", embeddedComments);
+        jdbcTemplate.query(SELECT_COMMENTS, parameters, rs -> {
+            CommentRequestDTO comment = new CommentRequestDTO();
+            comment.setId(rs.getLong("id"));
+            comment.setText(rs.getString("text"));
+            comment.setAuthorName(rs.getString("author_name"));
+            TaskResponseDTO task = tasksById.get(rs.getLong("task_id"));
+            task.getComments().add(comment);
+            task.setCommentCount(rs.getLong("comment_count"));
+            if (task.getComments().size() == embeddedComments && task.getCommentCount() > embeddedComments) {
+                task.setCommentsCursor(KeysetCursor.of(rs.getObject("created_at", LocalDateTime.class), comment.getId()).encode());
+            }
+        });
+        return tasks;
+    }
+}
@@ -2,14 +2,16 @@ package com.example.TaskManagement.repositories;
 
 
 import com.example.TaskManagement.entity.Task;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.example.TaskManagement.model.TaskRolesView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing {@link Task} entities.
@@ -20,39 +22,77 @@ import java.util.List;
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
     /**
-     * Retrieves a paginated list of {@link Task} entities where the specified author is the owner.
+     * Retrieves a list of comments associated with a specific task, along with the author's name.
      *
-     * @param id The ID of the author whose tasks are being retrieved.
-     * @param pageable Pagination information (e.g., page number and size).
-     * @return A {@link Page} of {@link Task} entities for the specified author.
+     * @param id The ID of the task whose comments are being retrieved.
+     * @return A list of object arrays where each array contains the comment text and the author's name.
      */
-    @Query(value = "SELECT t.* " +
-            "FROM tasks t " +
-            "WHERE t.author_id = :id", nativeQuery = true)
-    Page<Task> findAllWithAuthor(@Param("id") Long id, Pageable pageable);
+    @Query(value = "SELECT c.text, u.name " +
+            "FROM comments c JOIN users u ON " +
+            "c.author_id = u.id " +
+            "WHERE c.task_id = :id",
+            nativeQuery = true)
+    List<Object[]> findAllComment(@Param("id") Long id);
 
     /**
-     * Retrieves a paginated list of {@link Task} entities where the specified user is the executor.
+     * Retrieves the author and executor IDs of a task, used as the authoritative fallback of role checks.
      *
-     * @param id The ID of the executor whose tasks are being retrieved.
-     * @param pageable Pagination information (e.g., page number and size).
-     * @return A {@link Page} of {@link Task} entities for the specified executor.
+     * @param id The ID of the task.
+     * @return The author and executor IDs, or an empty {@link Optional} if the task does not exist.
      */
-    @Query(value = "SELECT t.* " +
+    @Query(value = "SELECT t.author_id AS authorId, t.executor_id AS executorId " +
             "FROM tasks t " +
-            "WHERE t.executor_id =  :id", nativeQuery = true)
-    Page<Task> findAllWithExecutor(@Param("id") Long id, Pageable pageable);
+            "WHERE t.id = :id", nativeQuery = true)
+    Optional<TaskRolesView> findRolesById(@Param("id") Long id);
 
     /**
-     * Retrieves a list of comments associated with a specific task, along with the author's name.
+     * Sets the status of a task with one statement, without loading it, bumping its version like
+     * {@link jakarta.persistence.Version} does.
      *
-     * @param id The ID of the task whose comments are being retrieved.
-     * @return A list of object arrays where each array contains the comment text and the author's name.
+     * @param id The ID of the task.
+     * @param status The name of the new status.
+     * @param expectedVersion The version the task must be at, or {@code null} for any.
+     * @return The number of updated rows: {@code 0} if the task does not exist or is at another version.
      */
-    @Query(value = "SELECT c.text, u.name " +
-            "FROM comments c JOIN users u ON " +
-            "c.author_id = u.id " +
-            "WHERE c.task_id = :id",
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE tasks SET status = :status, version = coalesce(version, 0) + 1, updated_at = now() " +
+            "WHERE id = :id AND (CAST(:expectedVersion AS INTEGER) IS NULL OR version = CAST(:expectedVersion AS INTEGER))",
             nativeQuery = true)
-    List<Object[]> findAllComment(@Param("id") Long id);
+    int updateStatus(@Param("id") Long id, @Param("status") String status,
+                     @Param("expectedVersion") Integer expectedVersion);
+
+    /**
+     * Sets the priority of a task with one statement, without loading it, bumping its version like
+     * {@link jakarta.persistence.Version} does.
+     *
+     * @param id The ID of the task.
+     * @param priority The name of the new priority.
+     * @param expectedVersion The version the task must be at, or {@code null} for any.
+     * @return The number of updated rows: {@code 0} if the task does not exist or is at another version.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE tasks SET priority = :priority, version = coalesce(version, 0) + 1, updated_at = now() " +
+            "WHERE id = :id AND (CAST(:expectedVersion AS INTEGER) IS NULL OR version = CAST(:expectedVersion AS INTEGER))",
+            nativeQuery = true)
+    int updatePriority(@Param("id") Long id, @Param("priority") String priority,
+                       @Param("expectedVersion") Integer expectedVersion);
+
+    /**
+     * Sets the executor of a task with one statement, without loading it, bumping its version like
+     * {@link jakarta.persistence.Version} does.
+     *
+     * @param id The ID of the task.
+     * @param executorId The ID of the new executor.
+     * @param expectedVersion The version the task must be at, or {@code null} for any.
+     * @return The number of updated rows: {@code 0} if the task does not exist or is at another version.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE tasks SET executor_id = :executorId, version = coalesce(version, 0) + 1, updated_at = now() " +
+            "WHERE id = :id AND (CAST(:expectedVersion AS INTEGER) IS NULL OR version = CAST(:expectedVersion AS INTEGER))",
+            nativeQuery = true)
+    int updateExecutor(@Param("id") Long id, @Param("executorId") Long executorId,
+                       @Param("expectedVersion") Integer expectedVersion);
 }
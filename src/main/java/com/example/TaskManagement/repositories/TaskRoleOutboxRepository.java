@@ -0,0 +1,98 @@
+package com.example.TaskManagement.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Access to the {@code task_role_outbox} table, filled by a trigger on {@code tasks} in the transaction of every
+ * change of a task's author or executor, insert or delete.
+ * <p>
+ * Entries of one task are visible in ID order: a change locks the task row before its trigger takes the next
+ * outbox ID, so a later change of the same task gets a higher ID and commits after it.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskRoleOutboxRepository {
+
+    /**
+     * The key of the transaction-level advisory lock that keeps drains of all instances apart.
+     */
+    static final long DRAIN_LOCK = 0x7461736b726f6c65L;
+
+    private static final String SELECT_BATCH = "SELECT id, task_id, author_id, executor_id, deleted, " +
+            "extract(epoch FROM (clock_timestamp() - created_at)) AS age " +
+            "FROM task_role_outbox ORDER BY id LIMIT ?";
+
+    /**
+     * One recorded change: the roles of a task after it, or its deletion.
+     *
+     * @param id The ID of the entry.
+     * @param taskId The ID of the task.
+     * @param authorId The ID of the author, {@code null} if the task was deleted.
+     * @param executorId The ID of the executor, {@code null} if it has none or was deleted.
+     * @param deleted Whether the task was deleted.
+     * @param ageSeconds The time since the change, in seconds.
+     */
+    public record Entry(long id, long taskId, Long authorId, Long executorId, boolean deleted, double ageSeconds) {
+    }
+
+    /**
+     * The number of pending entries and the age of the oldest.
+     *
+     * @param pending The number of pending entries.
+     * @param oldestAgeSeconds The age of the oldest pending entry in seconds, {@code 0} if there is none.
+     */
+    public record Backlog(long pending, double oldestAgeSeconds) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Hands the oldest entries to a consumer and deletes them once it returns, all in one transaction. If the
+     * consumer throws, the transaction is rolled back and the entries stay for the next attempt. Only one drain
+     * runs at a time across all instances; the others return at once.
+     *
+     * @param limit The maximum number of entries.
+     * @param consumer Applies the entries, in ID order.
+     * @return The number of entries drained, {@code 0} if another drain is running.
+     */
+    @Transactional
+    public int drain(int limit, Consumer<List<Entry>> consumer) {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, DRAIN_LOCK);
+        if (!Boolean.TRUE.equals(locked)) {
+            return 0;
+        }
+        List<Entry> entries = jdbcTemplate.query(SELECT_BATCH, (rs, rowNum) -> new Entry(
+                rs.getLong("id"),
+                rs.getLong("task_id"),
+                rs.getObject("author_id", Long.class),
+                rs.getObject("executor_id", Long.class),
+                rs.getBoolean("deleted"),
+                rs.getDouble("age")), limit);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        consumer.accept(entries);
+        jdbcTemplate.update("DELETE FROM task_role_outbox WHERE id = ANY (?)",
+                (Object) entries.stream().map(Entry::id).toArray(Long[]::new));
+        return entries.size();
+    }
+
+    /**
+     * Measures the pending entries.
+     *
+     * @return The number of pending entries and the age of the oldest.
+     */
+    public Backlog backlog() {
+        return jdbcTemplate.queryForObject("SELECT count(*) AS pending, " +
+                        "coalesce(extract(epoch FROM (clock_timestamp() - min(created_at))), 0) AS age " +
+                        "FROM task_role_outbox",
+                (rs, rowNum) -> new Backlog(rs.getLong("pending"), rs.getDouble("age")));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.TaskManagement.repositories;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Native SQL of a task search with its named parameters, as built by {@link TaskSearchQueryBuilder}.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskSearchQuery {
+
+    /**
+     * The native SQL, selecting whole rows of the {@code tasks} table.
+     */
+    private final String sql;
+
+    /**
+     * The values of the named parameters of {@link #sql}.
+     */
+    private final Map<String, Object> parameters;
+
+    /**
+     * The column the results are sorted by, before the task ID.
+     */
+    private final String sortColumn;
+
+    /**
+     * Whether the results are sorted in descending order.
+     */
+    private final boolean descending;
+
+    /**
+     * Renders the order of the results for a relation holding the rows selected by {@link #sql}, so that
+     * a query joining further tables onto them can restore the order.
+     *
+     * @param alias The alias of the relation.
+     * @return The {@code ORDER BY} list.
+     */
+    public String orderBy(String alias) {
+        String direction = descending ? " DESC" : " ASC";
+        return alias + "." + sortColumn + direction + ", " + alias + ".id" + direction;
+    }
+}
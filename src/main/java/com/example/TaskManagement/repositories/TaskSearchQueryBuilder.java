@@ -0,0 +1,211 @@
+package com.example.TaskManagement.repositories;
+
+import com.example.TaskManagement.entity.PriorityTask;
+import com.example.TaskManagement.entity.StatusTask;
+import com.example.TaskManagement.exception.InvalidSearchException;
+import com.example.TaskManagement.model.KeysetCursor;
+import com.example.TaskManagement.model.TaskSortField;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds the native SQL of a task search so that it can always be answered from an index.
+ * <p>
+ * The generated statement has a fixed shape that matches the indexes of the {@code tasks} table:
+ * </p>
+ * <ul>
+ *   <li>it is anchored on the author or the executor (or both) with an equality predicate, the leading column
+ *   of every search index; a search without either is rejected;</li>
+ *   <li>status and priority are compared for equality, in the column order of the
+ *   {@code (user, status, priority, created_at, id)} indexes;</li>
+ *   <li>time ranges are half-open comparisons on the bare columns, never wrapped in functions;</li>
+ *   <li>the order is always {@code (sort column, id)} in one direction, and the next page is sought with a
+ *   row-value comparison on the same pair, so the {@code (user, sort column, id)} index can be read in order;</li>
+ *   <li>a {@code LIMIT} is always applied.</li>
+ * </ul>
+ * <p>
+ * Values are bound as named parameters, never concatenated.
+ * </p>
+ */
+public final class TaskSearchQueryBuilder {
+
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+    private final StringBuilder where = new StringBuilder();
+    private Long authorId;
+    private Long executorId;
+    private TaskSortField sortField = TaskSortField.CREATED_AT;
+    private boolean descending = true;
+    private KeysetCursor after;
+    private int limit = 10;
+
+    private TaskSearchQueryBuilder() {
+    }
+
+    /**
+     * Starts a new search.
+     *
+     * @return The builder.
+     */
+    public static TaskSearchQueryBuilder create() {
+        return new TaskSearchQueryBuilder();
+    }
+
+    /**
+     * Restricts the search to the tasks of an author.
+     *
+     * @param authorId The ID of the author, or {@code null} for no restriction.
+     * @return The builder.
+     */
+    public TaskSearchQueryBuilder author(Long authorId) {
+        this.authorId = authorId;
+        return this;
+    }
+
+    /**
+     * Restricts the search to the tasks assigned to an executor.
+     *
+     * @param executorId The ID of the executor, or {@code null} for no restriction.
+     * @return The builder.
+     */
+    public TaskSearchQueryBuilder executor(Long executorId) {
+        this.executorId = executorId;
+        return this;
+    }
+
+    /**
+     * Restricts the search to one status.
+     *
+     * @param status The status, or {@code null} for any.
+     * @return The builder.
+     */
+    public TaskSearchQueryBuilder status(StatusTask status) {
+        if (status != null) {
+            and("t.status = :status", "status", status.name());
+        }
+        return this;
+    }
+
+    /**
+     * Restricts the search to one priority.
+     *
+     * @param priority The priority, or {@code null} for any.
+     * @return The builder.
+     */
+    public TaskSearchQueryBuilder priority(PriorityTask priority) {
+        if (priority != null) {
+            and("t.priority = :priority", "priority", priority.name());
+        }
+        return this;
+    }
+
+    /**
+     * Restricts the search to tasks created in a half-open time range.
+     *
+     * @param from The inclusive start, or {@code null} for no lower bound.
+     * @param to   The exclusive end, or {@code null} for no upper bound.
+     * @return The builder.
+     */
+    public TaskSearchQueryBuilder createdBetween(LocalDateTime from, LocalDateTime to) {
+        return range("created_at", "created", from, to);
+    }
+
+    /**
+     * Restricts the search to tasks last updated in a half-open time range.
+     *
+     * @param from The inclusive start, or {@code null} for no lower bound.
+     * @param to   The exclusive end, or {@code null} for no upper bound.
+     * @return The builder.
+     */
+    public TaskSearchQueryBuilder updatedBetween(LocalDateTime from, LocalDateTime to) {
+        return range("updated_at", "updated", from, to);
+    }
+
+    /**
+     * Sets the order of the results; ties are broken by task ID in the same direction.
+     *
+     * @param sortField  The field to sort by.
+     * @param descending {@code true} for newest first.
+     * @return The builder.
+     */
+    public TaskSearchQueryBuilder orderBy(TaskSortField sortField, boolean descending) {
+        this.sortField = sortField;
+        this.descending = descending;
+        return this;
+    }
+
+    /**
+     * Continues the search after the last row of a previous page.
+     *
+     * @param after The cursor of the previous page, or {@code null} for the first page.
+     * @return The builder.
+     */
+    public TaskSearchQueryBuilder after(KeysetCursor after) {
+        this.after = after;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of rows returned.
+     *
+     * @param limit The maximum number of rows.
+     * @return The builder.
+     */
+    public TaskSearchQueryBuilder limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Builds the query.
+     *
+     * @return The SQL and its parameters.
+     * @throws InvalidSearchException if neither an author nor an executor was given.
+     */
+    public TaskSearchQuery build() {
+        if (authorId == null && executorId == null) {
+            throw new InvalidSearchException("A task search requires an author or an executor");
+        }
+        StringBuilder sql = new StringBuilder("SELECT t.* FROM tasks t WHERE ");
+        Map<String, Object> bound = new LinkedHashMap<>();
+        if (authorId != null) {
+            sql.append("t.author_id = :authorId");
+            bound.put("authorId", authorId);
+        }
+        if (executorId != null) {
+            sql.append(authorId != null ? " AND " : "").append("t.executor_id = :executorId");
+            bound.put("executorId", executorId);
+        }
+        sql.append(where);
+        bound.putAll(parameters);
+
+        String column = "t." + sortField.getColumn();
+        String direction = descending ? " DESC" : " ASC";
+        if (after != null) {
+            sql.append(" AND (").append(column).append(", t.id) ").append(descending ? "<" : ">")
+                    .append(" (:afterSortKey, :afterId)");
+            bound.put("afterSortKey", after.getSortTime());
+            bound.put("afterId", after.getId());
+        }
+        sql.append(" ORDER BY ").append(column).append(direction).append(", t.id").append(direction)
+                .append(" LIMIT :limit");
+        bound.put("limit", limit);
+        return new TaskSearchQuery(sql.toString(), bound, sortField.getColumn(), descending);
+    }
+
+    private TaskSearchQueryBuilder range(String column, String name, LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            and("t." + column + " >= :" + name + "From", name + "From", from);
+        }
+        if (to != null) {
+            and("t." + column + " < :" + name + "To", name + "To", to);
+        }
+        return this;
+    }
+
+    private void and(String predicate, String name, Object value) {
+        where.append(" AND ").append(predicate);
+        parameters.put(name, value);
+    }
+}
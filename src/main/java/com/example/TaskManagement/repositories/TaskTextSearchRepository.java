@@ -0,0 +1,109 @@
+package com.example.TaskManagement.repositories;
+
+import com.example.TaskManagement.mappers.TaskMapper;
+import com.example.TaskManagement.model.KeysetCursor;
+import com.example.TaskManagement.model.TaskSearchHitDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Full-text search over the {@code search_vector} columns of tasks and comments, which the database keeps up to
+ * date from the title and the text of each task and from the text of each comment.
+ * <p>
+ * Matches are found through the GIN indexes of both tables and restricted to the tasks of one user. A task
+ * matches by itself or through any of its comments, and is ranked by its best match; comments weigh less than
+ * the title and the text. Only the rank and the ID of
+ * the matches are computed for the whole result; the page is cut from them first, and the rows, the user names
+ * and the highlighted fragments, the costly part, are produced for that page only. Pages follow each other with
+ * a keyset on {@code (rank, id)}, both descending.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskTextSearchRepository {
+
+    private static final String SEARCH = "WITH query AS (SELECT websearch_to_tsquery('simple', :text) AS query), " +
+            "matches AS (" +
+            "SELECT t.id, ts_rank(t.search_vector, query.query) AS rank " +
+            "FROM tasks t, query " +
+            "WHERE t.search_vector @@ query.query AND (t.author_id = :userId OR t.executor_id = :userId) " +
+            "UNION ALL " +
+            "SELECT t.id, ts_rank(c.search_vector, query.query) AS rank " +
+            "FROM comments c JOIN tasks t ON t.id = c.task_id, query " +
+            "WHERE c.search_vector @@ query.query AND (t.author_id = :userId OR t.executor_id = :userId)), " +
+            "hits AS (" +
+            "SELECT matches.id, max(matches.rank) AS rank FROM matches GROUP BY matches.id), " +
+            "page AS (" +
+            "SELECT hits.id, hits.rank FROM hits " +
+            "%s" +
+            "ORDER BY hits.rank DESC, hits.id DESC " +
+            "LIMIT :limit) " +
+            "SELECT t.id, page.rank, t.title, t.status, t.priority, " +
+            "a.name AS author_name, e.name AS executor_name, " +
+            "ts_headline('simple', concat_ws(' ', t.title, t.text), query.query, 'MaxFragments=2') AS headline " +
+            "FROM page " +
+            "JOIN tasks t ON t.id = page.id " +
+            "CROSS JOIN query " +
+            "JOIN users a ON a.id = t.author_id " +
+            "LEFT JOIN users e ON e.id = t.executor_id " +
+            "ORDER BY page.rank DESC, page.id DESC";
+
+    private static final String FIRST_PAGE = String.format(SEARCH, "");
+
+    private static final String NEXT_PAGE = String.format(SEARCH, "WHERE (hits.rank, hits.id) < (:afterRank, :afterId) ");
+
+    private static final RowMapper<TaskSearchHitDTO> HIT_ROW_MAPPER = (rs, rowNum) -> {
+        TaskSearchHitDTO dto = new TaskSearchHitDTO();
+        dto.setId(rs.getLong("id"));
+        dto.setRank(rs.getFloat("rank"));
+        dto.setTitle(rs.getString("title"));
+        dto.setHeadline(rs.getString("headline"));
+        dto.setStatus(rs.getString("status"));
+        dto.setPriority(rs.getString("priority"));
+        dto.setAuthorName(rs.getString("author_name"));
+        String executorName = rs.getString("executor_name");
+        dto.setExecutorName(executorName == null ? TaskMapper.NO_EXECUTOR : executorName);
+        return dto;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Searches the tasks authored or executed by a user, best match first.
+     *
+     * @param userId The ID of the user.
+     * @param text The search text, in web search syntax: quoted phrases, {@code or} and {@code -} for exclusion.
+     * @param after The cursor of the previous page, created with {@link #cursorOf(TaskSearchHitDTO)},
+     *              or {@code null} for the first page.
+     * @param limit The maximum number of results.
+     * @return The matching tasks of the page.
+     */
+    public List<TaskSearchHitDTO> search(Long userId, String text, KeysetCursor after, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("text", text)
+                .addValue("userId", userId)
+                .addValue("limit", limit);
+        if (after == null) {
+            return jdbcTemplate.query(FIRST_PAGE, parameters, HIT_ROW_MAPPER);
+        }
+        parameters.addValue("afterRank", Float.intBitsToFloat((int) after.getSortKey()))
+                .addValue("afterId", after.getId());
+        return jdbcTemplate.query(NEXT_PAGE, parameters, HIT_ROW_MAPPER);
+    }
+
+    /**
+     * Creates the cursor continuing a search after the given result. The rank is stored bit for bit, so that
+     * the next page compares it exactly.
+     *
+     * @param hit The last result of a page.
+     * @return The cursor.
+     */
+    public static KeysetCursor cursorOf(TaskSearchHitDTO hit) {
+        return new KeysetCursor(Float.floatToIntBits(hit.getRank()), hit.getId());
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.TaskManagement.repositories;
 
 import com.example.TaskManagement.entity.User;
+import com.example.TaskManagement.model.UserIdentityView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -38,6 +41,42 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findUserById(Long id);
 
+    /**
+     * Retrieves only the ID of the user with the given username, without loading the entity.
+     *
+     * @param username The username of the user.
+     * @return An {@link Optional} containing the user ID if found, or an empty {@link Optional} otherwise.
+     */
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    /**
+     * Retrieves only the ID of the user with the given email, without loading the entity.
+     *
+     * @param email The email of the user.
+     * @return An {@link Optional} containing the user ID if found, or an empty {@link Optional} otherwise.
+     */
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    /**
+     * Retrieves only the username of the user with the given ID, without loading the entity.
+     *
+     * @param id The ID of the user.
+     * @return An {@link Optional} containing the username if found, or an empty {@link Optional} otherwise.
+     */
+    @Query("SELECT u.username FROM User u WHERE u.id = :id")
+    Optional<String> findUsernameById(@Param("id") Long id);
+
+    /**
+     * Retrieves only the username and the email of the user with the given ID, without loading the entity.
+     *
+     * @param id The ID of the user.
+     * @return An {@link Optional} containing the username and email if found, or an empty {@link Optional} otherwise.
+     */
+    @Query("SELECT u.username AS username, u.email AS email FROM User u WHERE u.id = :id")
+    Optional<UserIdentityView> findIdentityById(@Param("id") Long id);
+
     /**
      * Checks if a user with the specified username exists in the repository.
      *
@@ -0,0 +1,139 @@
+package com.example.TaskManagement.securityRedis;
+
+import com.example.TaskManagement.model.TaskRolesView;
+import com.example.TaskManagement.repositories.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking lookup of task roles in the compact store of {@link RedisTaskRoleRepository}.
+ * <p>
+ * A lookup goes through the optional {@link TaskRoleNearCache} first, then issues a single {@code HGET} on the
+ * reactive Redis client, bounded by {@code redis.task-roles.lookup-timeout-ms}. If Redis is slow, fails, or does
+ * not know the task (e.g. after a flush), the roles are read from Postgres with a projection query on the
+ * bounded-elastic scheduler instead, so an authorization check never waits longer than the timeout on Redis.
+ * Fallbacks are counted in {@code task-roles.lookup.fallbacks}, tagged with their reason.
+ * </p>
+ * <p>
+ * The returned {@link Mono}s can be composed on a reactive stack or blocked on from the servlet stack.
+ * </p>
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTaskRoleRepository {
+
+    private final ReactiveRedisTemplate<String, byte[]> reactiveTaskRoleRedisTemplate;
+    private final TaskRepository taskRepository;
+    private final TaskRoleNearCache nearCache;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * How long a Redis lookup may take before Postgres is asked instead.
+     */
+    @Value("${redis.task-roles.lookup-timeout-ms:50}")
+    private long lookupTimeoutMs;
+
+    private Duration lookupTimeout;
+    private ReactiveHashOperations<String, byte[], byte[]> hashOperations;
+    private Counter timeoutFallbacks;
+    private Counter errorFallbacks;
+    private Counter missFallbacks;
+
+    /**
+     * Prepares the hash operations and registers the fallback counters.
+     */
+    @PostConstruct
+    public void init() {
+        lookupTimeout = Duration.ofMillis(lookupTimeoutMs);
+        hashOperations = reactiveTaskRoleRedisTemplate.opsForHash();
+        timeoutFallbacks = meterRegistry.counter("task-roles.lookup.fallbacks", "reason", "timeout");
+        errorFallbacks = meterRegistry.counter("task-roles.lookup.fallbacks", "reason", "error");
+        missFallbacks = meterRegistry.counter("task-roles.lookup.fallbacks", "reason", "miss");
+    }
+
+    /**
+     * Resolves the relationship of a user to a task.
+     *
+     * @param taskId The unique identifier of the task.
+     * @param userId The unique identifier of the user.
+     * @return {@link TaskRole#AUTHOR}, {@link TaskRole#EXECUTOR}, or {@link TaskRole#NONE} if the task is unknown.
+     */
+    public Mono<TaskRole> findRole(Long taskId, long userId) {
+        return findRoles(taskId)
+                .map(roles -> roles[0] == userId ? TaskRole.AUTHOR : roles[1] == userId ? TaskRole.EXECUTOR : TaskRole.NONE)
+                .defaultIfEmpty(TaskRole.NONE);
+    }
+
+    /**
+     * Finds the roles of a task.
+     *
+     * @param taskId The unique identifier of the task.
+     * @return The author ID at index 0 and the executor ID (or {@code 0}) at index 1, or an empty {@link Mono}
+     * if the task does not exist.
+     */
+    public Mono<long[]> findRoles(Long taskId) {
+        long[] cached = new long[2];
+        if (nearCache.get(taskId, cached)) {
+            return Mono.just(cached);
+        }
+        long generation = nearCache.generation();
+        return hashOperations.get(RedisTaskRoleRepository.key(taskId), RedisTaskRoleRepository.field(taskId))
+                .timeout(lookupTimeout)
+                .map(value -> {
+                    long[] roles = unpack(value);
+                    nearCache.put(taskId, roles[0], roles[1], generation);
+                    return Optional.of(roles);
+                })
+                .onErrorResume(e -> {
+                    if (e instanceof TimeoutException) {
+                        timeoutFallbacks.increment();
+                    } else {
+                        errorFallbacks.increment();
+                        log.warn("Task role lookup in Redis failed, falling back to Postgres: " + e.getMessage());
+                    }
+                    return Mono.just(Optional.empty());
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    missFallbacks.increment();
+                    return Optional.empty();
+                }))
+                .flatMap(roles -> roles.isPresent() ? Mono.just(roles.get()) : findInDatabase(taskId));
+    }
+
+    /**
+     * Reads the roles of a task from Postgres without blocking the calling thread.
+     *
+     * @param taskId The unique identifier of the task.
+     * @return The roles of the task, or an empty {@link Mono} if the task does not exist.
+     */
+    private Mono<long[]> findInDatabase(Long taskId) {
+        return Mono.fromCallable(() -> taskRepository.findRolesById(taskId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty)
+                .map(ReactiveTaskRoleRepository::toRoles);
+    }
+
+    private static long[] unpack(byte[] value) {
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        return new long[]{buffer.getLong(), buffer.getLong()};
+    }
+
+    private static long[] toRoles(TaskRolesView view) {
+        return new long[]{view.getAuthorId(), view.getExecutorId() == null ? 0 : view.getExecutorId()};
+    }
+}
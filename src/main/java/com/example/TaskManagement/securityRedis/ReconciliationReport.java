@@ -0,0 +1,37 @@
+package com.example.TaskManagement.securityRedis;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one run of {@link TaskRoleReconciler}.
+ */
+@Getter
+@AllArgsConstructor
+public class ReconciliationReport {
+
+    /**
+     * The number of tasks read from Postgres.
+     */
+    private final long scanned;
+
+    /**
+     * The number of tasks whose roles were missing or wrong in Redis and have been rewritten.
+     */
+    private final long repaired;
+
+    /**
+     * The number of orphaned Redis entries, i.e. of tasks no longer in Postgres, that were removed.
+     */
+    private final long purged;
+
+    /**
+     * The wall-clock duration of the run, in milliseconds.
+     */
+    private final long durationMs;
+
+    /**
+     * The number of tasks scanned per second.
+     */
+    private final double tasksPerSecond;
+}
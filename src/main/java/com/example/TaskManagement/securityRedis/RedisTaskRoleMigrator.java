@@ -0,0 +1,139 @@
+package com.example.TaskManagement.securityRedis;
+
+import com.example.TaskManagement.entity.RedisTask;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves task roles from the layout of the former Spring Data {@code @RedisHash("Task")} repository
+ * (one {@code Task:{id}} hash per task plus the {@code Task} index set) to the compact layout of
+ * {@link RedisTaskRoleRepository}.
+ * <p>
+ * Runs once the application is ready. Tasks are migrated in batches: their legacy hashes are read with one
+ * pipelined round trip, written to the compact layout without overwriting newer roles, and then deleted.
+ * The migration is idempotent, so an interrupted run simply resumes on the next start.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisTaskRoleMigrator {
+
+    private static final String LEGACY_INDEX_KEY = "Task";
+    private static final byte[][] LEGACY_FIELDS = {
+            "authorId".getBytes(StandardCharsets.UTF_8),
+            "executorId".getBytes(StandardCharsets.UTF_8)
+    };
+
+    private final RedisTaskRoleRepository redisTaskRoleRepository;
+
+    /**
+     * Whether legacy task roles are migrated at startup.
+     */
+    @Value("${redis.task-roles.migrate-legacy:true}")
+    private boolean enabled;
+
+    /**
+     * The number of tasks migrated per pipelined round trip.
+     */
+    @Value("${redis.task-roles.migration-batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Migrates the legacy task roles, if any, and then switches off the legacy lookup fallback.
+     */
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long migrated = migrate();
+            if (migrated > 0) {
+                log.info("Migrated " + migrated + " task roles to the compact Redis layout");
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not migrate task roles to the compact Redis layout, keeping the legacy fallback", e);
+        }
+    }
+
+    /**
+     * Migrates every task listed in the legacy {@code Task} index set.
+     *
+     * @return The number of migrated tasks.
+     */
+    public long migrate() {
+        byte[] indexKey = LEGACY_INDEX_KEY.getBytes(StandardCharsets.UTF_8);
+        Boolean legacyPresent = redisTaskRoleRepository.execute(connection -> connection.keyCommands().exists(indexKey));
+        if (!Boolean.TRUE.equals(legacyPresent)) {
+            redisTaskRoleRepository.setLegacyFallback(false);
+            return 0;
+        }
+        long migrated = redisTaskRoleRepository.execute((RedisCallback<Long>) connection -> {
+            long count = 0;
+            List<Long> batch = new ArrayList<>(batchSize);
+            try (Cursor<byte[]> ids = connection.setCommands().sScan(indexKey, ScanOptions.scanOptions().count(batchSize).build())) {
+                while (ids.hasNext()) {
+                    batch.add(RedisTaskRoleRepository.parseLegacy(ids.next()));
+                    if (batch.size() == batchSize) {
+                        count += migrateBatch(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                count += migrateBatch(batch);
+            }
+            connection.keyCommands().del(indexKey);
+            return count;
+        });
+        redisTaskRoleRepository.setLegacyFallback(false);
+        return migrated;
+    }
+
+    private long migrateBatch(List<Long> taskIds) {
+        List<Object> replies = redisTaskRoleRepository.executePipelined(connection -> {
+            for (Long taskId : taskIds) {
+                connection.hashCommands().hMGet(legacyKey(taskId), LEGACY_FIELDS);
+            }
+            return null;
+        });
+        List<RedisTask> tasks = new ArrayList<>(taskIds.size());
+        for (int i = 0; i < taskIds.size(); i++) {
+            List<?> values = (List<?>) replies.get(i);
+            if (values.get(0) instanceof byte[] authorId) {
+                Long executorId = values.get(1) instanceof byte[] executor ? RedisTaskRoleRepository.parseLegacy(executor) : null;
+                tasks.add(new RedisTask(taskIds.get(i), RedisTaskRoleRepository.parseLegacy(authorId), executorId));
+            }
+        }
+        redisTaskRoleRepository.executePipelined(connection -> {
+            RedisTaskRoleRepository.addAllIfAbsent(connection, tasks);
+            deleteLegacy(connection, taskIds);
+            return null;
+        });
+        return tasks.size();
+    }
+
+    private static void deleteLegacy(RedisConnection connection, List<Long> taskIds) {
+        connection.keyCommands().del(taskIds.stream().map(RedisTaskRoleMigrator::legacyKey).toArray(byte[][]::new));
+    }
+
+    private static byte[] legacyKey(Long taskId) {
+        return (RedisTaskRoleRepository.LEGACY_KEY_PREFIX + taskId).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,50 +1,274 @@
 package com.example.TaskManagement.securityRedis;
 
 import com.example.TaskManagement.entity.RedisTask;
-import com.example.TaskManagement.exception.TaskNotFoundException;
-import org.springframework.data.repository.CrudRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
- * Repository interface for managing {@link RedisTask} entities in a Redis database.
- * Extends the Spring Data {@link CrudRepository} to provide basic CRUD operations
- * and includes custom methods for managing tasks and their roles.
+ * Repository for the author and executor of every task, used for authorization checks.
+ * <p>
+ * Roles are stored compactly: tasks are grouped into Redis hashes of {@value #BUCKET_SIZE} tasks each,
+ * keyed {@code task-roles:{taskId / BUCKET_SIZE}}, with the field {@code taskId % BUCKET_SIZE} and a 16-byte
+ * value holding the author ID and the executor ID as packed big-endian longs ({@code 0} meaning no executor).
+ * Buckets this small stay in Redis' listpack encoding, which takes a fraction of the memory of one hash plus
+ * index entry per task. A lookup is a single {@code HGET}, and lookups of many tasks are pipelined with one
+ * {@code HMGET} per bucket. Roles are only written from Postgres: changes arrive through
+ * {@link TaskRoleOutboxRelay}, which writes them in batches with {@link #applyAll(Collection, Collection)}, and
+ * drift is repaired by {@link TaskRoleReconciler}.
+ * </p>
+ * <p>
+ * Roles written by the former Spring Data {@code @RedisHash("Task")} repository are moved over by
+ * {@link RedisTaskRoleMigrator}; until that is done, a task missing from the compact layout is looked up
+ * in its legacy {@code Task:{id}} hash as well.
+ * </p>
+ * <p>
+ * Lookups go through the optional {@link TaskRoleNearCache} first. Every write publishes the task ID on
+ * {@link TaskRoleNearCache#INVALIDATION_CHANNEL} in the same round trip, so all instances drop stale entries.
+ * </p>
  */
-public interface RedisTaskRoleRepository extends CrudRepository<RedisTask, Long> {
+@Repository
+@RequiredArgsConstructor
+public class RedisTaskRoleRepository {
 
     /**
-     * Adds a new task to the Redis store with the specified task ID, author ID, and executor ID.
-     * If the executor ID is {@code null}, it is explicitly set to {@code null}.
+     * The number of tasks stored per Redis hash. Must not change once data has been written.
+     */
+    public static final int BUCKET_SIZE = 100;
+
+    static final String KEY_PREFIX = "task-roles:";
+    static final String LEGACY_KEY_PREFIX = "Task:";
+
+    private static final byte[] LEGACY_AUTHOR_FIELD = "authorId".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LEGACY_EXECUTOR_FIELD = "executorId".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] INVALIDATION_CHANNEL = bytes(TaskRoleNearCache.INVALIDATION_CHANNEL);
+
+    private static final ThreadLocal<long[]> ROLES = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final RedisTemplate<String, byte[]> taskRoleRedisTemplate;
+    private final TaskRoleNearCache nearCache;
+
+    /**
+     * Whether roles may still be stored in the legacy layout, i.e. the migration has not completed yet.
+     */
+    private volatile boolean legacyFallback = true;
+
+    /**
+     * Writes the current roles of some tasks and removes those of others in one pipelined round trip, publishing
+     * every task ID on the invalidation channel. Both writes are idempotent, so a batch may safely be applied again.
      *
-     * @param taskId     The unique identifier of the task.
-     * @param authorId   The unique identifier of the author of the task.
-     * @param executorId The unique identifier of the executor of the task (may be {@code null}).
+     * @param tasks          The current roles of tasks that exist.
+     * @param deletedTaskIds The unique identifiers of deleted tasks.
      */
-    default void addTask(Long taskId, Long authorId, Long executorId) {
-        RedisTask task = new RedisTask(taskId, authorId, executorId);
-        if (executorId == null) {
-            task.setExecutorId(null);
+    public void applyAll(Collection<RedisTask> tasks, Collection<Long> deletedTaskIds) {
+        taskRoleRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (RedisTask task : tasks) {
+                connection.hashCommands().hSet(bytes(key(task.getId())), field(task.getId()),
+                        pack(task.getAuthorId(), task.getExecutorId()));
+                connection.publish(INVALIDATION_CHANNEL, bytes(task.getId().toString()));
+            }
+            for (Long taskId : deletedTaskIds) {
+                connection.hashCommands().hDel(bytes(key(taskId)), field(taskId));
+                if (legacyFallback) {
+                    connection.keyCommands().del(bytes(LEGACY_KEY_PREFIX + taskId));
+                }
+                connection.publish(INVALIDATION_CHANNEL, bytes(taskId.toString()));
+            }
+            return null;
+        });
+        tasks.forEach(task -> nearCache.invalidate(task.getId()));
+        deletedTaskIds.forEach(nearCache::invalidate);
+    }
+
+    /**
+     * Finds the roles of a task.
+     *
+     * @param taskId The unique identifier of the task.
+     * @return The roles of the task, or an empty {@link Optional} if the task is unknown.
+     */
+    public Optional<RedisTask> findById(Long taskId) {
+        long[] roles = ROLES.get();
+        if (!lookup(taskId, roles)) {
+            return Optional.empty();
         }
-        save(task);
+        return Optional.of(new RedisTask(taskId, roles[0] == 0 ? null : roles[0], roles[1] == 0 ? null : roles[1]));
+    }
+
+    /**
+     * Resolves the relationship of a user to a task without materializing the task's roles.
+     *
+     * @param taskId The unique identifier of the task.
+     * @param userId The unique identifier of the user.
+     * @return {@link TaskRole#AUTHOR}, {@link TaskRole#EXECUTOR}, or {@link TaskRole#NONE} if the task is unknown.
+     */
+    public TaskRole findRole(Long taskId, long userId) {
+        long[] roles = ROLES.get();
+        if (!lookup(taskId, roles)) {
+            return TaskRole.NONE;
+        }
+        if (roles[0] == userId) {
+            return TaskRole.AUTHOR;
+        }
+        return roles[1] == userId ? TaskRole.EXECUTOR : TaskRole.NONE;
+    }
+
+    /**
+     * Finds the roles of several tasks in one pipelined round trip.
+     *
+     * @param taskIds The unique identifiers of the tasks.
+     * @return The roles of the known tasks, keyed by task ID.
+     */
+    public Map<Long, RedisTask> findAllById(Collection<Long> taskIds) {
+        Map<Long, List<Long>> buckets = new LinkedHashMap<>();
+        for (Long taskId : taskIds) {
+            buckets.computeIfAbsent(taskId / BUCKET_SIZE, bucket -> new ArrayList<>()).add(taskId);
+        }
+        List<Object> replies = taskRoleRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<Long, List<Long>> bucket : buckets.entrySet()) {
+                byte[][] fields = bucket.getValue().stream().map(RedisTaskRoleRepository::field).toArray(byte[][]::new);
+                connection.hashCommands().hMGet(bytes(KEY_PREFIX + bucket.getKey()), fields);
+            }
+            return null;
+        }, taskRoleRedisTemplate.getValueSerializer());
+
+        Map<Long, RedisTask> tasks = new HashMap<>();
+        int reply = 0;
+        for (List<Long> bucketTaskIds : buckets.values()) {
+            List<?> values = (List<?>) replies.get(reply++);
+            for (int i = 0; i < bucketTaskIds.size(); i++) {
+                if (values.get(i) instanceof byte[] value) {
+                    tasks.put(bucketTaskIds.get(i), unpack(bucketTaskIds.get(i), value));
+                }
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Switches the legacy-layout fallback on or off. Called by {@link RedisTaskRoleMigrator}.
+     *
+     * @param legacyFallback {@code true} while roles may still be stored in the legacy layout.
+     */
+    void setLegacyFallback(boolean legacyFallback) {
+        this.legacyFallback = legacyFallback;
     }
 
     /**
-     * Updates the executor of an existing task in the Redis store.
-     * If the task does not exist, a {@link TaskNotFoundException} is thrown.
+     * Looks up the roles of a task in the near-cache, then in Redis, filling the near-cache on a Redis hit.
      *
-     * @param taskId        The unique identifier of the task to update.
-     * @param newExecutorId The new executor ID to be assigned to the task.
-     * @throws TaskNotFoundException if no task is found with the specified task ID.
+     * @param taskId The unique identifier of the task.
+     * @param roles  Receives the author ID at index 0 and the executor ID (or {@code 0}) at index 1.
+     * @return {@code true} if the task is known.
      */
-    default void updateExecutor(Long taskId, Long newExecutorId) {
-        Optional<RedisTask> optionalTask = findById(taskId);
-        if (optionalTask.isPresent()) {
-            RedisTask task = optionalTask.get();
-            task.setExecutorId(newExecutorId);
-            save(task);
+    private boolean lookup(Long taskId, long[] roles) {
+        if (nearCache.get(taskId, roles)) {
+            return true;
+        }
+        long generation = nearCache.generation();
+        Object value = taskRoleRedisTemplate.opsForHash().get(key(taskId), field(taskId));
+        if (value != null) {
+            ByteBuffer buffer = ByteBuffer.wrap((byte[]) value);
+            roles[0] = buffer.getLong();
+            roles[1] = buffer.getLong();
         } else {
-            throw new TaskNotFoundException(taskId);
+            Optional<RedisTask> legacyTask = legacyFallback ? findLegacy(taskId) : Optional.empty();
+            if (legacyTask.isEmpty()) {
+                return false;
+            }
+            roles[0] = orZero(legacyTask.get().getAuthorId());
+            roles[1] = orZero(legacyTask.get().getExecutorId());
+        }
+        nearCache.put(taskId, roles[0], roles[1], generation);
+        return true;
+    }
+
+    private Optional<RedisTask> findLegacy(Long taskId) {
+        List<byte[]> values = taskRoleRedisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.hashCommands().hMGet(bytes(LEGACY_KEY_PREFIX + taskId), LEGACY_AUTHOR_FIELD, LEGACY_EXECUTOR_FIELD));
+        if (values == null || values.get(0) == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new RedisTask(taskId, parseLegacy(values.get(0)), parseLegacy(values.get(1))));
+    }
+
+    static Long parseLegacy(byte[] value) {
+        return value == null ? null : Long.valueOf(new String(value, StandardCharsets.UTF_8));
+    }
+
+    static String key(Long taskId) {
+        return KEY_PREFIX + (taskId / BUCKET_SIZE);
+    }
+
+    static byte[] field(Long taskId) {
+        return bytes(Long.toString(taskId % BUCKET_SIZE));
+    }
+
+    static byte[] pack(Long authorId, Long executorId) {
+        return ByteBuffer.allocate(2 * Long.BYTES)
+                .putLong(orZero(authorId))
+                .putLong(orZero(executorId))
+                .array();
+    }
+
+    static RedisTask unpack(Long taskId, byte[] value) {
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        long authorId = buffer.getLong();
+        long executorId = buffer.getLong();
+        return new RedisTask(taskId, authorId == 0 ? null : authorId, executorId == 0 ? null : executorId);
+    }
+
+    private static long orZero(Long id) {
+        return id == null ? 0 : id;
+    }
+
+    static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gives {@link RedisTaskRoleMigrator} access to the raw connection of the role store.
+     *
+     * @param <T>    The type of the result.
+     * @param action The action to run.
+     * @return The result of the action.
+     */
+    <T> T execute(RedisCallback<T> action) {
+        return taskRoleRedisTemplate.execute(action);
+    }
+
+    /**
+     * Gives {@link RedisTaskRoleMigrator} pipelined access to the raw connection of the role store.
+     *
+     * @param action The action issuing the pipelined commands.
+     * @return The replies of the pipelined commands.
+     */
+    List<Object> executePipelined(RedisCallback<?> action) {
+        return taskRoleRedisTemplate.executePipelined(action, taskRoleRedisTemplate.getValueSerializer());
+    }
+
+    /**
+     * Writes packed roles for several tasks on a pipelined connection, keeping roles that are already stored.
+     *
+     * @param connection The pipelined connection.
+     * @param tasks      The roles to write.
+     */
+    static void addAllIfAbsent(RedisConnection connection, Collection<RedisTask> tasks) {
+        for (RedisTask task : tasks) {
+            connection.hashCommands().hSetNX(bytes(key(task.getId())), field(task.getId()),
+                    pack(task.getAuthorId(), task.getExecutorId()));
         }
     }
 }
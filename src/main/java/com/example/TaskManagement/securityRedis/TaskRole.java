@@ -0,0 +1,12 @@
+package com.example.TaskManagement.securityRedis;
+
+/**
+ * The relationship of a user to a task, as far as task permissions are concerned.
+ * A user who is both author and executor of a task resolves to {@link #AUTHOR}, which grants
+ * everything {@link #EXECUTOR} does.
+ */
+public enum TaskRole {
+    AUTHOR,
+    EXECUTOR,
+    NONE
+}
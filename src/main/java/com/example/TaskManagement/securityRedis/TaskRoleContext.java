@@ -0,0 +1,47 @@
+package com.example.TaskManagement.securityRedis;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Request-scoped memo of the task roles resolved for the authenticated user, so that every
+ * {@code @PreAuthorize} expression and service call within one request shares a single lookup per task.
+ */
+@Component
+@RequestScope
+public class TaskRoleContext {
+
+    /**
+     * The ID of the authenticated user, once resolved.
+     */
+    @Getter
+    @Setter
+    private Long userId;
+
+    private final Map<Long, TaskRole> roles = new HashMap<>();
+
+    /**
+     * Returns the role resolved earlier in this request for the given task.
+     *
+     * @param taskId The unique identifier of the task.
+     * @return The memoized role, or {@code null} if it has not been resolved yet.
+     */
+    public TaskRole get(Long taskId) {
+        return roles.get(taskId);
+    }
+
+    /**
+     * Memoizes the role of the authenticated user for the given task until the end of the request.
+     *
+     * @param taskId The unique identifier of the task.
+     * @param role   The resolved role.
+     */
+    public void put(Long taskId, TaskRole role) {
+        roles.put(taskId, role);
+    }
+}
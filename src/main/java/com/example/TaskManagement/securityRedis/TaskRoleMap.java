@@ -0,0 +1,233 @@
+package com.example.TaskManagement.securityRedis;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Bounded, thread-safe open-addressing map from task ID to the (author ID, executor ID) pair, stored in
+ * parallel primitive arrays so that neither keys nor values are boxed.
+ * <p>
+ * Collisions are resolved by linear probing with backward-shift deletion, so no tombstones accumulate.
+ * When the map holds its maximum number of entries, an entry is evicted with the CLOCK algorithm: every read
+ * sets a reference bit, and the clock hand evicts the first entry whose bit is clear, clearing bits as it goes.
+ * Reads are lock-free optimistic reads of a {@link StampedLock}; writes take its write lock.
+ * </p>
+ * <p>
+ * Task IDs must be positive; {@code 0} marks an empty slot and, for executors, "no executor".
+ * </p>
+ */
+final class TaskRoleMap {
+
+    private static final long EMPTY = 0;
+
+    private final long[] keys;
+    private final long[] authors;
+    private final long[] executors;
+    private final int[] writtenAt;
+    private final byte[] referenced;
+    private final int mask;
+    private final int maximumSize;
+    private final StampedLock lock = new StampedLock();
+
+    private int size;
+    private int clockHand;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param maximumSize the maximum number of entries; the table is sized for a load factor of at most 0.5
+     */
+    TaskRoleMap(int maximumSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, maximumSize) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.authors = new long[capacity];
+        this.executors = new long[capacity];
+        this.writtenAt = new int[capacity];
+        this.referenced = new byte[capacity];
+        this.mask = capacity - 1;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Looks up the roles of a task and, if found, copies them into {@code result}.
+     *
+     * @param taskId    the task ID
+     * @param notBefore entries written before this time (in seconds) are treated as missing
+     * @param result    receives the author ID at index 0 and the executor ID at index 1
+     * @return {@code true} if the task was found
+     */
+    boolean get(long taskId, int notBefore, long[] result) {
+        long stamp = lock.tryOptimisticRead();
+        boolean found = find(taskId, notBefore, result);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                found = find(taskId, notBefore, result);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Adds or replaces the roles of a task, evicting another entry if the map is full.
+     *
+     * @param taskId     the task ID
+     * @param authorId   the author ID
+     * @param executorId the executor ID, or {@code 0} if the task has no executor
+     * @param now        the current time in seconds
+     */
+    void put(long taskId, long authorId, long executorId, int now) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(taskId);
+            if (keys[slot] == EMPTY) {
+                if (size == maximumSize) {
+                    evictOne();
+                    slot = slotOf(taskId);
+                }
+                keys[slot] = taskId;
+                size++;
+            }
+            authors[slot] = authorId;
+            executors[slot] = executorId;
+            writtenAt[slot] = now;
+            referenced[slot] = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the roles of a task, if present.
+     *
+     * @param taskId the task ID
+     */
+    void remove(long taskId) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(taskId);
+            if (keys[slot] != EMPTY) {
+                delete(slot);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    void clear() {
+        long stamp = lock.writeLock();
+        try {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        long stamp = lock.tryOptimisticRead();
+        int current = size;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                current = size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Returns the memory held by the backing arrays, in bytes.
+     *
+     * @return the footprint of the map in bytes
+     */
+    long sizeInBytes() {
+        return (long) keys.length * (3 * Long.BYTES + Integer.BYTES + 1);
+    }
+
+    private boolean find(long taskId, int notBefore, long[] result) {
+        for (int slot = hash(taskId) & mask, probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+            long key = keys[slot];
+            if (key == EMPTY) {
+                return false;
+            }
+            if (key == taskId) {
+                if (writtenAt[slot] < notBefore) {
+                    return false;
+                }
+                result[0] = authors[slot];
+                result[1] = executors[slot];
+                referenced[slot] = 1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the slot holding the task, or the empty slot where it would be inserted. Requires the write lock.
+     */
+    private int slotOf(long taskId) {
+        int slot = hash(taskId) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != taskId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void evictOne() {
+        while (true) {
+            int slot = clockHand;
+            clockHand = (clockHand + 1) & mask;
+            if (keys[slot] == EMPTY) {
+                continue;
+            }
+            if (referenced[slot] != 0) {
+                referenced[slot] = 0;
+                continue;
+            }
+            delete(slot);
+            return;
+        }
+    }
+
+    /**
+     * Empties a slot and shifts the following entries of the probe sequence back, so lookups need no tombstones.
+     */
+    private void delete(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            // Move the entry into the hole unless its home slot lies cyclically in (hole, next].
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                authors[hole] = authors[next];
+                executors[hole] = executors[next];
+                writtenAt[hole] = writtenAt[next];
+                referenced[hole] = referenced[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.TaskManagement.securityRedis;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional in-process near-cache of task roles in front of {@link RedisTaskRoleRepository}, enabled with
+ * {@code redis.task-roles.near-cache.enabled}.
+ * <p>
+ * Roles are kept in a bounded {@link TaskRoleMap} of primitive arrays, so a cached authorization check
+ * allocates nothing and makes no network call. Every write to the role store publishes the task ID on the
+ * {@value #INVALIDATION_CHANNEL} channel, and every application instance drops the entry on receipt. Entries
+ * also expire after {@code redis.task-roles.near-cache.ttl-seconds} as a safety net for missed messages.
+ * Hits, misses, the hit ratio, the entry count and the memory footprint are published under
+ * {@code task-roles.near-cache}.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskRoleNearCache implements MessageListener {
+
+    /**
+     * Redis channel on which changed task IDs are broadcast to all application instances.
+     */
+    public static final String INVALIDATION_CHANNEL = "task-role-invalidation";
+
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Whether the near-cache is used at all.
+     */
+    @Value("${redis.task-roles.near-cache.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * The maximum number of tasks kept in the near-cache.
+     */
+    @Value("${redis.task-roles.near-cache.maximum-size:200000}")
+    private int maximumSize;
+
+    /**
+     * How long a cached entry is trusted, as a safety net for missed invalidation messages.
+     */
+    @Value("${redis.task-roles.near-cache.ttl-seconds:300}")
+    private int ttlSeconds;
+
+    private TaskRoleMap map;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Bumped on every invalidation, so that a value read from Redis before an invalidation is not cached after it.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Allocates the map, subscribes to the invalidation channel and registers the metrics, if enabled.
+     */
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        map = new TaskRoleMap(maximumSize);
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+        FunctionCounter.builder("task-roles.near-cache.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("task-roles.near-cache.misses", misses, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("task-roles.near-cache.hit-ratio", this, TaskRoleNearCache::hitRatio).register(meterRegistry);
+        Gauge.builder("task-roles.near-cache.size", map, TaskRoleMap::size).register(meterRegistry);
+        Gauge.builder("task-roles.near-cache.memory", map, TaskRoleMap::sizeInBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks whether the near-cache is enabled.
+     *
+     * @return {@code true} if lookups go through the near-cache
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Looks up the roles of a task.
+     *
+     * @param taskId The unique identifier of the task.
+     * @param result Receives the author ID at index 0 and the executor ID (or {@code 0}) at index 1.
+     * @return {@code true} on a hit, {@code false} on a miss or if the near-cache is disabled.
+     */
+    public boolean get(long taskId, long[] result) {
+        if (!enabled) {
+            return false;
+        }
+        if (map.get(taskId, nowSeconds() - ttlSeconds, result)) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Returns the current invalidation generation, to be passed to {@link #put} after reading from Redis.
+     *
+     * @return The invalidation generation.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches the roles of a task read from Redis, unless the task was invalidated since the read started.
+     *
+     * @param taskId         The unique identifier of the task.
+     * @param authorId       The author ID.
+     * @param executorId     The executor ID, or {@code 0} if the task has no executor.
+     * @param readGeneration The invalidation generation observed before reading from Redis.
+     */
+    public void put(long taskId, long authorId, long executorId, long readGeneration) {
+        if (enabled && generation.get() == readGeneration) {
+            map.put(taskId, authorId, executorId, nowSeconds());
+        }
+    }
+
+    /**
+     * Drops the roles of a task on this instance.
+     *
+     * @param taskId The unique identifier of the task.
+     */
+    public void invalidate(long taskId) {
+        if (enabled) {
+            generation.incrementAndGet();
+            map.remove(taskId);
+        }
+    }
+
+    /**
+     * Drops every cached role on this instance, e.g. after the role store has been rebuilt.
+     */
+    public void invalidateAll() {
+        if (enabled) {
+            generation.incrementAndGet();
+            map.clear();
+        }
+    }
+
+    /**
+     * Handles an invalidation broadcast by a write to the role store.
+     *
+     * @param message The Redis message carrying the task ID.
+     * @param pattern The channel pattern, unused.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        invalidate(Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8)));
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private static int nowSeconds() {
+        return (int) (System.currentTimeMillis() / 1000);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.TaskManagement.securityRedis;
+
+import com.example.TaskManagement.entity.RedisTask;
+import com.example.TaskManagement.repositories.TaskRoleOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carries the task role changes recorded in the {@code task_role_outbox} table over to
+ * {@link RedisTaskRoleRepository}.
+ * <p>
+ * The outbox is filled by a trigger in the transaction of every change to the {@code tasks} table, so no change is
+ * lost when Redis is unavailable, and writes do not wait for Redis. Every poll drains the outbox in batches; within
+ * a batch only the latest entry of each task is kept, and the batch is written with one pipelined round trip.
+ * The entries are deleted only after Redis has accepted them. Since each entry carries the full roles of a task
+ * (or its deletion), a batch that failed half-way is simply written again on the next poll.
+ * </p>
+ * <p>
+ * Metrics are published under {@code redis.task-roles.outbox}: the time from a change to its arrival in Redis,
+ * the number of entries relayed, failed polls, and the number and age of the pending entries.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskRoleOutboxRelay {
+
+    private final TaskRoleOutboxRepository taskRoleOutboxRepository;
+    private final RedisTaskRoleRepository redisTaskRoleRepository;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The maximum number of outbox entries written to Redis per round trip.
+     */
+    @Value("${redis.task-roles.outbox.batch-size:1000}")
+    private int batchSize;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+    private Timer lagTimer;
+    private Counter relayedCounter;
+    private Counter failureCounter;
+
+    /**
+     * Registers the relay metrics.
+     */
+    @PostConstruct
+    public void init() {
+        lagTimer = meterRegistry.timer("redis.task-roles.outbox.lag");
+        relayedCounter = meterRegistry.counter("redis.task-roles.outbox.relayed");
+        failureCounter = meterRegistry.counter("redis.task-roles.outbox.failures");
+        Gauge.builder("redis.task-roles.outbox.pending", pending, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("redis.task-roles.outbox.oldest-age", oldestAgeMillis, age -> age.get() / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drains the outbox every {@code redis.task-roles.outbox.poll-interval-ms} milliseconds.
+     */
+    @Scheduled(fixedDelayString = "${redis.task-roles.outbox.poll-interval-ms:200}")
+    public void relayOnSchedule() {
+        try {
+            relay();
+        } catch (DataAccessException e) {
+            failureCounter.increment();
+            log.warn("Relaying task role changes to Redis failed, retrying on the next poll", e);
+        }
+        try {
+            TaskRoleOutboxRepository.Backlog backlog = taskRoleOutboxRepository.backlog();
+            pending.set(backlog.pending());
+            oldestAgeMillis.set(Math.round(backlog.oldestAgeSeconds() * 1000));
+        } catch (DataAccessException e) {
+            log.warn("Measuring the task role outbox failed", e);
+        }
+    }
+
+    /**
+     * Drains the outbox until it is empty or another instance is draining it.
+     *
+     * @return The number of entries relayed.
+     */
+    public long relay() {
+        long relayed = 0;
+        int drained;
+        do {
+            drained = taskRoleOutboxRepository.drain(batchSize, this::apply);
+            relayed += drained;
+        } while (drained == batchSize);
+        return relayed;
+    }
+
+    private void apply(List<TaskRoleOutboxRepository.Entry> entries) {
+        Map<Long, TaskRoleOutboxRepository.Entry> latest = new LinkedHashMap<>();
+        for (TaskRoleOutboxRepository.Entry entry : entries) {
+            latest.remove(entry.taskId());
+            latest.put(entry.taskId(), entry);
+        }
+        List<RedisTask> tasks = new ArrayList<>();
+        List<Long> deletedTaskIds = new ArrayList<>();
+        for (TaskRoleOutboxRepository.Entry entry : latest.values()) {
+            if (entry.deleted()) {
+                deletedTaskIds.add(entry.taskId());
+            } else {
+                tasks.add(new RedisTask(entry.taskId(), entry.authorId(), entry.executorId()));
+            }
+        }
+        redisTaskRoleRepository.applyAll(tasks, deletedTaskIds);
+        for (TaskRoleOutboxRepository.Entry entry : entries) {
+            lagTimer.record(Duration.ofMillis(Math.round(entry.ageSeconds() * 1000)));
+        }
+        relayedCounter.increment(entries.size());
+    }
+}
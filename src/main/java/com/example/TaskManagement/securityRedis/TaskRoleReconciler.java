@@ -0,0 +1,327 @@
+package com.example.TaskManagement.securityRedis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuilds and reconciles the Redis role store of {@link RedisTaskRoleRepository} from the {@code tasks} table.
+ * <p>
+ * A run makes two streaming passes, each holding only one chunk in memory:
+ * </p>
+ * <ol>
+ *   <li>Postgres to Redis: tasks are read in keyset order ({@code WHERE id > ? ORDER BY id LIMIT ?}), their
+ *   stored roles are fetched with one pipelined {@code HMGET} per bucket, and missing or wrong entries are
+ *   rewritten in one pipelined round trip. The roles of those entries are read again from Postgres after the
+ *   {@code HMGET}, and each one is rewritten by a Lua compare-and-set only if it still holds the value read, so
+ *   a write of the outbox relay that lands in between is never overwritten with older roles.</li>
+ *   <li>Redis to Postgres: role buckets are scanned with {@code SCAN}, their task IDs checked against Postgres
+ *   with one {@code = ANY(?)} query per batch, and entries of deleted tasks removed.</li>
+ * </ol>
+ * <p>
+ * Rewritten and removed entries are announced on {@link TaskRoleNearCache#INVALIDATION_CHANNEL}. A run can be
+ * started at startup ({@code redis.task-roles.reconcile.on-startup}), on a cron schedule
+ * ({@code redis.task-roles.reconcile.cron}) or through the {@code taskroles} JMX endpoint; only one run
+ * executes at a time. Counters and the run duration are published under {@code task-roles.reconcile}.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskRoleReconciler {
+
+    private static final String SELECT_CHUNK =
+            "SELECT id, author_id, executor_id FROM tasks WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_EXISTING = "SELECT id FROM tasks WHERE id = ANY (?)";
+    private static final String SELECT_ROLES = "SELECT id, author_id, executor_id FROM tasks WHERE id = ANY (?)";
+
+    /**
+     * Sets the field ARGV[1] of KEYS[1] to ARGV[3] and publishes ARGV[4] on ARGV[5], only if the field still holds
+     * ARGV[2], or is missing when ARGV[2] is empty. Returns 1 if it was written, 0 otherwise.
+     */
+    private static final byte[] REPAIR_SCRIPT = """
+            local current = redis.call('HGET', KEYS[1], ARGV[1]) or ''
+            if current ~= ARGV[2] then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[3])
+            redis.call('PUBLISH', ARGV[5], ARGV[4])
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ABSENT = new byte[0];
+    private static final byte[] INVALIDATION_CHANNEL =
+            TaskRoleNearCache.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisTaskRoleRepository redisTaskRoleRepository;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The number of tasks handled per chunk and pipelined round trip.
+     */
+    @Value("${redis.task-roles.reconcile.chunk-size:5000}")
+    private int chunkSize;
+
+    /**
+     * Whether a reconciliation runs once the application is ready.
+     */
+    @Value("${redis.task-roles.reconcile.on-startup:false}")
+    private boolean onStartup;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private Counter scannedCounter;
+    private Counter repairedCounter;
+    private Counter purgedCounter;
+    private Timer runTimer;
+
+    /**
+     * Registers the reconciliation metrics.
+     */
+    @PostConstruct
+    public void init() {
+        scannedCounter = meterRegistry.counter("task-roles.reconcile.scanned");
+        repairedCounter = meterRegistry.counter("task-roles.reconcile.repaired");
+        purgedCounter = meterRegistry.counter("task-roles.reconcile.purged");
+        runTimer = meterRegistry.timer("task-roles.reconcile");
+    }
+
+    /**
+     * Reconciles the role store at startup, after the legacy migration, if enabled.
+     */
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (onStartup) {
+            reconcileQuietly();
+        }
+    }
+
+    /**
+     * Reconciles the role store on the configured cron schedule. Disabled unless
+     * {@code redis.task-roles.reconcile.cron} is set.
+     */
+    @Scheduled(cron = "${redis.task-roles.reconcile.cron:-}")
+    public void reconcileOnSchedule() {
+        reconcileQuietly();
+    }
+
+    /**
+     * Checks whether a reconciliation is currently running.
+     *
+     * @return {@code true} while a run is in progress
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Runs a full reconciliation of the role store against Postgres.
+     *
+     * @return The report of the run, or {@code null} if another run is already in progress.
+     */
+    public ReconciliationReport reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            long start = System.nanoTime();
+            long[] counts = new long[3];
+            repairFromDatabase(counts);
+            purgeOrphans(counts);
+            long durationNanos = System.nanoTime() - start;
+            runTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+
+            long durationMs = durationNanos / 1_000_000;
+            double tasksPerSecond = counts[0] * 1e9 / Math.max(durationNanos, 1);
+            log.info("Reconciled task roles: " + counts[0] + " tasks scanned, " + counts[1] + " repaired, "
+                    + counts[2] + " orphans purged in " + durationMs + " ms (" + Math.round(tasksPerSecond) + " tasks/s)");
+            return new ReconciliationReport(counts[0], counts[1], counts[2], durationMs, tasksPerSecond);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            if (reconcile() == null) {
+                log.info("Skipping task role reconciliation, another run is in progress");
+            }
+        } catch (DataAccessException e) {
+            log.warn("Task role reconciliation failed", e);
+        }
+    }
+
+    /**
+     * First pass: streams the tasks table in keyset order and rewrites missing or wrong Redis entries.
+     */
+    private void repairFromDatabase(long[] counts) {
+        long[] ids = new long[chunkSize];
+        long[] authors = new long[chunkSize];
+        long[] executors = new long[chunkSize];
+        long lastId = 0;
+        while (true) {
+            int[] size = {0};
+            jdbcTemplate.query(SELECT_CHUNK, rs -> {
+                int i = size[0]++;
+                ids[i] = rs.getLong(1);
+                authors[i] = rs.getLong(2);
+                executors[i] = rs.getLong(3);
+            }, lastId, chunkSize);
+            int count = size[0];
+            if (count == 0) {
+                return;
+            }
+            long repaired = repairChunk(ids, authors, executors, count);
+            counts[0] += count;
+            counts[1] += repaired;
+            scannedCounter.increment(count);
+            repairedCounter.increment(repaired);
+            if (count < chunkSize) {
+                return;
+            }
+            lastId = ids[count - 1];
+        }
+    }
+
+    private long repairChunk(long[] ids, long[] authors, long[] executors, int count) {
+        List<Object> replies = redisTaskRoleRepository.executePipelined(connection -> {
+            for (int start = 0; start < count; ) {
+                long bucket = ids[start] / RedisTaskRoleRepository.BUCKET_SIZE;
+                int end = start;
+                while (end < count && ids[end] / RedisTaskRoleRepository.BUCKET_SIZE == bucket) {
+                    end++;
+                }
+                byte[][] fields = new byte[end - start][];
+                for (int i = start; i < end; i++) {
+                    fields[i - start] = RedisTaskRoleRepository.field(ids[i]);
+                }
+                connection.hashCommands().hMGet(RedisTaskRoleRepository.bytes(RedisTaskRoleRepository.KEY_PREFIX + bucket), fields);
+                start = end;
+            }
+            return null;
+        });
+
+        Map<Long, byte[]> stale = new LinkedHashMap<>();
+        int index = 0;
+        for (Object reply : replies) {
+            for (Object value : (List<?>) reply) {
+                byte[] expected = RedisTaskRoleRepository.pack(authors[index], executors[index]);
+                if (!(value instanceof byte[] stored) || !Arrays.equals(stored, expected)) {
+                    stale.put(ids[index], value instanceof byte[] stored ? stored : ABSENT);
+                }
+                index++;
+            }
+        }
+        if (stale.isEmpty()) {
+            return 0;
+        }
+
+        // the chunk was read before the HMGET: read the roles again so that they are not older than what Redis holds
+        Map<Long, byte[]> current = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_ROLES, rs -> {
+            current.put(rs.getLong(1), RedisTaskRoleRepository.pack(rs.getLong(2), rs.getLong(3)));
+        }, (Object) stale.keySet().toArray(new Long[0]));
+        current.entrySet().removeIf(entry -> Arrays.equals(entry.getValue(), stale.get(entry.getKey())));
+        if (current.isEmpty()) {
+            return 0;
+        }
+
+        List<Object> written = redisTaskRoleRepository.executePipelined(connection -> {
+            for (Map.Entry<Long, byte[]> entry : current.entrySet()) {
+                Long taskId = entry.getKey();
+                connection.scriptingCommands().eval(REPAIR_SCRIPT, ReturnType.INTEGER, 1,
+                        RedisTaskRoleRepository.bytes(RedisTaskRoleRepository.key(taskId)),
+                        RedisTaskRoleRepository.field(taskId), stale.get(taskId), entry.getValue(),
+                        RedisTaskRoleRepository.bytes(taskId.toString()), INVALIDATION_CHANNEL);
+            }
+            return null;
+        });
+        return written.stream().filter(reply -> reply instanceof Long value && value == 1).count();
+    }
+
+    /**
+     * Second pass: scans the role buckets and removes the entries of tasks that no longer exist.
+     */
+    private void purgeOrphans(long[] counts) {
+        byte[] pattern = RedisTaskRoleRepository.bytes(RedisTaskRoleRepository.KEY_PREFIX + "*");
+        redisTaskRoleRepository.execute((RedisCallback<Void>) connection -> {
+            List<byte[]> keys = new ArrayList<>();
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(ScanOptions.scanOptions()
+                    .match(pattern).count(RedisTaskRoleRepository.BUCKET_SIZE).build())) {
+                while (cursor.hasNext()) {
+                    keys.add(cursor.next());
+                    if (keys.size() * RedisTaskRoleRepository.BUCKET_SIZE >= chunkSize) {
+                        counts[2] += purgeBuckets(keys);
+                        keys.clear();
+                    }
+                }
+            }
+            if (!keys.isEmpty()) {
+                counts[2] += purgeBuckets(keys);
+            }
+            return null;
+        });
+    }
+
+    private long purgeBuckets(List<byte[]> keys) {
+        List<Object> replies = redisTaskRoleRepository.executePipelined(connection -> {
+            for (byte[] key : keys) {
+                connection.hashCommands().hKeys(key);
+            }
+            return null;
+        });
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            long bucket = Long.parseLong(new String(keys.get(i), StandardCharsets.UTF_8)
+                    .substring(RedisTaskRoleRepository.KEY_PREFIX.length()));
+            for (Object field : (Iterable<?>) replies.get(i)) {
+                taskIds.add(bucket * RedisTaskRoleRepository.BUCKET_SIZE
+                        + Long.parseLong(new String((byte[]) field, StandardCharsets.UTF_8)));
+            }
+        }
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+        Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList(SELECT_EXISTING, Long.class,
+                (Object) taskIds.toArray(new Long[0])));
+        List<Long> orphans = taskIds.stream().filter(taskId -> !existing.contains(taskId)).toList();
+        if (!orphans.isEmpty()) {
+            redisTaskRoleRepository.executePipelined(connection -> {
+                for (Long taskId : orphans) {
+                    connection.hashCommands().hDel(RedisTaskRoleRepository.bytes(RedisTaskRoleRepository.key(taskId)),
+                            RedisTaskRoleRepository.field(taskId));
+                    connection.publish(INVALIDATION_CHANNEL, RedisTaskRoleRepository.bytes(taskId.toString()));
+                }
+                return null;
+            });
+            purgedCounter.increment(orphans.size());
+        }
+        return orphans.size();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.TaskManagement.securityRedis;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Admin endpoint ({@code taskroles}) for the Redis role store, exposed over JMX only: any authenticated user may
+ * call the web actuator endpoints, and a run scans the whole tasks table.
+ * <p>
+ * The {@code status} operation tells whether a reconciliation is running; {@code reconcile} runs one and returns
+ * its {@link ReconciliationReport}, or nothing if a run is already in progress.
+ * </p>
+ */
+@Component
+@Endpoint(id = "taskroles")
+@RequiredArgsConstructor
+public class TaskRoleReconcilerEndpoint {
+
+    private final TaskRoleReconciler taskRoleReconciler;
+
+    /**
+     * Reports whether a reconciliation is running.
+     *
+     * @return A map with the {@code running} flag.
+     */
+    @ReadOperation
+    public Map<String, Boolean> status() {
+        return Map.of("running", taskRoleReconciler.isRunning());
+    }
+
+    /**
+     * Reconciles the role store against Postgres.
+     *
+     * @return The report of the run, or {@code null} if another run is already in progress.
+     */
+    @WriteOperation
+    public ReconciliationReport reconcile() {
+        return taskRoleReconciler.reconcile();
+    }
+}
@@ -1,64 +1,102 @@
 package com.example.TaskManagement.securityRedis;
 
-import com.example.TaskManagement.entity.RedisTask;
 import com.example.TaskManagement.entity.User;
-import com.example.TaskManagement.repositories.UserRepository;
+import com.example.TaskManagement.model.AuthenticatedUser;
+import com.example.TaskManagement.services.UserIdentityService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-
-import java.util.Optional;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /**
  * Service class responsible for verifying user roles in relation to tasks.
  * Provides methods to check if a user is the author or executor of a given task.
+ * <p>
+ * The role of the authenticated user is resolved once per task and request: the user ID is taken from the
+ * principal and the task is read from Redis a single time, then the result is memoized in
+ * {@link TaskRoleContext}, so compound {@code @PreAuthorize} expressions and the service layer share it.
+ * </p>
+ * <p>
+ * Roles are read through {@link ReactiveTaskRoleRepository}, whose Redis lookup is bounded by a timeout with a
+ * Postgres fallback, so a slow Redis holds a request thread for at most that timeout.
+ * </p>
  */
 @Service
 public class TaskSecurityService {
 
     @Autowired
-    private RedisTaskRoleRepository redisTaskRoleRepository;
+    private ReactiveTaskRoleRepository reactiveTaskRoleRepository;
+    @Autowired
+    private UserIdentityService userIdentityService;
     @Autowired
-    private UserRepository userRepository;
+    private TaskRoleContext taskRoleContext;
 
     /**
-     * Checks if the user with the given email is the author of the specified task.
+     * Resolves the relationship of the authenticated user to the specified task.
      *
-     * @param taskId     The unique identifier of the task.
-     * @param authorEmail The email address of the user to check.
-     * @return {@code true} if the user is the author of the task, {@code false} otherwise.
-     * @throws UsernameNotFoundException if the user with the given email is not found.
+     * @param taskId The unique identifier of the task.
+     * @return {@link TaskRole#AUTHOR}, {@link TaskRole#EXECUTOR} or {@link TaskRole#NONE}.
+     * @throws UsernameNotFoundException if the authenticated user is not found.
      */
-    public boolean checkAuthorRole(Long taskId, String authorEmail) {
-        User user = userRepository.findByEmail(authorEmail)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        Long userId = user.getId();
-        Optional<RedisTask> optionalTask = redisTaskRoleRepository.findById(taskId);
-        if (optionalTask.isPresent()) {
-            RedisTask redisTask = optionalTask.get();
-            return redisTask.getAuthorId().equals(userId);
+    public TaskRole resolveRole(Long taskId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return TaskRole.NONE;
+        }
+        if (!inRequest()) {
+            return resolveRole(taskId, currentUserId(authentication));
+        }
+        TaskRole role = taskRoleContext.get(taskId);
+        if (role == null) {
+            Long userId = taskRoleContext.getUserId();
+            if (userId == null) {
+                userId = currentUserId(authentication);
+                taskRoleContext.setUserId(userId);
+            }
+            role = resolveRole(taskId, userId);
+            taskRoleContext.put(taskId, role);
         }
-        return false;
+        return role;
     }
 
     /**
-     * Checks if the user with the given email is the executor of the specified task.
+     * Checks if the authenticated user is the author of the specified task.
      *
-     * @param taskId       The unique identifier of the task.
-     * @param executorEmail The email address of the user to check.
-     * @return {@code true} if the user is the executor of the task, {@code false} otherwise.
-     * @throws UsernameNotFoundException if the user with the given email is not found.
+     * @param taskId The unique identifier of the task.
+     * @return {@code true} if the user is the author of the task, {@code false} otherwise.
      */
-    public boolean checkExecutorRole(Long taskId, String executorEmail) {
-        User user = userRepository.findByEmail(executorEmail)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        Long userId = user.getId();
+    public boolean isAuthor(Long taskId) {
+        return resolveRole(taskId) == TaskRole.AUTHOR;
+    }
 
-        Optional<RedisTask> optionalTask = redisTaskRoleRepository.findById(taskId);
-        if (optionalTask.isPresent()) {
-            RedisTask redisTask = optionalTask.get();
-            return redisTask.getExecutorId() != null && redisTask.getExecutorId().equals(userId);
+    /**
+     * Checks if the authenticated user is the author or the executor of the specified task.
+     *
+     * @param taskId The unique identifier of the task.
+     * @return {@code true} if the user is the author or the executor of the task, {@code false} otherwise.
+     */
+    public boolean isAuthorOrExecutor(Long taskId) {
+        return resolveRole(taskId) != TaskRole.NONE;
+    }
+
+    private TaskRole resolveRole(Long taskId, Long userId) {
+        return reactiveTaskRoleRepository.findRole(taskId, userId).block();
+    }
+
+    private Long currentUserId(Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        if (principal instanceof User user) {
+            return user.getId();
         }
-        return false;
+        return userIdentityService.getIdByEmail(authentication.getName());
+    }
+
+    private static boolean inRequest() {
+        return RequestContextHolder.getRequestAttributes() != null;
     }
 }
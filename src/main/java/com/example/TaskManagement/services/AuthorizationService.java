@@ -2,14 +2,21 @@ package com.example.TaskManagement.services;
 
 import com.example.TaskManagement.entity.User;
 import com.example.TaskManagement.exception.DuplicateException;
+import com.example.TaskManagement.exception.InvalidTokenException;
+import com.example.TaskManagement.exception.PasswordHashingOverloadedException;
 import com.example.TaskManagement.model.JwtAuthenticationResponse;
 import com.example.TaskManagement.model.SignInRequest;
 import com.example.TaskManagement.model.SignUpRequest;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import javax.security.sasl.AuthenticationException;
@@ -17,7 +24,14 @@ import javax.security.sasl.AuthenticationException;
 /**
  * Service class responsible for handling user authentication and registration processes.
  * Provides functionality for user sign-up and sign-in, including JWT token generation.
+ * Password hashing and verification run on the bounded executor of {@link PasswordHashingService}.
+ * <p>
+ * Sign-up and sign-in issue a short-lived access token together with a refresh token. Refresh tokens rotate:
+ * each one can be exchanged once, from its verified claims alone, without password hashing or a database query.
+ * Presenting an already used refresh token is treated as theft and revokes every token of the user.
+ * </p>
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthorizationService {
@@ -32,34 +46,44 @@ public class AuthorizationService {
     private final JwtService jwtService;
 
     /**
-     * Encoder for hashing passwords.
+     * Runs password hashing off the request threads.
      */
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
     /**
      * The manager used to authenticate user credentials.
      */
     private final AuthenticationManager authenticationManager;
 
+    /**
+     * Service keeping track of individually revoked tokens.
+     */
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Service keeping track of the per-user token versions.
+     */
+    private final TokenVersionService tokenVersionService;
+
     /**
      * Registers a new user and generates a JWT token for the newly created user.
      *
      * @param request The request containing the user's sign-up information (username, email, password).
      * @return A {@link JwtAuthenticationResponse} containing the generated JWT token.
      * @throws DuplicateException if a user with the provided username or email already exists.
+     * @throws PasswordHashingOverloadedException if the password hashing executor is saturated.
      */
     public JwtAuthenticationResponse signUp(SignUpRequest request) {
 
         var user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .build();
 
         userService.create(user);
 
-        var jwt = jwtService.generateToken(user);
-        return new JwtAuthenticationResponse(jwt);
+        return issueTokens(user, user.getUsername());
     }
 
     /**
@@ -68,18 +92,93 @@ public class AuthorizationService {
      * @param request The request containing the user's sign-in information (email, password).
      * @return A {@link JwtAuthenticationResponse} containing the generated JWT token.
      * @throws UsernameNotFoundException if the user with the provided email is not found.
+     * @throws PasswordHashingOverloadedException if the password hashing executor is saturated.
      */
     public JwtAuthenticationResponse signIn(SignInRequest request) {
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
-                request.getEmail(),
-                request.getPassword()
-        ));
+        Authentication authentication = passwordHashingService.run(() ->
+                authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
+                        request.getEmail(),
+                        request.getPassword()
+                )));
+
+        var user = authentication.getPrincipal() instanceof User authenticated
+                ? authenticated
+                : userService.getByEmail(request.getEmail());
+
+        return issueTokens(user, user.getUsername());
+    }
+
+    /**
+     * Exchanges a refresh token for a new access and refresh token pair. The presented refresh token is claimed,
+     * i.e. revoked atomically, so that of concurrent exchanges of the same token only one succeeds. If it had
+     * already been revoked or claimed, every token of the user is revoked, since the token must have been reused.
+     *
+     * @param refreshToken The refresh token to exchange.
+     * @return A {@link JwtAuthenticationResponse} containing the new token pair.
+     * @throws InvalidTokenException if the refresh token is invalid, expired or revoked.
+     */
+    public JwtAuthenticationResponse refresh(String refreshToken) {
+        Claims claims = verifyRefreshToken(refreshToken);
+        var principal = jwtService.extractPrincipal(claims)
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+        if (!jwtService.isTokenCurrent(claims)) {
+            throw new InvalidTokenException("Refresh token has been revoked");
+        }
+        if (tokenRevocationService.isRevoked(claims.getId()) || !claim(claims)) {
+            log.warn("Reuse of refresh token " + claims.getId() + " detected, revoking all tokens of user " + principal.getId());
+            tokenVersionService.revokeTokens(principal.getId());
+            throw new InvalidTokenException("Refresh token has been revoked");
+        }
+
+        return issueTokens(principal, null);
+    }
+
+    /**
+     * Signs the user out by revoking the given access token and, if present, the given refresh token.
+     *
+     * @param accessToken  The access token of the current request.
+     * @param refreshToken The refresh token issued with it, may be {@code null}.
+     * @throws InvalidTokenException if the refresh token is invalid or belongs to another user.
+     */
+    public void signOut(String accessToken, String refreshToken) {
+        Claims access = jwtService.extractAllClaims(accessToken);
+        if (refreshToken != null) {
+            Claims refresh = verifyRefreshToken(refreshToken);
+            if (!refresh.getSubject().equals(access.getSubject())) {
+                throw new InvalidTokenException("Refresh token belongs to another user");
+            }
+            tokenRevocationService.revoke(refresh.getId(), refresh.getExpiration());
+        }
+        tokenRevocationService.revoke(access.getId(), access.getExpiration());
+    }
+
+    private boolean claim(Claims claims) {
+        try {
+            return tokenRevocationService.claim(claims.getId(), claims.getExpiration());
+        } catch (DataAccessException e) {
+            log.warn("Could not claim refresh token " + claims.getId(), e);
+            throw new InvalidTokenException("Refresh token could not be verified");
+        }
+    }
 
-        var user = userService
-                .userDetailsService()
-                .loadUserByUsername(request.getEmail());
+    private Claims verifyRefreshToken(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+        if (!jwtService.isRefreshToken(claims)) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+        return claims;
+    }
 
-        var jwt = jwtService.generateToken(user);
-        return new JwtAuthenticationResponse(jwt);
+    private JwtAuthenticationResponse issueTokens(UserDetails user, String username) {
+        return JwtAuthenticationResponse.builder()
+                .token(jwtService.generateToken(user))
+                .refreshToken(jwtService.generateRefreshToken(user))
+                .username(username)
+                .build();
     }
 }
@@ -2,17 +2,22 @@ package com.example.TaskManagement.services;
 
 import com.example.TaskManagement.entity.Comment;
 import com.example.TaskManagement.entity.Task;
-import com.example.TaskManagement.entity.User;
 import com.example.TaskManagement.exception.CommentNotFoundException;
+import com.example.TaskManagement.exception.InvalidCursorException;
 import com.example.TaskManagement.exception.TaskNotFoundException;
 import com.example.TaskManagement.mappers.CommentMapper;
 import com.example.TaskManagement.model.CommentRequestDTO;
 import com.example.TaskManagement.model.CommentResponseDTO;
+import com.example.TaskManagement.model.CursorPage;
+import com.example.TaskManagement.model.KeysetCursor;
+import com.example.TaskManagement.model.TaskChangeEvent;
+import com.example.TaskManagement.model.TaskChangeType;
 import com.example.TaskManagement.repositories.CommentRepository;
 import com.example.TaskManagement.repositories.TaskRepository;
 import com.example.TaskManagement.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
@@ -21,7 +26,8 @@ import java.util.List;
 /**
  * Service class responsible for managing comments within the system.
  * Provides functionality for creating, retrieving, updating, and deleting comments,
- * as well as converting between DTOs and entities.
+ * as well as converting between DTOs and entities. Every change is announced to the author and the executor of
+ * the task through {@link TaskEventPublisher}.
  */
 @RequiredArgsConstructor
 @Slf4j
@@ -31,7 +37,9 @@ public class CommentService {
     private final TaskRepository taskRepository;
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
+    private final UserIdentityService userIdentityService;
     private final CommentMapper commentMapper;
+    private final TaskEventPublisher taskEventPublisher;
 
     /**
      * Retrieves a comment by its ID and converts it to a response DTO.
@@ -47,20 +55,41 @@ public class CommentService {
     }
 
     /**
-     * Retrieves all comments associated with a specific task.
+     * Retrieves one page of the comments associated with a specific task, newest first.
      *
      * @param taskId The ID of the task.
-     * @return A list of {@link CommentResponseDTO} objects for the task.
+     * @param cursor The cursor returned with the previous page, or with the task's embedded comments,
+     *               or {@code null} for the first page.
+     * @param size The number of comments per page.
+     * @return The page of {@link CommentResponseDTO} objects and the cursor of the next page.
      * @throws TaskNotFoundException if no task with the given ID exists.
+     * @throws InvalidCursorException if the cursor is malformed.
      */
-    public List<CommentResponseDTO> listComment(Long taskId) {
-        log.info("Get all comments task " + taskId);
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException(taskId));
-        return commentRepository.findAll()
-                .stream().filter(comment -> comment.getTask().equals(task))
+    public CursorPage<CommentResponseDTO> listComment(Long taskId, String cursor, int size) {
+        log.info("Get comments of task " + taskId + ", cursor: " + cursor);
+        if (!taskRepository.existsById(taskId)) {
+            throw new TaskNotFoundException(taskId);
+        }
+        int pageSize = Math.max(1, Math.min(size, TaskService.MAX_PAGE_SIZE));
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+        List<Comment> comments;
+        if (cursor == null || cursor.isEmpty()) {
+            comments = commentRepository.findFirstPageByTask(taskId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            comments = commentRepository.findPageByTaskAfter(taskId, after.getSortTime(), after.getId(), limit);
+        }
+
+        boolean hasNext = comments.size() > pageSize;
+        List<Comment> page = hasNext ? comments.subList(0, pageSize) : comments;
+        String nextCursor = null;
+        if (hasNext) {
+            Comment last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.of(last.getCreatedAtComment(), last.getId()).encode();
+        }
+        return new CursorPage<>(page.stream()
                 .map(commentMapper::toDTO)
-                .toList();
+                .toList(), nextCursor);
     }
 
     /**
@@ -72,12 +101,13 @@ public class CommentService {
      */
     public void create(CommentRequestDTO commentRequestDTO, Long taskId) {
         log.info("Create comment by author");
-        User user = userRepository.findByUsername(commentRequestDTO.getAuthorName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        Long authorId = userIdentityService.getIdByUsername(commentRequestDTO.getAuthorName());
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException(taskId));
         Comment comment = commentMapper.toEntity(commentRequestDTO,task);
-        commentRepository.save(comment);
+        comment.setAuthor(userRepository.getReferenceById(authorId));
+        Comment savedComment = commentRepository.save(comment);
+        announce(TaskChangeType.COMMENT_CREATED, task, savedComment.getId());
     }
 
     /**
@@ -91,7 +121,8 @@ public class CommentService {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException(taskId));
         Comment comment = commentMapper.toEntity(commentRequestDTO,task);
-        commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        announce(TaskChangeType.COMMENT_UPDATED, task, savedComment.getId());
     }
 
     /**
@@ -101,7 +132,19 @@ public class CommentService {
      */
     public void deleteById(Long id) {
         log.info("Delete comment by id " + id);
-        commentRepository.deleteById(id);
+        commentRepository.findById(id).ifPresent(comment -> {
+            commentRepository.delete(comment);
+            announce(TaskChangeType.COMMENT_DELETED, comment.getTask(), id);
+        });
+    }
+
+    private void announce(TaskChangeType type, Task task, Long commentId) {
+        taskEventPublisher.publish(TaskChangeEvent.builder()
+                .type(type)
+                .taskId(task.getId())
+                .commentId(commentId)
+                .build(), task.getAuthor() == null ? null : task.getAuthor().getId(),
+                task.getExecutor() == null ? null : task.getExecutor().getId());
     }
 
 }
\ No newline at end of file
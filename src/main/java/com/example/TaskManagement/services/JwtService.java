@@ -1,20 +1,41 @@
 package com.example.TaskManagement.services;
 
 import com.example.TaskManagement.entity.User;
+import com.example.TaskManagement.model.AuthenticatedUser;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 import static io.jsonwebtoken.Jwts.builder;
@@ -23,8 +44,23 @@ import static io.jsonwebtoken.Jwts.builder;
 /**
  * Service class for generating, validating, and extracting information from JSON Web Tokens (JWTs).
  * This class provides methods to handle token operations using a secret key for signing.
+ * <p>
+ * The signing key and the token parser are built once at startup. The signature of a token is verified
+ * only the first time the token is seen; its parsed {@link Claims} are then kept in a bounded cache,
+ * keyed by the SHA-256 digest of the token, until the token expires.
+ * </p>
+ * <p>
+ * Tokens issued for a {@link User} carry the user ID, email, authorities and the user's token version,
+ * which is enough to authenticate a request without loading the user (see {@link #extractPrincipal(String)}).
+ * </p>
+ * <p>
+ * Every token has an ID ({@code jti}) and a type ({@code typ}): short-lived access tokens authenticate requests,
+ * long-lived refresh tokens can only be exchanged for a new token pair. Individual tokens are revoked by ID
+ * through {@link TokenRevocationService}.
+ * </p>
  */
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
     /**
@@ -39,6 +75,71 @@ public class JwtService {
     @Value("${token.signing.expiration-ms}")
     private int lifelimit;
 
+    /**
+     * The expiration time (in milliseconds) for refresh tokens.
+     */
+    @Value("${token.refresh.expiration-ms:1209600000}")
+    private long refreshLifelimit;
+
+    /**
+     * The maximum number of verified tokens kept in the claims cache.
+     */
+    @Value("${token.cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    private final MeterRegistry meterRegistry;
+    private final TokenVersionService tokenVersionService;
+    private final TokenRevocationService tokenRevocationService;
+
+    private static final String TOKEN_TYPE = "typ";
+    private static final String ACCESS_TOKEN = "access";
+    private static final String REFRESH_TOKEN = "refresh";
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, Claims> verifiedTokens;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    /**
+     * Builds the signing key, the token parser and the verified-claims cache.
+     * Called once by Spring after the configuration properties have been injected.
+     */
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                        return timeToLive(claims).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified-tokens");
+    }
+
     /**
      * Extracts the username (email) from the provided token.
      *
@@ -50,32 +151,94 @@ public class JwtService {
     }
 
     /**
-     * Generates a JWT token for the provided user details. Includes custom claims for {@link User} entities.
+     * Generates an access token for the provided user details. Includes custom claims for {@link User} entities
+     * and {@link AuthenticatedUser} principals.
      *
      * @param userDetails The user details for whom the token is generated.
      * @return The generated JWT token.
      */
     public String generateToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        if (userDetails instanceof User customUserDetails) {
-            claims.put("id", customUserDetails.getId());
-            claims.put("email", customUserDetails.getEmail());
-        }
-        return generateToken(claims, userDetails);
+        Map<String, Object> claims = identityClaims(userDetails);
+        claims.put(TOKEN_TYPE, ACCESS_TOKEN);
+        return generateToken(claims, userDetails, lifelimit);
     }
 
     /**
-     * Validates the provided token against the user details.
-     * Checks if the email matches and if the token is not expired.
+     * Generates a refresh token for the provided user details. A refresh token does not authenticate requests;
+     * it can only be exchanged once for a new access and refresh token pair.
+     *
+     * @param userDetails The user details for whom the token is generated.
+     * @return The generated JWT refresh token.
+     */
+    public String generateRefreshToken(UserDetails userDetails) {
+        Map<String, Object> claims = identityClaims(userDetails);
+        claims.put(TOKEN_TYPE, REFRESH_TOKEN);
+        return generateToken(claims, userDetails, refreshLifelimit);
+    }
+
+    /**
+     * Validates the provided access token against the user details.
+     * Checks if the email matches, if the token is an unexpired access token and if it has been revoked neither
+     * individually nor by a newer token version of the user.
      *
      * @param token       The JWT token to validate.
      * @param userDetails The user details to validate against.
      * @return True if the token is valid, false otherwise.
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String emailFromToken = extractUserName(token);
+        final Claims claims = extractAllClaims(token);
         String emailFromDb = userDetails.getUsername();
-        return (emailFromToken.equals(emailFromDb) && !isTokenExpired(token));
+        return (claims.getSubject().equals(emailFromDb) && !isTokenExpired(claims) && !isRefreshToken(claims)
+                && isTokenCurrent(claims) && !tokenRevocationService.isRevoked(claims.getId()));
+    }
+
+    /**
+     * Checks whether verified claims belong to a refresh token.
+     *
+     * @param claims The claims of a verified token.
+     * @return True if the token is a refresh token, false otherwise.
+     */
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN.equals(claims.get(TOKEN_TYPE, String.class));
+    }
+
+    /**
+     * Builds the authenticated principal from the verified claims of the token alone, without loading the user.
+     *
+     * @param token The JWT token.
+     * @return The principal, or an empty {@link Optional} if the token does not carry the user ID and email.
+     */
+    public Optional<AuthenticatedUser> extractPrincipal(String token) {
+        return extractPrincipal(extractAllClaims(token));
+    }
+
+    /**
+     * Builds the authenticated principal from verified token claims.
+     *
+     * @param claims The claims of a verified token.
+     * @return The principal, or an empty {@link Optional} if the claims do not carry the user ID and email.
+     */
+    public Optional<AuthenticatedUser> extractPrincipal(Claims claims) {
+        Number id = claims.get("id", Number.class);
+        String email = claims.get("email", String.class);
+        if (id == null || email == null) {
+            return Optional.empty();
+        }
+        Collection<? extends GrantedAuthority> authorities = Optional.ofNullable(claims.get("authorities", List.class))
+                .map(values -> ((List<?>) values).stream()
+                        .map(value -> new SimpleGrantedAuthority(value.toString()))
+                        .toList())
+                .orElse(List.of());
+        return Optional.of(new AuthenticatedUser(id.longValue(), email, null, authorities));
+    }
+
+    /**
+     * Returns the hit and miss statistics of the verified-claims cache.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public CacheStats verifiedTokenStats() {
+        return verifiedTokens.stats();
     }
 
     /**
@@ -91,14 +254,43 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Collects the identity claims of a {@link User} entity or an {@link AuthenticatedUser} principal.
+     *
+     * @param userDetails The user details for whom the token is generated.
+     * @return A mutable map with the user ID, email, authorities and current token version.
+     */
+    private Map<String, Object> identityClaims(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        Long id = null;
+        String email = null;
+        if (userDetails instanceof User customUserDetails) {
+            id = customUserDetails.getId();
+            email = customUserDetails.getEmail();
+        } else if (userDetails instanceof AuthenticatedUser principal) {
+            id = principal.getId();
+            email = principal.getEmail();
+        }
+        if (id != null) {
+            claims.put("id", id);
+            claims.put("email", email);
+            claims.put("authorities", userDetails.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .toList());
+            claims.put("ver", tokenVersionService.currentVersion(id));
+        }
+        return claims;
+    }
+
     /**
      * Generates a JWT token with the specified extra claims and user details.
      *
      * @param extraClaims Additional claims to include in the token.
      * @param userDetails The user details to associate with the token.
+     * @param lifetime    The lifetime of the token in milliseconds.
      * @return The generated JWT token.
      */
-    private String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+    private String generateToken(Map<String, Object> extraClaims, UserDetails userDetails, long lifetime) {
         String email;
         if (userDetails instanceof User) {
             email = ((User) userDetails).getEmail();
@@ -108,54 +300,81 @@ public class JwtService {
 
         return builder()
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(email)  // Устанавливаем email в качестве subject
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + lifelimit))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + lifetime))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     /**
-     * Checks if the provided token is expired.
+     * Checks if the provided claims are expired.
      *
-     * @param token The JWT token.
+     * @param claims The claims of a verified token.
      * @return True if the token is expired, false otherwise.
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     /**
-     * Extracts the expiration date from the token.
+     * Checks that the token was issued at the user's current token version.
+     * Tokens without a user ID are not versioned; tokens without a version predate versioning and count as version 0.
      *
-     * @param token The JWT token.
-     * @return The expiration date of the token.
+     * @param claims The claims of a verified token.
+     * @return True if the token has not been revoked by a version bump, false otherwise.
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenCurrent(Claims claims) {
+        Number id = claims.get("id", Number.class);
+        if (id == null) {
+            return true;
+        }
+        Number version = claims.get("ver", Number.class);
+        long tokenVersion = version == null ? 0 : version.longValue();
+        return tokenVersion == tokenVersionService.currentVersion(id.longValue());
     }
 
     /**
-     * Extracts all claims from the token.
+     * Extracts all claims from the token. The signature is verified only on a cache miss.
      *
      * @param token The JWT token.
      * @return The claims contained in the token.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, has an invalid signature or is expired.
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Claims extractAllClaims(String token) {
+        String digest = digest(token);
+        Claims claims = verifiedTokens.getIfPresent(digest);
+        if (claims == null) {
+            claims = parser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(digest, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Computes the time a verified token may stay in the cache: until it expires.
+     *
+     * @param claims The claims of a verified token.
+     * @return The remaining lifetime of the token, never negative.
+     */
+    private static Duration timeToLive(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return Duration.ZERO;
+        }
+        long millis = expiration.getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(millis, 0));
     }
 
     /**
-     * Generates the signing key from the configured secret.
+     * Computes the cache key of a token, so that the cache never holds raw tokens.
      *
-     * @return The {@link SecretKey} used for signing the tokens.
+     * @param token The JWT token.
+     * @return The Base64-encoded SHA-256 digest of the token.
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package com.example.TaskManagement.services;
+
+import com.example.TaskManagement.exception.PasswordHashingOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CustomizableThreadCreator;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Service class that runs CPU-heavy password hashing on a dedicated, bounded executor,
+ * so that login storms cannot starve the request threads serving the rest of the API.
+ * <p>
+ * When all hashing threads are busy and the queue is full, new work is rejected immediately with a
+ * {@link PasswordHashingOverloadedException} (answered with 503) instead of piling up behind the backlog.
+ * Executor metrics are published under {@code password.hashing}.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Number of threads hashing passwords. Defaults to half of the available processors.
+     */
+    @Value("${security.password.hashing.threads:0}")
+    private int threads;
+
+    /**
+     * Maximum number of hashing requests waiting for a thread.
+     */
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    /**
+     * Maximum time a request thread waits for its hashing result.
+     */
+    @Value("${security.password.hashing.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+    private ExecutorService monitoredExecutor;
+    private Counter rejected;
+
+    /**
+     * Starts the hashing executor and registers its metrics.
+     */
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        CustomizableThreadCreator threadCreator = new CustomizableThreadCreator("password-hashing-");
+        threadCreator.setDaemon(true);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadCreator::createThread, new ThreadPoolExecutor.AbortPolicy());
+        monitoredExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+        rejected = Counter.builder("password.hashing.rejected")
+                .description("Password hashing requests rejected because the executor was saturated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stops the hashing executor on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        List<Runnable> pending = executor.shutdownNow();
+        if (!pending.isEmpty()) {
+            log.info("Dropped " + pending.size() + " pending password hashing requests on shutdown");
+        }
+    }
+
+    /**
+     * Hashes a raw password on the hashing executor.
+     *
+     * @param rawPassword The password to hash.
+     * @return The encoded password.
+     * @throws PasswordHashingOverloadedException if the executor is saturated.
+     */
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Runs a task that hashes or verifies passwords on the hashing executor and waits for its result.
+     * Runtime exceptions thrown by the task are rethrown unchanged to the caller.
+     *
+     * @param <T>  The type of the result.
+     * @param task The task to run.
+     * @return The result of the task.
+     * @throws PasswordHashingOverloadedException if the executor is saturated or the result is not ready in time.
+     */
+    public <T> T run(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = monitoredExecutor.submit(task::get);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingOverloadedException("Too many concurrent sign-in requests, please retry later");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingOverloadedException("Password hashing timed out, please retry later");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingOverloadedException("Password hashing was interrupted");
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.TaskManagement.services;
+
+import com.example.TaskManagement.entity.RedisTask;
+import com.example.TaskManagement.model.BulkTaskChangeRequest;
+import com.example.TaskManagement.model.BulkTaskOutcome;
+import com.example.TaskManagement.model.BulkTaskResultDTO;
+import com.example.TaskManagement.model.TaskChangeEvent;
+import com.example.TaskManagement.model.TaskChangeType;
+import com.example.TaskManagement.repositories.TaskBulkRepository;
+import com.example.TaskManagement.securityRedis.RedisTaskRoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class that applies one status, priority or executor change to many tasks at once.
+ * <p>
+ * The roles of all tasks are resolved in one pass: one pipelined Redis round trip, with one Postgres query for
+ * the tasks Redis does not know. The permitted tasks are then changed with batched set-based updates by
+ * {@link TaskBulkRepository}; a new executor reaches Redis through the task role outbox, and the typeahead indexes
+ * of all instances through one broadcast of the changed task IDs. Every task gets its own
+ * outcome instead of the whole request failing.
+ * </p>
+ * <p>
+ * Every changed task is announced on the change feed like a single-task patch, one event per changed field, to
+ * its author, its executor and, when the executor changes, its previous executor.
+ * </p>
+ * <p>
+ * The rules are those of the single-task endpoints: the author of a task may make any change, its executor may
+ * only change the status.
+ * </p>
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Service
+public class TaskBulkService {
+    private final TaskBulkRepository taskBulkRepository;
+    private final RedisTaskRoleRepository redisTaskRoleRepository;
+    private final UserIdentityService userIdentityService;
+    private final TaskTypeaheadService taskTypeaheadService;
+    private final TaskEventPublisher taskEventPublisher;
+
+    /**
+     * Applies a change to many tasks.
+     *
+     * @param userId The ID of the user making the change.
+     * @param request The IDs of the tasks and the change.
+     * @return The outcome for every distinct task ID, in the order of the request.
+     * @throws UsernameNotFoundException If the new executor cannot be found.
+     */
+    public List<BulkTaskResultDTO> apply(Long userId, BulkTaskChangeRequest request) {
+        Set<Long> taskIds = new LinkedHashSet<>(request.getTaskIds());
+        log.info("Bulk change of " + taskIds.size() + " tasks by user " + userId);
+        Long executorId = request.getExecutorName() == null
+                ? null
+                : userIdentityService.getIdByUsername(request.getExecutorName());
+
+        Map<Long, RedisTask> roles = new HashMap<>(redisTaskRoleRepository.findAllById(taskIds));
+        if (roles.size() < taskIds.size()) {
+            roles.putAll(taskBulkRepository.findRoles(taskIds.stream().filter(id -> !roles.containsKey(id)).toList()));
+        }
+
+        List<Long> permitted = new ArrayList<>();
+        for (Long taskId : taskIds) {
+            RedisTask task = roles.get(taskId);
+            if (task != null && isPermitted(task, userId, request.isStatusOnly())) {
+                permitted.add(taskId);
+            }
+        }
+        Set<Long> updated = permitted.isEmpty()
+                ? Set.of()
+                : taskBulkRepository.update(permitted, userId, request.getStatus(), request.getPriority(), executorId);
+
+        if (executorId != null) {
+            taskTypeaheadService.tasksChanged(updated);
+        }
+
+        for (Long taskId : updated) {
+            announce(taskId, roles.get(taskId), request, executorId);
+        }
+
+        List<BulkTaskResultDTO> results = new ArrayList<>(taskIds.size());
+        for (Long taskId : taskIds) {
+            results.add(new BulkTaskResultDTO(taskId, outcome(roles.get(taskId), updated.contains(taskId),
+                    userId, request.isStatusOnly())));
+        }
+        return results;
+    }
+
+    /**
+     * Announces the changes made to one task. The roles are those read before the change.
+     */
+    private void announce(Long taskId, RedisTask roles, BulkTaskChangeRequest request, Long executorId) {
+        Long authorId = roles.getAuthorId();
+        Long previousExecutorId = roles.getExecutorId();
+        Long currentExecutorId = executorId == null ? previousExecutorId : executorId;
+        if (request.getStatus() != null) {
+            taskEventPublisher.publish(TaskChangeEvent.builder()
+                    .type(TaskChangeType.STATUS_CHANGED)
+                    .taskId(taskId)
+                    .status(request.getStatus().name())
+                    .build(), authorId, currentExecutorId);
+        }
+        if (request.getPriority() != null) {
+            taskEventPublisher.publish(TaskChangeEvent.builder()
+                    .type(TaskChangeType.PRIORITY_CHANGED)
+                    .taskId(taskId)
+                    .priority(request.getPriority().name())
+                    .build(), authorId, currentExecutorId);
+        }
+        if (executorId != null) {
+            taskEventPublisher.publish(TaskChangeEvent.builder()
+                    .type(TaskChangeType.EXECUTOR_CHANGED)
+                    .taskId(taskId)
+                    .executorName(request.getExecutorName())
+                    .build(), authorId, executorId, previousExecutorId);
+        }
+    }
+
+    private static boolean isPermitted(RedisTask task, Long userId, boolean statusOnly) {
+        return userId.equals(task.getAuthorId()) || statusOnly && userId.equals(task.getExecutorId());
+    }
+
+    /**
+     * A permitted task that was not updated was deleted, or its roles changed, in the meantime.
+     */
+    private static BulkTaskOutcome outcome(RedisTask task, boolean updated, Long userId, boolean statusOnly) {
+        if (updated) {
+            return BulkTaskOutcome.UPDATED;
+        }
+        if (task == null) {
+            return BulkTaskOutcome.NOT_FOUND;
+        }
+        return isPermitted(task, userId, statusOnly) ? BulkTaskOutcome.NOT_FOUND : BulkTaskOutcome.FORBIDDEN;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.TaskManagement.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Service class providing approximate task counts for the task lists of authors and executors.
+ * <p>
+ * The task list endpoints never count; clients that ask for a total get one from here. A count is first
+ * estimated by the Postgres planner ({@code EXPLAIN}), which costs no table access. Only small estimates,
+ * below {@code tasks.approximate-count.exact-threshold}, are replaced by an exact index-only count, which is
+ * cheap at that size. Results are kept per user for {@code tasks.approximate-count.ttl-ms}.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskCountService {
+
+    private static final String ESTIMATE_AUTHOR_TASKS = "EXPLAIN (FORMAT JSON) SELECT 1 FROM tasks WHERE author_id = ";
+    private static final String ESTIMATE_EXECUTOR_TASKS = "EXPLAIN (FORMAT JSON) SELECT 1 FROM tasks WHERE executor_id = ";
+    private static final String COUNT_AUTHOR_TASKS = "SELECT count(*) FROM tasks WHERE author_id = ?";
+    private static final String COUNT_EXECUTOR_TASKS = "SELECT count(*) FROM tasks WHERE executor_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserIdentityService userIdentityService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Estimates below this number of tasks are replaced by an exact count.
+     */
+    @Value("${tasks.approximate-count.exact-threshold:10000}")
+    private long exactThreshold;
+
+    /**
+     * How long a count is reused before it is estimated again.
+     */
+    @Value("${tasks.approximate-count.ttl-ms:60000}")
+    private long ttlMs;
+
+    /**
+     * The maximum number of counts kept per cache.
+     */
+    @Value("${tasks.approximate-count.maximum-size:100000}")
+    private long maximumSize;
+
+    private Cache<Long, Long> authorCounts;
+    private Cache<Long, Long> executorCounts;
+
+    /**
+     * Builds the count caches.
+     */
+    @PostConstruct
+    public void init() {
+        authorCounts = newCache("tasks.approximate-count.author");
+        executorCounts = newCache("tasks.approximate-count.executor");
+    }
+
+    /**
+     * Returns the approximate number of tasks of an author.
+     *
+     * @param username The username of the author.
+     * @return The approximate number of tasks.
+     * @throws UsernameNotFoundException If the user with the given username cannot be found.
+     */
+    public long approximateAuthorTaskCount(String username) {
+        Long userId = userIdentityService.getIdByUsername(username);
+        return authorCounts.get(userId, id -> count(ESTIMATE_AUTHOR_TASKS, COUNT_AUTHOR_TASKS, id));
+    }
+
+    /**
+     * Returns the approximate number of tasks assigned to an executor.
+     *
+     * @param username The username of the executor.
+     * @return The approximate number of tasks.
+     * @throws UsernameNotFoundException If the user with the given username cannot be found.
+     */
+    public long approximateExecutorTaskCount(String username) {
+        Long userId = userIdentityService.getIdByUsername(username);
+        return executorCounts.get(userId, id -> count(ESTIMATE_EXECUTOR_TASKS, COUNT_EXECUTOR_TASKS, id));
+    }
+
+    private long count(String estimateQuery, String countQuery, Long userId) {
+        long estimate = estimate(estimateQuery + userId);
+        if (estimate >= exactThreshold) {
+            return estimate;
+        }
+        Long count = jdbcTemplate.queryForObject(countQuery, Long.class, userId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Reads the row estimate of the top plan node. The user ID is inlined, as it is a number, so that the
+     * planner estimates with the actual value instead of a generic plan.
+     */
+    private long estimate(String explainQuery) {
+        String plan = jdbcTemplate.queryForObject(explainQuery, String.class);
+        try {
+            return objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (JsonProcessingException e) {
+            log.warn("Could not parse the query plan, estimating 0 tasks", e);
+            return 0;
+        }
+    }
+
+    private Cache<Long, Long> newCache(String name) {
+        Cache<Long, Long> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+}
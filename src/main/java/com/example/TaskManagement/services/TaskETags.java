@@ -0,0 +1,109 @@
+package com.example.TaskManagement.services;
+
+import com.example.TaskManagement.model.TaskResponseDTO;
+import com.example.TaskManagement.model.TaskVersion;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Computes the strong ETags of task responses.
+ * <p>
+ * A task is tagged {@code "<version>.<comments revision>"}: the version changes with every update of the task
+ * and the revision with every comment added, edited or removed, so the tag changes whenever the response does.
+ * A page of tasks is tagged with a digest of the tags of its tasks and of whether a next page exists.
+ * </p>
+ * <p>
+ * The tags are computed the same way from the {@link TaskVersion versions} read on their own and from the
+ * loaded {@link TaskResponseDTO responses}, so a conditional request can be answered without loading the task.
+ * </p>
+ */
+public final class TaskETags {
+
+    private TaskETags() {
+    }
+
+    /**
+     * Computes the ETag of a task from its version.
+     *
+     * @param version The version of the task.
+     * @return The quoted ETag.
+     */
+    public static String of(TaskVersion version) {
+        return quote(tag(version.getVersion(), version.getCommentsRevision()));
+    }
+
+    /**
+     * Computes the ETag of a loaded task.
+     *
+     * @param task The task.
+     * @return The quoted ETag.
+     */
+    public static String of(TaskResponseDTO task) {
+        return quote(tag(versionOf(task), task.getCommentsRevision()));
+    }
+
+    /**
+     * Computes the ETag of a page of tasks from their versions.
+     *
+     * @param versions The versions of the tasks of the page, in page order.
+     * @param hasNext Whether a next page exists.
+     * @return The quoted ETag.
+     */
+    public static String ofVersions(List<TaskVersion> versions, boolean hasNext) {
+        StringBuilder page = new StringBuilder();
+        for (TaskVersion version : versions) {
+            append(page, version.getId(), tag(version.getVersion(), version.getCommentsRevision()));
+        }
+        return digest(page, hasNext);
+    }
+
+    /**
+     * Computes the ETag of a page of loaded tasks.
+     *
+     * @param tasks The tasks of the page, in page order.
+     * @param hasNext Whether a next page exists.
+     * @return The quoted ETag.
+     */
+    public static String ofTasks(List<TaskResponseDTO> tasks, boolean hasNext) {
+        StringBuilder page = new StringBuilder();
+        for (TaskResponseDTO task : tasks) {
+            append(page, task.getId(), tag(versionOf(task), task.getCommentsRevision()));
+        }
+        return digest(page, hasNext);
+    }
+
+    /**
+     * Reads the task version from an ETag echoed by a client: the number before the comments revision.
+     *
+     * @param etag The ETag without quotes and weakness prefix.
+     * @return The task version.
+     * @throws NumberFormatException If the tag does not start with a version number.
+     */
+    public static int versionOf(String etag) {
+        int separator = etag.indexOf('.');
+        return Integer.parseInt(separator < 0 ? etag : etag.substring(0, separator));
+    }
+
+    private static int versionOf(TaskResponseDTO task) {
+        return task.getVersion() == null ? 0 : task.getVersion();
+    }
+
+    private static String tag(int version, int commentsRevision) {
+        return version + "." + commentsRevision;
+    }
+
+    private static void append(StringBuilder page, long id, String tag) {
+        page.append(id).append(':').append(tag).append(',');
+    }
+
+    private static String digest(StringBuilder page, boolean hasNext) {
+        page.append(hasNext);
+        return quote(DigestUtils.md5DigestAsHex(page.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.TaskManagement.services;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * One open change feed connection of {@link TaskEventStream}.
+ * <p>
+ * Events are queued in a bounded buffer and written by a sender thread, at most one at a time per connection,
+ * so a slow client never holds up the Redis listener or the other clients. A client that falls so far behind
+ * that its buffer is full is disconnected instead of buffered without limit; it reconnects with its last
+ * event ID and is replayed what it missed.
+ * </p>
+ */
+final class TaskEventConnection {
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+    private final Executor sender;
+    private final Consumer<TaskEventConnection> onClose;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    TaskEventConnection(SseEmitter emitter, int bufferSize, Executor sender, Consumer<TaskEventConnection> onClose) {
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.sender = sender;
+        this.onClose = onClose;
+        emitter.onCompletion(() -> close(false));
+        emitter.onTimeout(() -> close(true));
+        emitter.onError(e -> close(false));
+    }
+
+    /**
+     * Queues an event for sending.
+     *
+     * @param event The event, built for this connection only.
+     * @return {@code false} if the buffer is full, {@code true} otherwise, also if the connection is closed.
+     */
+    boolean offer(SseEmitter.SseEventBuilder event) {
+        if (closed.get()) {
+            return true;
+        }
+        if (!buffer.offer(event)) {
+            return false;
+        }
+        schedule();
+        return true;
+    }
+
+    /**
+     * Closes the connection, dropping the events not sent yet.
+     */
+    void close() {
+        close(true);
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    private void close(boolean complete) {
+        if (closed.compareAndSet(false, true)) {
+            buffer.clear();
+            onClose.accept(this);
+            if (complete) {
+                emitter.complete();
+            }
+        }
+    }
+
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                close();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!closed.get() && (event = buffer.poll()) != null) {
+                emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the client went away; the container completes the request on its own
+            close(false);
+        } finally {
+            draining.set(false);
+        }
+        if (!closed.get() && !buffer.isEmpty()) {
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.TaskManagement.services;
+
+import com.example.TaskManagement.model.TaskChangeEvent;
+import com.example.TaskManagement.model.TaskChangeType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CustomizableThreadCreator;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class that announces task and comment changes to the change feeds of all application instances.
+ * <p>
+ * Each event is numbered and broadcast on the {@value #CHANNEL} Redis channel by one Lua call that increments
+ * {@value #SEQUENCE_KEY} and publishes in the same step, so event IDs are unique across instances and every
+ * subscriber receives the events in ID order. The message is the event ID, a space, and a JSON envelope of the
+ * recipients and the event; {@link TaskEventStream} forwards the event to the recipients' connections.
+ * </p>
+ * <p>
+ * Events are published in the background, in the order they were recorded, so a write does not wait for Redis.
+ * The feed is best effort: an event that cannot be published is logged and counted in
+ * {@code tasks.events.publish-failures}, and clients are expected to refetch after a {@code RESET}.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskEventPublisher {
+
+    /**
+     * Redis channel on which change events are broadcast to all application instances.
+     */
+    public static final String CHANNEL = "task-events";
+
+    /**
+     * Redis key holding the ID of the last published event.
+     */
+    public static final String SEQUENCE_KEY = "task-events:sequence";
+
+    /**
+     * Numbers the event in ARGV[2] and publishes it on ARGV[1], prefixed with its ID. Returns the ID.
+     */
+    private static final RedisScript<Long> PUBLISH = RedisScript.of("""
+            local id = redis.call('INCR', KEYS[1])
+            redis.call('PUBLISH', ARGV[1], id .. ' ' .. ARGV[2])
+            return id
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor writer;
+    private Counter publishFailures;
+
+    /**
+     * The recipients of an event and the event, as broadcast to all instances.
+     *
+     * @param recipients The IDs of the users whose feeds receive the event.
+     * @param event The event.
+     */
+    record Envelope(Set<Long> recipients, TaskChangeEvent event) {
+    }
+
+    /**
+     * Starts the background publisher and registers its metrics.
+     */
+    @PostConstruct
+    public void init() {
+        CustomizableThreadCreator threadCreator = new CustomizableThreadCreator("task-events-");
+        threadCreator.setDaemon(true);
+        writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(10_000), threadCreator::createThread, new ThreadPoolExecutor.CallerRunsPolicy());
+        publishFailures = meterRegistry.counter("tasks.events.publish-failures");
+    }
+
+    /**
+     * Stops the background publisher, letting queued events finish.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Announces a change to the users involved with the task.
+     *
+     * @param event The change; its time is set if missing.
+     * @param recipients The IDs of the users to notify; {@code null} and duplicate IDs are ignored.
+     */
+    public void publish(TaskChangeEvent event, Long... recipients) {
+        Set<Long> userIds = new LinkedHashSet<>(Arrays.stream(recipients).filter(Objects::nonNull).toList());
+        if (userIds.isEmpty()) {
+            return;
+        }
+        TaskChangeEvent stamped = event.getOccurredAt() != null
+                ? event
+                : event.toBuilder().occurredAt(LocalDateTime.now()).build();
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(new Envelope(userIds, stamped));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize task event " + event.getType(), e);
+        }
+        writer.execute(() -> send(event.getType(), event.getTaskId(), payload));
+    }
+
+    /**
+     * Returns the ID of the last event published by any instance.
+     *
+     * @return The last event ID, {@code 0} if none was published yet.
+     */
+    public long lastEventId() {
+        String value = redisTemplate.opsForValue().get(SEQUENCE_KEY);
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    private void send(TaskChangeType type, Long taskId, String payload) {
+        try {
+            redisTemplate.execute(PUBLISH, List.of(SEQUENCE_KEY), CHANNEL, payload);
+        } catch (DataAccessException e) {
+            publishFailures.increment();
+            log.warn("Could not publish " + type + " of task " + taskId, e);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.TaskManagement.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CustomizableThreadCreator;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Service class that serves the per-user change feed over Server-Sent Events.
+ * <p>
+ * Every instance subscribes to the {@value TaskEventPublisher#CHANNEL} channel and receives all events, in ID
+ * order. An event is forwarded to the open connections of its recipients on this instance and kept in a ring
+ * buffer of the last {@code tasks.events.replay-size} events. A client reconnecting with a {@code Last-Event-ID}
+ * is first replayed the events it missed from that buffer; if they are no longer all there, it is sent a
+ * {@value #RESET_EVENT} event instead, telling it to reload its tasks.
+ * </p>
+ * <p>
+ * Event IDs are contiguous, so a missing ID means a message was lost, for instance while the listener container
+ * resubscribed. The buffer then restarts after the gap, and the open connections, which missed the event too,
+ * are sent a {@value #RESET_EVENT} event.
+ * </p>
+ * <p>
+ * Each connection buffers at most {@code tasks.events.buffer-size} events (see {@link TaskEventConnection}) and
+ * is sent a comment every {@code tasks.events.heartbeat-ms} milliseconds, which keeps proxies from closing an
+ * idle stream and detects clients that went away. The number of connections and of connections dropped for
+ * falling behind are published under {@code tasks.events}.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskEventStream implements MessageListener {
+
+    /**
+     * Name of the event telling a client that events were lost and it has to reload its tasks.
+     */
+    public static final String RESET_EVENT = "RESET";
+
+    private final RedisMessageListenerContainer listenerContainer;
+    private final TaskEventPublisher taskEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The number of recent events kept for clients resuming with a {@code Last-Event-ID}.
+     */
+    @Value("${tasks.events.replay-size:10000}")
+    private int replaySize;
+
+    /**
+     * The maximum number of events waiting to be sent on one connection before it is dropped.
+     */
+    @Value("${tasks.events.buffer-size:256}")
+    private int bufferSize;
+
+    /**
+     * How long a connection stays open before the client has to reconnect.
+     */
+    @Value("${tasks.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    /**
+     * The number of threads writing events to the connections.
+     */
+    @Value("${tasks.events.sender-threads:4}")
+    private int senderThreads;
+
+    private final Map<Long, Set<TaskEventConnection>> connections = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private ExecutorService sender;
+    private Counter overflows;
+
+    /**
+     * Recent events, oldest at {@code head}; guarded by {@code lock}, like the fields below.
+     */
+    private BufferedEvent[] events;
+    private int head;
+    private int size;
+
+    /**
+     * Every event after this ID is in the buffer; {@code -1} until the first event arrives.
+     */
+    private long coveredAfter = -1;
+
+    /**
+     * The ID of the last event received; {@code -1} until the first event arrives.
+     */
+    private long lastId = -1;
+
+    /**
+     * An event as received, with the JSON sent to the clients.
+     */
+    private record BufferedEvent(long id, long[] recipients, String type, String data) {
+
+        boolean isFor(long userId) {
+            for (long recipient : recipients) {
+                if (recipient == userId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Allocates the replay buffer, starts the senders, subscribes to the event channel and registers the metrics.
+     */
+    @PostConstruct
+    public void init() {
+        events = new BufferedEvent[replaySize];
+        CustomizableThreadCreator threadCreator = new CustomizableThreadCreator("task-events-sender-");
+        threadCreator.setDaemon(true);
+        sender = Executors.newFixedThreadPool(senderThreads, threadCreator::createThread);
+        overflows = meterRegistry.counter("tasks.events.overflows");
+        Gauge.builder("tasks.events.connections", connections,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .register(meterRegistry);
+        listenerContainer.addMessageListener(this, new ChannelTopic(TaskEventPublisher.CHANNEL));
+    }
+
+    /**
+     * Closes all connections on shutdown; clients reconnect to another instance.
+     */
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(set -> List.copyOf(set).forEach(TaskEventConnection::close));
+        sender.shutdownNow();
+    }
+
+    /**
+     * Opens a change feed for a user.
+     *
+     * @param userId The ID of the user.
+     * @param lastEventId The ID of the last event the client received, or {@code null} for a new feed.
+     * @return The emitter streaming the events.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        return subscribe(userId, lastEventId, new SseEmitter(timeoutMs));
+    }
+
+    /**
+     * Opens a change feed for a user on the given emitter.
+     *
+     * @param userId The ID of the user.
+     * @param lastEventId The ID of the last event the client received, or {@code null} for a new feed.
+     * @param emitter The emitter to stream the events to.
+     * @return The emitter.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId, SseEmitter emitter) {
+        TaskEventConnection connection = new TaskEventConnection(emitter, bufferSize, sender,
+                closed -> remove(userId, closed));
+        long latestPublished = lastEventId != null && coveredAfterUnknown() ? latestPublished() : -1;
+        synchronized (lock) {
+            if (lastEventId != null && !replay(userId, lastEventId, latestPublished, connection)) {
+                overflows.increment();
+                connection.close();
+                return emitter;
+            }
+            connections.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(connection);
+        }
+        return emitter;
+    }
+
+    /**
+     * Forwards an event broadcast by {@link TaskEventPublisher} to the connections of its recipients.
+     *
+     * @param message The Redis message: the event ID, a space, and the JSON envelope.
+     * @param pattern The channel pattern, unused.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        BufferedEvent event;
+        try {
+            int separator = body.indexOf(' ');
+            JsonNode envelope = objectMapper.readTree(body.substring(separator + 1));
+            JsonNode recipients = envelope.get("recipients");
+            long[] userIds = new long[recipients.size()];
+            for (int i = 0; i < userIds.length; i++) {
+                userIds[i] = recipients.get(i).asLong();
+            }
+            JsonNode change = envelope.get("event");
+            event = new BufferedEvent(Long.parseLong(body.substring(0, separator)), userIds,
+                    change.get("type").asText(), change.toString());
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Ignoring malformed task event " + body, e);
+            return;
+        }
+        synchronized (lock) {
+            if (!append(event)) {
+                log.warn("Task events lost before event " + event.id() + ", resetting all connections");
+                connections.values().forEach(userConnections -> userConnections.forEach(this::reset));
+            }
+            for (long userId : event.recipients()) {
+                Set<TaskEventConnection> userConnections = connections.get(userId);
+                if (userConnections != null) {
+                    userConnections.forEach(connection -> deliver(connection, event));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends a heartbeat comment on every connection.
+     */
+    @Scheduled(fixedDelayString = "${tasks.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<TaskEventConnection> userConnections : connections.values()) {
+            for (TaskEventConnection connection : userConnections) {
+                if (!connection.offer(SseEmitter.event().comment("heartbeat"))) {
+                    overflows.increment();
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues the events after the last one received, or a reset if some of them are no longer buffered.
+     *
+     * @return {@code false} if they did not fit the buffer of the connection.
+     */
+    private boolean replay(long userId, long lastEventId, long latestPublished, TaskEventConnection connection) {
+        boolean complete = coveredAfter >= 0 ? lastEventId >= coveredAfter : lastEventId >= latestPublished;
+        if (!complete) {
+            return connection.offer(resetEvent());
+        }
+        for (int i = 0; i < size; i++) {
+            BufferedEvent event = events[(head + i) % events.length];
+            if (event.id() > lastEventId && event.isFor(userId) && !connection.offer(toSse(event))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds an event to the buffer, restarting the buffer after it if the previous IDs are missing.
+     *
+     * @return {@code false} if events were missing.
+     */
+    private boolean append(BufferedEvent event) {
+        boolean contiguous = lastId < 0 || event.id() == lastId + 1;
+        if (!contiguous) {
+            Arrays.fill(events, null);
+            head = 0;
+            size = 0;
+        }
+        if (coveredAfter < 0 || !contiguous) {
+            coveredAfter = event.id() - 1;
+        }
+        lastId = event.id();
+        if (size == events.length) {
+            coveredAfter = events[head].id();
+            events[head] = event;
+            head = (head + 1) % events.length;
+        } else {
+            events[(head + size) % events.length] = event;
+            size++;
+        }
+        return contiguous;
+    }
+
+    private void deliver(TaskEventConnection connection, BufferedEvent event) {
+        if (!connection.offer(toSse(event))) {
+            overflows.increment();
+            connection.close();
+        }
+    }
+
+    private void reset(TaskEventConnection connection) {
+        if (!connection.offer(resetEvent())) {
+            overflows.increment();
+            connection.close();
+        }
+    }
+
+    private void remove(Long userId, TaskEventConnection connection) {
+        connections.computeIfPresent(userId, (id, set) -> {
+            set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private boolean coveredAfterUnknown() {
+        synchronized (lock) {
+            return coveredAfter < 0;
+        }
+    }
+
+    /**
+     * Reads the last event ID from Redis, needed only before this instance received any event.
+     */
+    private long latestPublished() {
+        try {
+            return taskEventPublisher.lastEventId();
+        } catch (DataAccessException e) {
+            log.warn("Could not read the last task event ID, resetting the client", e);
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder resetEvent() {
+        return SseEmitter.event().name(RESET_EVENT).data("{}", MediaType.APPLICATION_JSON);
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(BufferedEvent event) {
+        return SseEmitter.event()
+                .id(Long.toString(event.id()))
+                .name(event.type())
+                .data(event.data(), MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.TaskManagement.services;
+
+import com.example.TaskManagement.repositories.TaskExportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service class that exports all tasks a user authored or executes, with their comments, as NDJSON or CSV.
+ * <p>
+ * Rows go from the keyset chunks of {@link TaskExportRepository} straight to the output through a
+ * {@link TaskExportWriter}, optionally gzip-compressed, so the export of ten million tasks takes no more memory
+ * than the export of one chunk. Tasks are written in ascending ID order; an interrupted export is resumed by asking
+ * for the tasks after the ID of the last complete task received.
+ * </p>
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Service
+public class TaskExportService {
+
+    /**
+     * The output formats of an export.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        /**
+         * @return The media type of the uncompressed output.
+         */
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        /**
+         * @return The file name extension of the uncompressed output.
+         */
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Which tasks of the user are exported.
+     */
+    public enum Role {
+        AUTHOR,
+        EXECUTOR
+    }
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final TaskExportRepository taskExportRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * How long one export may run before the request is timed out.
+     */
+    @Value("${tasks.export.timeout-ms:3600000}")
+    private long timeoutMs;
+
+    /**
+     * @return How long one export may run, in milliseconds.
+     */
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    /**
+     * Writes an export to a stream.
+     *
+     * @param userId The ID of the user.
+     * @param role Whether the tasks the user authored or executes are exported.
+     * @param format The output format.
+     * @param gzip Whether the output is gzip-compressed.
+     * @param afterId Only tasks with a greater ID are exported; {@code 0} for all.
+     * @param output The stream to write to; it is not closed.
+     * @throws IOException If the output cannot be written, e.g. because the client went away.
+     */
+    public void export(Long userId, Role role, Format format, boolean gzip, long afterId, OutputStream output)
+            throws IOException {
+        log.info("Export tasks of user " + userId + " as " + role + " after task " + afterId);
+        long started = System.nanoTime();
+        OutputStream target = gzip ? new GZIPOutputStream(output, GZIP_BUFFER_SIZE) : output;
+        TaskExportWriter writer = format == Format.CSV
+                ? TaskExportWriter.csv(target)
+                : TaskExportWriter.ndjson(target, objectMapper);
+        if (role == Role.AUTHOR) {
+            taskExportRepository.exportAuthored(userId, afterId, writer);
+        } else {
+            taskExportRepository.exportExecuted(userId, afterId, writer);
+        }
+        writer.finish();
+        if (target instanceof GZIPOutputStream compressed) {
+            compressed.finish();
+        }
+        output.flush();
+        log.info("Exported tasks of user " + userId + " in " + (System.nanoTime() - started) / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.TaskManagement.services;
+
+import com.example.TaskManagement.model.CommentResponseDTO;
+import com.example.TaskManagement.model.TaskResponseDTO;
+import com.example.TaskManagement.repositories.TaskExportRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Writes the rows of an export as they arrive, holding nothing but the output buffer.
+ * <p>
+ * NDJSON carries one task per line, with its comments in a {@code comments} array; the field names are those
+ * read by the import, so an export can be imported again. As the comments of a task arrive after the task, the
+ * line of a task is closed when the next task starts or at the end. CSV carries a {@code type} column: a
+ * {@code task} row is followed by one {@code comment} row per comment, whose {@code taskId} names its task.
+ * </p>
+ */
+abstract class TaskExportWriter implements TaskExportRepository.Visitor {
+
+    static final String CSV_HEADER = "type,id,taskId,title,text,status,priority,authorName,executorName,createdAt,updatedAt";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Creates a writer of NDJSON.
+     *
+     * @param output The stream to write to.
+     * @param objectMapper The object mapper whose factory creates the generator.
+     * @return The writer.
+     * @throws IOException If the generator cannot be created.
+     */
+    static TaskExportWriter ndjson(OutputStream output, ObjectMapper objectMapper) throws IOException {
+        JsonGenerator json = objectMapper.getFactory()
+                .createGenerator(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE))
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return new TaskExportWriter() {
+            private boolean open;
+
+            @Override
+            public void task(TaskResponseDTO task) throws IOException {
+                closeTask();
+                json.writeStartObject();
+                json.writeNumberField("id", task.getId());
+                json.writeStringField("title", task.getTitle());
+                json.writeStringField("text", task.getText());
+                json.writeStringField("status", task.getStatus());
+                json.writeStringField("priority", task.getPriority());
+                json.writeStringField("authorName", task.getAuthorName());
+                json.writeStringField("executorName", task.getExecutorName());
+                json.writeStringField("createdAt", format(task.getCreatedAt()));
+                json.writeStringField("updatedAt", format(task.getUpdatedAt()));
+                json.writeArrayFieldStart("comments");
+                open = true;
+            }
+
+            @Override
+            public void comment(CommentResponseDTO comment, LocalDateTime createdAt) throws IOException {
+                json.writeStartObject();
+                json.writeNumberField("id", comment.getId());
+                json.writeStringField("authorName", comment.getAuthorName());
+                json.writeStringField("text", comment.getText());
+                json.writeStringField("createdAt", format(createdAt));
+                json.writeEndObject();
+            }
+
+            @Override
+            void finish() throws IOException {
+                closeTask();
+                json.close();
+            }
+
+            private void closeTask() throws IOException {
+                if (open) {
+                    json.writeEndArray();
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                    open = false;
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a writer of CSV, starting with the header.
+     *
+     * @param output The stream to write to.
+     * @return The writer.
+     * @throws IOException If the header cannot be written.
+     */
+    static TaskExportWriter csv(OutputStream output) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        csv.write(CSV_HEADER);
+        csv.write("\r\n");
+        return new TaskExportWriter() {
+            private Long taskId;
+
+            @Override
+            public void task(TaskResponseDTO task) throws IOException {
+                taskId = task.getId();
+                row("task", task.getId(), task.getId(), task.getTitle(), task.getText(), task.getStatus(),
+                        task.getPriority(), task.getAuthorName(), task.getExecutorName(), format(task.getCreatedAt()),
+                        format(task.getUpdatedAt()));
+            }
+
+            @Override
+            public void comment(CommentResponseDTO comment, LocalDateTime createdAt) throws IOException {
+                row("comment", comment.getId(), taskId, null, comment.getText(), null, null, comment.getAuthorName(),
+                        null, format(createdAt), null);
+            }
+
+            @Override
+            void finish() throws IOException {
+                csv.flush();
+            }
+
+            private void row(Object... fields) throws IOException {
+                for (int i = 0; i < fields.length; i++) {
+                    if (i > 0) {
+                        csv.write(',');
+                    }
+                    if (fields[i] != null) {
+                        csv.write(escape(fields[i].toString()));
+                    }
+                }
+                csv.write("\r\n");
+            }
+        };
+    }
+
+    /**
+     * Completes the output after the last row and flushes it.
+     *
+     * @throws IOException If the output cannot be written.
+     */
+    abstract void finish() throws IOException;
+
+    static String escape(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+
+    private static String format(LocalDateTime time) {
+        return time == null ? null : time.toString();
+    }
+}
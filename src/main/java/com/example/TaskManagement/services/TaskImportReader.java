@@ -0,0 +1,211 @@
+package com.example.TaskManagement.services;
+
+import com.example.TaskManagement.entity.PriorityTask;
+import com.example.TaskManagement.entity.StatusTask;
+import com.example.TaskManagement.model.TaskImportRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the rows of a task import one at a time from a character stream, so that an import of any size is
+ * parsed in constant memory.
+ * <p>
+ * NDJSON carries one {@link TaskImportRow} object per line, comments included. CSV starts with a header naming
+ * the columns, any of {@code title}, {@code text}, {@code status}, {@code priority}, {@code authorName} and
+ * {@code executorName} in any order, other columns being ignored; fields may be quoted as in RFC 4180, with
+ * commas, doubled quotes and line breaks inside quotes. CSV rows have no comments.
+ * </p>
+ */
+abstract class TaskImportReader {
+
+    protected final BufferedReader reader;
+    private long line;
+
+    private TaskImportReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Creates a reader of NDJSON.
+     *
+     * @param reader The character stream.
+     * @param rowReader The Jackson reader of {@link TaskImportRow}.
+     * @return The reader.
+     */
+    static TaskImportReader ndjson(BufferedReader reader, ObjectReader rowReader) {
+        return new TaskImportReader(reader) {
+            @Override
+            TaskImportRow read() throws IOException {
+                String json;
+                do {
+                    json = reader.readLine();
+                    nextLine();
+                    if (json == null) {
+                        return null;
+                    }
+                } while (json.isBlank());
+                try {
+                    return rowReader.readValue(json);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a reader of CSV with a header record.
+     *
+     * @param reader The character stream.
+     * @return The reader.
+     */
+    static TaskImportReader csv(BufferedReader reader) {
+        return new CsvReader(reader);
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return The row, or {@code null} at the end of the stream.
+     * @throws IllegalArgumentException If the row is malformed; reading may continue with the next row.
+     * @throws IOException If the stream cannot be read.
+     */
+    abstract TaskImportRow read() throws IOException;
+
+    /**
+     * @return The line number at which the row last read starts, from 1.
+     */
+    long line() {
+        return line;
+    }
+
+    protected void nextLine() {
+        line++;
+    }
+
+    protected void setLine(long line) {
+        this.line = line;
+    }
+
+    private static final class CsvReader extends TaskImportReader {
+
+        private Map<String, Integer> columns;
+        private long lines;
+
+        private CsvReader(BufferedReader reader) {
+            super(reader);
+        }
+
+        @Override
+        TaskImportRow read() throws IOException {
+            if (columns == null) {
+                List<String> header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+                columns = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    columns.put(header.get(i).strip().toLowerCase(Locale.ROOT), i);
+                }
+            }
+            List<String> fields;
+            do {
+                fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).isBlank());
+
+            TaskImportRow row = new TaskImportRow();
+            row.setTitle(field(fields, "title"));
+            row.setText(field(fields, "text"));
+            String status = field(fields, "status");
+            row.setStatus(status == null ? null : parse(StatusTask.class, status, "status"));
+            String priority = field(fields, "priority");
+            row.setPriority(priority == null ? null : parse(PriorityTask.class, priority, "priority"));
+            row.setAuthorName(field(fields, "authorname"));
+            row.setExecutorName(field(fields, "executorname"));
+            return row;
+        }
+
+        /**
+         * Reads one record, which may span several lines inside quotes.
+         *
+         * @return The fields of the record, or {@code null} at the end of the stream.
+         */
+        private List<String> readRecord() throws IOException {
+            setLine(lines + 1);
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        if (c == '\n') {
+                            lines++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    lines++;
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("unterminated quoted field");
+            }
+            if (!any) {
+                return null;
+            }
+            lines++;
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size() || fields.get(index).isBlank()) {
+                return null;
+            }
+            return fields.get(index);
+        }
+
+        private static <E extends Enum<E>> E parse(Class<E> type, String value, String name) {
+            try {
+                return Enum.valueOf(type, value.strip().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown " + name + " " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.TaskManagement.services;
+
+import com.example.TaskManagement.entity.PriorityTask;
+import com.example.TaskManagement.entity.RedisTask;
+import com.example.TaskManagement.entity.StatusTask;
+import com.example.TaskManagement.model.TaskChangeEvent;
+import com.example.TaskManagement.model.TaskChangeType;
+import com.example.TaskManagement.model.TaskImportReport;
+import com.example.TaskManagement.model.TaskImportRow;
+import com.example.TaskManagement.repositories.TaskImportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service class that imports tasks in bulk from NDJSON or CSV, as exported by other trackers.
+ * <p>
+ * The input is parsed one row at a time by {@link TaskImportReader} and written in batches of
+ * {@code tasks.import.batch-size} rows: the IDs of a batch are reserved from the pooled sequences with one query
+ * per table, the tasks and their comments are inserted with JDBC batches in one transaction by
+ * {@link TaskImportRepository}, and their IDs are broadcast to the typeahead indexes. The roles reach Redis through
+ * the task role outbox, filled by the same transaction, and every task is announced on the change feed of its
+ * author and executor once its batch is committed. Usernames are resolved through a cache kept for the
+ * duration of the import. Each batch is committed on its own, so rows imported before a failure stay imported.
+ * </p>
+ * <p>
+ * Invalid rows are skipped and reported with their line number. Progress and throughput are logged after every
+ * batch and counted in {@code tasks.import.rows}, tagged with the outcome.
+ * </p>
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Service
+public class TaskImportService {
+
+    /**
+     * The input formats of an import.
+     */
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private final TaskImportRepository taskImportRepository;
+    private final UserIdentityService userIdentityService;
+    private final TaskTypeaheadService taskTypeaheadService;
+    private final TaskEventPublisher taskEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The number of rows written per batch.
+     */
+    @Value("${tasks.import.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * The maximum number of row errors returned in the report; further errors are only counted.
+     */
+    @Value("${tasks.import.max-errors:100}")
+    private int maxErrors;
+
+    private Counter importedRows;
+    private Counter failedRows;
+
+    /**
+     * Registers the metrics.
+     */
+    @PostConstruct
+    public void init() {
+        importedRows = Counter.builder("tasks.import.rows").tag("outcome", "imported").register(meterRegistry);
+        failedRows = Counter.builder("tasks.import.rows").tag("outcome", "failed").register(meterRegistry);
+    }
+
+    /**
+     * Imports tasks from a stream.
+     *
+     * @param input The UTF-8 encoded input.
+     * @param format The format of the input.
+     * @return The report of the import.
+     * @throws IOException If the input cannot be read.
+     */
+    public TaskImportReport importTasks(InputStream input, Format format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        ObjectReader rowReader = objectMapper.readerFor(TaskImportRow.class);
+        TaskImportReader rows = format == Format.CSV
+                ? TaskImportReader.csv(reader)
+                : TaskImportReader.ndjson(reader, rowReader);
+        Import run = new Import();
+        log.info("Import tasks from " + format);
+
+        List<ImportedTask> batch = new ArrayList<>(batchSize);
+        while (true) {
+            TaskImportRow row;
+            try {
+                row = rows.read();
+            } catch (IllegalArgumentException e) {
+                run.rows++;
+                run.fail(rows.line(), e.getMessage());
+                continue;
+            }
+            if (row == null) {
+                break;
+            }
+            run.rows++;
+            try {
+                batch.add(resolve(row, run));
+            } catch (IllegalArgumentException e) {
+                run.fail(rows.line(), e.getMessage());
+                continue;
+            }
+            if (batch.size() == batchSize) {
+                write(batch, run);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch, run);
+        }
+
+        long elapsedMs = run.elapsedNanos() / 1_000_000;
+        log.info("Imported " + run.imported + " of " + run.rows + " rows with " + run.comments + " comments in "
+                + elapsedMs + " ms, " + Math.round(run.rowsPerSecond()) + " rows/s, " + run.failed + " failed");
+        return new TaskImportReport(run.rows, run.imported, run.comments, run.failed, run.errors, elapsedMs,
+                run.rowsPerSecond());
+    }
+
+    /**
+     * Validates a row and resolves its usernames.
+     *
+     * @throws IllegalArgumentException If the row is invalid.
+     */
+    private ImportedTask resolve(TaskImportRow row, Import run) {
+        if (row.getTitle() == null || row.getTitle().isBlank()) {
+            throw new IllegalArgumentException("title is required");
+        }
+        if (row.getTitle().length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("title is longer than " + MAX_TITLE_LENGTH + " characters");
+        }
+        if (row.getAuthorName() == null || row.getAuthorName().isBlank()) {
+            throw new IllegalArgumentException("authorName is required");
+        }
+        Long authorId = run.userId(row.getAuthorName())
+                .orElseThrow(() -> new IllegalArgumentException("unknown author " + row.getAuthorName()));
+        // like a task created through the API, an unknown executor leaves the task unassigned
+        Long executorId = row.getExecutorName() == null ? null : run.userId(row.getExecutorName()).orElse(null);
+
+        List<Long> commentAuthorIds = new ArrayList<>(row.getComments().size());
+        for (TaskImportRow.Comment comment : row.getComments()) {
+            if (comment.getText() == null || comment.getText().isBlank()) {
+                throw new IllegalArgumentException("comment text is required");
+            }
+            String commentAuthor = comment.getAuthorName() == null ? row.getAuthorName() : comment.getAuthorName();
+            commentAuthorIds.add(run.userId(commentAuthor)
+                    .orElseThrow(() -> new IllegalArgumentException("unknown comment author " + commentAuthor)));
+        }
+        return new ImportedTask(row, authorId, executorId, commentAuthorIds);
+    }
+
+    /**
+     * Writes a batch of valid rows.
+     */
+    private void write(List<ImportedTask> batch, Import run) {
+        int commentCount = batch.stream().mapToInt(task -> task.commentAuthorIds().size()).sum();
+        run.taskIds.ensure(batch.size());
+        run.commentIds.ensure(commentCount);
+
+        List<Object[]> tasks = new ArrayList<>(batch.size());
+        List<Object[]> comments = new ArrayList<>(commentCount);
+        List<RedisTask> roles = new ArrayList<>(batch.size());
+        for (ImportedTask task : batch) {
+            TaskImportRow row = task.row();
+            long taskId = run.taskIds.next();
+            StatusTask status = row.getStatus() == null ? StatusTask.WAITING : row.getStatus();
+            PriorityTask priority = row.getPriority() == null ? PriorityTask.MEDIUM : row.getPriority();
+            tasks.add(new Object[]{taskId, row.getTitle(), row.getText(), status.name(), priority.name(),
+                    task.authorId(), task.executorId()});
+            for (int i = 0; i < row.getComments().size(); i++) {
+                comments.add(new Object[]{run.commentIds.next(), row.getComments().get(i).getText(),
+                        task.commentAuthorIds().get(i), taskId});
+            }
+            roles.add(new RedisTask(taskId, task.authorId(), task.executorId()));
+        }
+
+        taskImportRepository.insert(tasks, comments);
+        taskTypeaheadService.tasksChanged(roles.stream().map(RedisTask::getId).toList());
+        for (int i = 0; i < batch.size(); i++) {
+            RedisTask role = roles.get(i);
+            TaskImportRow row = batch.get(i).row();
+            Object[] task = tasks.get(i);
+            taskEventPublisher.publish(TaskChangeEvent.builder()
+                    .type(TaskChangeType.TASK_CREATED)
+                    .taskId(role.getId())
+                    .title(row.getTitle())
+                    .status((String) task[3])
+                    .priority((String) task[4])
+                    .executorName(role.getExecutorId() == null ? null : row.getExecutorName())
+                    .build(), role.getAuthorId(), role.getExecutorId());
+        }
+
+        run.imported += batch.size();
+        run.comments += commentCount;
+        importedRows.increment(batch.size());
+        log.info("Imported " + run.imported + " tasks of " + run.rows + " rows read, "
+                + Math.round(run.rowsPerSecond()) + " rows/s");
+    }
+
+    /**
+     * A valid row with its usernames resolved.
+     */
+    private record ImportedTask(TaskImportRow row, Long authorId, Long executorId, List<Long> commentAuthorIds) {
+    }
+
+    /**
+     * The state of one import: counters, errors, the username cache and the reserved IDs.
+     */
+    private final class Import {
+        private final long started = System.nanoTime();
+        private final Map<String, Optional<Long>> userIds = new HashMap<>();
+        private final List<String> errors = new ArrayList<>();
+        private final IdPool taskIds = new IdPool(TaskImportRepository.TASK_SEQUENCE);
+        private final IdPool commentIds = new IdPool(TaskImportRepository.COMMENT_SEQUENCE);
+        private long rows;
+        private long imported;
+        private long comments;
+        private long failed;
+
+        Optional<Long> userId(String username) {
+            return userIds.computeIfAbsent(username, userIdentityService::findIdByUsername);
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            failedRows.increment();
+            if (errors.size() < maxErrors) {
+                errors.add("line " + line + ": " + message);
+            }
+        }
+
+        long elapsedNanos() {
+            return System.nanoTime() - started;
+        }
+
+        double rowsPerSecond() {
+            return rows * 1e9 / Math.max(1, elapsedNanos());
+        }
+    }
+
+    /**
+     * The IDs reserved from a pooled sequence and not used yet.
+     */
+    private final class IdPool {
+        private final String sequence;
+        private final List<Long> blocks = new ArrayList<>();
+        private int block;
+        private long next;
+        private long end;
+
+        IdPool(String sequence) {
+            this.sequence = sequence;
+        }
+
+        /**
+         * Reserves enough blocks, with one query, for the given number of IDs to be available.
+         */
+        void ensure(int count) {
+            long available = end - next + (long) (blocks.size() - block) * TaskImportRepository.ID_BLOCK_SIZE;
+            if (available < count) {
+                int missing = (int) ((count - available + TaskImportRepository.ID_BLOCK_SIZE - 1)
+                        / TaskImportRepository.ID_BLOCK_SIZE);
+                blocks.subList(0, block).clear();
+                block = 0;
+                blocks.addAll(taskImportRepository.reserveIdBlocks(sequence, missing));
+            }
+        }
+
+        long next() {
+            if (next == end) {
+                next = blocks.get(block++);
+                end = next + TaskImportRepository.ID_BLOCK_SIZE;
+            }
+            return next++;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.TaskManagement.services;
+
+import com.example.TaskManagement.exception.InvalidCursorException;
+import com.example.TaskManagement.exception.InvalidSearchException;
+import com.example.TaskManagement.model.CursorPage;
+import com.example.TaskManagement.model.KeysetCursor;
+import com.example.TaskManagement.model.TaskResponseDTO;
+import com.example.TaskManagement.model.TaskSearchHitDTO;
+import com.example.TaskManagement.model.TaskSearchRequest;
+import com.example.TaskManagement.model.TaskSortField;
+import com.example.TaskManagement.repositories.TaskReadRepository;
+import com.example.TaskManagement.repositories.TaskSearchQueryBuilder;
+import com.example.TaskManagement.repositories.TaskTextSearchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service class that handles filtered and sorted task searches, and full-text searches.
+ * Searches are anchored on an author or an executor and paginated with a {@link KeysetCursor} on
+ * {@code (sort column, id)}, so that every page is answered by an index range scan.
+ * Full-text searches are restricted to the tasks of the caller and paginated on {@code (rank, id)}.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Service
+public class TaskSearchService {
+    private final TaskReadRepository taskReadRepository;
+    private final TaskTextSearchRepository taskTextSearchRepository;
+    private final UserIdentityService userIdentityService;
+
+    /**
+     * Searches tasks.
+     *
+     * @param request The filters, the order and the page to return.
+     * @return The page of TaskResponseDTO objects and the cursor of the next page.
+     * @throws InvalidSearchException If neither an author nor an executor is given, or the order is unsupported.
+     * @throws InvalidCursorException If the cursor is malformed.
+     * @throws UsernameNotFoundException If the author or the executor cannot be found.
+     */
+    public CursorPage<TaskResponseDTO> search(TaskSearchRequest request) {
+        log.info("Search tasks");
+        TaskSortField sortField = TaskSortField.fromParameter(request.getSort());
+        boolean descending = descending(request.getDirection());
+        int pageSize = Math.max(1, Math.min(request.getSize(), TaskService.MAX_PAGE_SIZE));
+        KeysetCursor after = request.getCursor() == null || request.getCursor().isEmpty()
+                ? null
+                : KeysetCursor.decode(request.getCursor());
+
+        List<TaskResponseDTO> tasks = taskReadRepository.search(TaskSearchQueryBuilder.create()
+                .author(request.getAuthor() == null ? null : userIdentityService.getIdByUsername(request.getAuthor()))
+                .executor(request.getExecutor() == null ? null : userIdentityService.getIdByUsername(request.getExecutor()))
+                .status(request.getStatus())
+                .priority(request.getPriority())
+                .createdBetween(request.getCreatedFrom(), request.getCreatedTo())
+                .updatedBetween(request.getUpdatedFrom(), request.getUpdatedTo())
+                .orderBy(sortField, descending)
+                .after(after)
+                .limit(pageSize + 1)
+                .build());
+
+        boolean hasNext = tasks.size() > pageSize;
+        List<TaskResponseDTO> page = hasNext ? tasks.subList(0, pageSize) : tasks;
+        String nextCursor = null;
+        if (hasNext) {
+            TaskResponseDTO last = page.get(page.size() - 1);
+            LocalDateTime sortValue = sortField == TaskSortField.CREATED_AT ? last.getCreatedAt() : last.getUpdatedAt();
+            nextCursor = KeysetCursor.of(sortValue, last.getId()).encode();
+        }
+        return new CursorPage<>(page, nextCursor);
+    }
+
+    /**
+     * Searches the title, the text and the comments of the tasks a user authored or executes, best match first.
+     *
+     * @param userId The ID of the user.
+     * @param text The search text.
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @param size The number of results per page.
+     * @return The page of TaskSearchHitDTO objects and the cursor of the next page.
+     * @throws InvalidSearchException If the search text is blank.
+     * @throws InvalidCursorException If the cursor is malformed.
+     */
+    public CursorPage<TaskSearchHitDTO> searchText(Long userId, String text, String cursor, int size) {
+        log.info("Full-text search tasks of user " + userId);
+        if (text == null || text.isBlank()) {
+            throw new InvalidSearchException("A full-text search requires a search text");
+        }
+        int pageSize = Math.max(1, Math.min(size, TaskService.MAX_PAGE_SIZE));
+        KeysetCursor after = cursor == null || cursor.isEmpty() ? null : KeysetCursor.decode(cursor);
+
+        List<TaskSearchHitDTO> hits = taskTextSearchRepository.search(userId, text, after, pageSize + 1);
+
+        boolean hasNext = hits.size() > pageSize;
+        List<TaskSearchHitDTO> page = hasNext ? hits.subList(0, pageSize) : hits;
+        String nextCursor = hasNext ? TaskTextSearchRepository.cursorOf(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(page, nextCursor);
+    }
+
+    private static boolean descending(String direction) {
+        if ("desc".equalsIgnoreCase(direction)) {
+            return true;
+        }
+        if ("asc".equalsIgnoreCase(direction)) {
+            return false;
+        }
+        throw new InvalidSearchException("Unsupported sort direction: " + direction);
+    }
+}
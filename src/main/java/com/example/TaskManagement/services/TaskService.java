@@ -1,38 +1,57 @@
 package com.example.TaskManagement.services;
 
 import com.example.TaskManagement.entity.*;
+import com.example.TaskManagement.exception.InvalidCursorException;
 import com.example.TaskManagement.exception.TaskNotFoundException;
+import com.example.TaskManagement.exception.TaskVersionConflictException;
 import com.example.TaskManagement.mappers.TaskMapper;
+import com.example.TaskManagement.model.CursorPage;
+import com.example.TaskManagement.model.KeysetCursor;
+import com.example.TaskManagement.model.TaskChangeEvent;
+import com.example.TaskManagement.model.TaskChangeType;
 import com.example.TaskManagement.model.TaskRequestDTO;
 import com.example.TaskManagement.model.TaskResponseDTO;
+import com.example.TaskManagement.model.TaskRolesView;
+import com.example.TaskManagement.model.TaskVersion;
+import com.example.TaskManagement.repositories.TaskReadRepository;
 import com.example.TaskManagement.repositories.TaskRepository;
 import com.example.TaskManagement.repositories.UserRepository;
-import com.example.TaskManagement.securityRedis.RedisTaskRoleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 
 /**
  * Service class that handles the business logic for managing tasks.
  * It includes operations for creating, updating, retrieving, deleting, and manipulating tasks and their properties
- * such as status, priority, and executor. It interacts with repositories for tasks, users, and Redis for role management.
+ * such as status, priority, and executor. It interacts with repositories for tasks and users. Role changes reach Redis
+ * through the {@code task_role_outbox} table, written by a trigger in the same transaction, and
+ * {@link com.example.TaskManagement.securityRedis.TaskRoleOutboxRelay}; no write waits for Redis.
+ * Every change is announced to the author and the executor of the task through {@link TaskEventPublisher}.
+ * Tasks are read through the {@link TaskReadRepository} read model, so a page of tasks costs a constant number of queries.
  */
 @RequiredArgsConstructor
 @Slf4j
 @Service
 public class TaskService {
+
+    /**
+     * The largest page size served by the task list endpoints.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final TaskRepository taskRepository;
+    private final TaskReadRepository taskReadRepository;
     private final UserRepository userRepository;
-    private final RedisTaskRoleRepository redisTaskRoleRepository;
+    private final UserIdentityService userIdentityService;
     private final TaskMapper taskMapper;
+    private final TaskTypeaheadService taskTypeaheadService;
+    private final TaskEventPublisher taskEventPublisher;
 
     /**
      * Retrieves a task by its ID.
@@ -43,9 +62,21 @@ public class TaskService {
      */
     public TaskResponseDTO getById(Long id) {
         log.info("Get by task id " + id);
-        Task task = taskRepository.findById(id)
+        return taskReadRepository.findById(id)
+                .orElseThrow(() -> new TaskNotFoundException(id));
+    }
+
+    /**
+     * Computes the ETag of a task from its version alone, without loading the task or its comments.
+     *
+     * @param id The ID of the task.
+     * @return The ETag {@link #getById} would be returned with.
+     * @throws TaskNotFoundException If no task with the given ID exists.
+     */
+    public String getETag(Long id) {
+        return taskReadRepository.findVersion(id)
+                .map(TaskETags::of)
                 .orElseThrow(() -> new TaskNotFoundException(id));
-        return taskMapper.toDTO(task);
     }
 
     /**
@@ -56,21 +87,30 @@ public class TaskService {
      */
     public void create(TaskRequestDTO taskRequestDto) {
         log.info("Create task");
-        User author = userRepository.findByUsername(taskRequestDto.getAuthorName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        Long authorId = userIdentityService.getIdByUsername(taskRequestDto.getAuthorName());
         Task task = new Task();
-                taskMapper.toEntity(task,taskRequestDto,author);
-
-        Task savedTask = taskRepository.save(task);
+                taskMapper.toEntity(task,taskRequestDto,userRepository.getReferenceById(authorId));
 
         Long executorId = null;
         if (taskRequestDto.getExecutorName() != null) {
-            executorId = userRepository.findByUsername(taskRequestDto.getExecutorName())
-                    .map(User::getId)
+            executorId = userIdentityService.findIdByUsername(taskRequestDto.getExecutorName())
                     .orElse(null);
         }
+        if (executorId != null) {
+            task.setExecutor(userRepository.getReferenceById(executorId));
+        }
+
+        Task savedTask = taskRepository.save(task);
 
-        redisTaskRoleRepository.addTask(savedTask.getId(), author.getId(), executorId);
+        taskTypeaheadService.indexTask(savedTask.getId(), savedTask.getTitle(), authorId, executorId);
+        taskEventPublisher.publish(TaskChangeEvent.builder()
+                .type(TaskChangeType.TASK_CREATED)
+                .taskId(savedTask.getId())
+                .title(savedTask.getTitle())
+                .status(savedTask.getStatus().name())
+                .priority(savedTask.getPriority().name())
+                .executorName(executorId == null ? null : taskRequestDto.getExecutorName())
+                .build(), authorId, executorId);
     }
 
     /**
@@ -83,13 +123,23 @@ public class TaskService {
      */
     public void update(TaskRequestDTO taskRequestDTO, Long taskId) {
         log.info("Update task");
-        User author = userRepository.findByUsername(taskRequestDTO.getAuthorName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        Long authorId = userIdentityService.getIdByUsername(taskRequestDTO.getAuthorName());
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException(taskId));
-        taskMapper.toEntity(task,taskRequestDTO,author);
+        Long previousAuthorId = task.getAuthor() == null ? null : task.getAuthor().getId();
+        taskMapper.toEntity(task,taskRequestDTO,userRepository.getReferenceById(authorId));
 
         taskRepository.save(task);
+
+        Long executorId = task.getExecutor() == null ? null : task.getExecutor().getId();
+        taskTypeaheadService.indexTask(taskId, task.getTitle(), authorId, executorId);
+        taskEventPublisher.publish(TaskChangeEvent.builder()
+                .type(TaskChangeType.TASK_UPDATED)
+                .taskId(taskId)
+                .title(task.getTitle())
+                .status(task.getStatus().name())
+                .priority(task.getPriority().name())
+                .build(), authorId, executorId, previousAuthorId);
     }
 
     /**
@@ -99,121 +149,206 @@ public class TaskService {
      */
     public void deleteById(Long id) {
         log.info("Delete by task id " + id);
+        Optional<TaskRolesView> roles = taskRepository.findRolesById(id);
         taskRepository.deleteById(id);
+        taskTypeaheadService.removeTask(id);
+        roles.ifPresent(task -> taskEventPublisher.publish(TaskChangeEvent.builder()
+                .type(TaskChangeType.TASK_DELETED)
+                .taskId(id)
+                .build(), task.getAuthorId(), task.getExecutorId()));
     }
 
     /**
-     * Retrieves all tasks associated with a specific author, with pagination support.
+     * Retrieves one page of the tasks associated with a specific author, in ascending ID order.
      *
      * @param username The username of the author whose tasks are to be retrieved.
-     * @param page The page number.
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
      * @param size The number of tasks per page.
-     * @return A list of TaskResponseDTO objects containing task details.
+     * @return The page of TaskResponseDTO objects and the cursor of the next page.
      * @throws UsernameNotFoundException If the user with the given username cannot be found.
+     * @throws InvalidCursorException If the cursor is malformed.
      */
-    public List<TaskResponseDTO> getAllTasksAuthor(String username, int page, int size) {
+    public CursorPage<TaskResponseDTO> getAllTasksAuthor(String username, String cursor, int size) {
         log.info("Get all tasks for author");
-        Pageable pageable = PageRequest.of(page, size);
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        Page<Task> taskPage = taskRepository.findAllWithAuthor(user.getId(), pageable);
-
-        return taskPage.getContent()
-                .stream()
-                .map(taskMapper::toDTO)
-                .collect(Collectors.toList());
+        Long userId = userIdentityService.getIdByUsername(username);
+        int pageSize = pageSize(size);
+        List<TaskResponseDTO> tasks = taskReadRepository.findAllWithAuthor(userId, afterId(cursor), pageSize + 1);
+        return toPage(tasks, pageSize);
     }
 
     /**
-     * Retrieves all tasks assigned to a specific executor, with pagination support.
+     * Retrieves one page of the tasks assigned to a specific executor, in ascending ID order.
      *
      * @param username The username of the executor whose tasks are to be retrieved.
-     * @param page The page number.
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
      * @param size The number of tasks per page.
-     * @return A list of TaskResponseDTO objects containing task details.
+     * @return The page of TaskResponseDTO objects and the cursor of the next page.
      * @throws UsernameNotFoundException If the user with the given username cannot be found.
+     * @throws InvalidCursorException If the cursor is malformed.
      */
-    public List<TaskResponseDTO> getAllTasksExecutor(String username, int page, int size) {
+    public CursorPage<TaskResponseDTO> getAllTasksExecutor(String username, String cursor, int size) {
         log.info("Get all tasks for executor");
-        Pageable pageable = PageRequest.of(page, size);
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        Page<Task> taskPage = taskRepository.findAllWithExecutor(user.getId(), pageable);
+        Long userId = userIdentityService.getIdByUsername(username);
+        int pageSize = pageSize(size);
+        List<TaskResponseDTO> tasks = taskReadRepository.findAllWithExecutor(userId, afterId(cursor), pageSize + 1);
+        return toPage(tasks, pageSize);
+    }
 
-        return taskPage.getContent()
-                .stream()
-                .map(taskMapper::toDTO)
-                .collect(Collectors.toList());
+    /**
+     * Computes the ETag of a page of the tasks of an author from the versions of its tasks alone.
+     *
+     * @param username The username of the author.
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @param size The number of tasks per page.
+     * @return The ETag the same page of {@link #getAllTasksAuthor} would be returned with.
+     * @throws UsernameNotFoundException If the user with the given username cannot be found.
+     * @throws InvalidCursorException If the cursor is malformed.
+     */
+    public String getAllTasksAuthorETag(String username, String cursor, int size) {
+        Long userId = userIdentityService.getIdByUsername(username);
+        int pageSize = pageSize(size);
+        return pageETag(taskReadRepository.findVersionsWithAuthor(userId, afterId(cursor), pageSize + 1), pageSize);
     }
 
     /**
-     * Patches the status of a task to "IN_PROCESS".
+     * Computes the ETag of a page of the tasks of an executor from the versions of its tasks alone.
+     *
+     * @param username The username of the executor.
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @param size The number of tasks per page.
+     * @return The ETag the same page of {@link #getAllTasksExecutor} would be returned with.
+     * @throws UsernameNotFoundException If the user with the given username cannot be found.
+     * @throws InvalidCursorException If the cursor is malformed.
+     */
+    public String getAllTasksExecutorETag(String username, String cursor, int size) {
+        Long userId = userIdentityService.getIdByUsername(username);
+        int pageSize = pageSize(size);
+        return pageETag(taskReadRepository.findVersionsWithExecutor(userId, afterId(cursor), pageSize + 1), pageSize);
+    }
+
+    private static String pageETag(List<TaskVersion> versions, int pageSize) {
+        boolean hasNext = versions.size() > pageSize;
+        return TaskETags.ofVersions(hasNext ? versions.subList(0, pageSize) : versions, hasNext);
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private static long afterId(String cursor) {
+        return cursor == null || cursor.isEmpty() ? 0 : KeysetCursor.decode(cursor).getId();
+    }
+
+    /**
+     * Maps a page fetched with one extra row; the extra row only tells that a next page exists.
+     */
+    private static CursorPage<TaskResponseDTO> toPage(List<TaskResponseDTO> tasks, int pageSize) {
+        boolean hasNext = tasks.size() > pageSize;
+        List<TaskResponseDTO> page = hasNext ? tasks.subList(0, pageSize) : tasks;
+        String nextCursor = null;
+        if (hasNext) {
+            Long lastId = page.get(page.size() - 1).getId();
+            nextCursor = new KeysetCursor(lastId, lastId).encode();
+        }
+        return new CursorPage<>(page, nextCursor);
+    }
+
+    /**
+     * Patches the status of a task to "IN_PROCESS" with one statement, without loading the task.
      *
      * @param id The ID of the task to update.
+     * @param expectedVersion The version the task must be at, or {@code null} to update any version.
      * @throws TaskNotFoundException If the task with the given ID cannot be found.
+     * @throws TaskVersionConflictException If the task is no longer at the expected version.
      */
-    public void patchStatusTaskInProgress(Long id) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new TaskNotFoundException(id));
-        task.setStatus(StatusTask.IN_PROCESS);
-        taskRepository.save(task);
+    public void patchStatusTaskInProgress(Long id, Integer expectedVersion) {
+        requireUpdated(taskRepository.updateStatus(id, StatusTask.IN_PROCESS.name(), expectedVersion), id, expectedVersion);
+        announce(id, TaskChangeEvent.builder().type(TaskChangeType.STATUS_CHANGED).status(StatusTask.IN_PROCESS.name()));
     }
 
     /**
-     * Patches the status of a task to "COMPLETED".
+     * Patches the status of a task to "COMPLETED" with one statement, without loading the task.
      *
      * @param id The ID of the task to update.
+     * @param expectedVersion The version the task must be at, or {@code null} to update any version.
      * @throws TaskNotFoundException If the task with the given ID cannot be found.
+     * @throws TaskVersionConflictException If the task is no longer at the expected version.
      */
-    public void patchStatusTaskCompleted(Long id) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new TaskNotFoundException(id));
-        task.setStatus(StatusTask.COMPLETED);
-        taskRepository.save(task);
+    public void patchStatusTaskCompleted(Long id, Integer expectedVersion) {
+        requireUpdated(taskRepository.updateStatus(id, StatusTask.COMPLETED.name(), expectedVersion), id, expectedVersion);
+        announce(id, TaskChangeEvent.builder().type(TaskChangeType.STATUS_CHANGED).status(StatusTask.COMPLETED.name()));
     }
 
     /**
-     * Patches the priority of a task to "LOW".
+     * Patches the priority of a task to "LOW" with one statement, without loading the task.
      *
      * @param id The ID of the task to update.
+     * @param expectedVersion The version the task must be at, or {@code null} to update any version.
      * @throws TaskNotFoundException If the task with the given ID cannot be found.
+     * @throws TaskVersionConflictException If the task is no longer at the expected version.
      */
-    public void patchPriorityTaskLow(Long id) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new TaskNotFoundException(id));
-        task.setPriority(PriorityTask.LOW);
-        taskRepository.save(task);
+    public void patchPriorityTaskLow(Long id, Integer expectedVersion) {
+        requireUpdated(taskRepository.updatePriority(id, PriorityTask.LOW.name(), expectedVersion), id, expectedVersion);
+        announce(id, TaskChangeEvent.builder().type(TaskChangeType.PRIORITY_CHANGED).priority(PriorityTask.LOW.name()));
     }
 
     /**
-     * Patches the priority of a task to "HIGH".
+     * Patches the priority of a task to "HIGH" with one statement, without loading the task.
      *
      * @param id The ID of the task to update.
+     * @param expectedVersion The version the task must be at, or {@code null} to update any version.
      * @throws TaskNotFoundException If the task with the given ID cannot be found.
+     * @throws TaskVersionConflictException If the task is no longer at the expected version.
      */
-    public void patchPriorityTaskHigh(Long id) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new TaskNotFoundException(id));
-        task.setPriority(PriorityTask.HIGH);
-        taskRepository.save(task);
+    public void patchPriorityTaskHigh(Long id, Integer expectedVersion) {
+        requireUpdated(taskRepository.updatePriority(id, PriorityTask.HIGH.name(), expectedVersion), id, expectedVersion);
+        announce(id, TaskChangeEvent.builder().type(TaskChangeType.PRIORITY_CHANGED).priority(PriorityTask.HIGH.name()));
     }
 
     /**
-     * Updates the executor of a task.
+     * Updates the executor of a task with one statement, without loading the task.
      *
      * @param taskId The ID of the task to update.
      * @param executorName The username of the new executor.
+     * @param expectedVersion The version the task must be at, or {@code null} to update any version.
      * @throws TaskNotFoundException If the task with the given ID cannot be found.
+     * @throws TaskVersionConflictException If the task is no longer at the expected version.
      * @throws UsernameNotFoundException If the executor user cannot be found.
      */
-    public void updateExecutor(Long taskId, String executorName) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException(taskId));
-        User executor = userRepository.findByUsername(executorName)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        task.setExecutor(executor);
-        taskRepository.save(task);
-        redisTaskRoleRepository.updateExecutor(taskId, executor.getId());
+    public void updateExecutor(Long taskId, String executorName, Integer expectedVersion) {
+        Long executorId = userIdentityService.getIdByUsername(executorName);
+        Long previousExecutorId = taskRepository.findRolesById(taskId).map(TaskRolesView::getExecutorId).orElse(null);
+        requireUpdated(taskRepository.updateExecutor(taskId, executorId, expectedVersion), taskId, expectedVersion);
+        taskTypeaheadService.updateExecutor(taskId, executorId);
+        announce(taskId, TaskChangeEvent.builder().type(TaskChangeType.EXECUTOR_CHANGED).executorName(executorName),
+                previousExecutorId);
+    }
+
+    /**
+     * Announces a change made with a single statement to the author and the executor of the task, read with
+     * one primary key lookup after the change, and to any other users given.
+     */
+    private void announce(Long taskId, TaskChangeEvent.TaskChangeEventBuilder event, Long... otherRecipients) {
+        taskRepository.findRolesById(taskId).ifPresent(roles -> {
+            Long[] recipients = Arrays.copyOf(otherRecipients, otherRecipients.length + 2);
+            recipients[otherRecipients.length] = roles.getAuthorId();
+            recipients[otherRecipients.length + 1] = roles.getExecutorId();
+            taskEventPublisher.publish(event.taskId(taskId).build(), recipients);
+        });
+    }
+
+    /**
+     * Turns an update that matched no row into the matching exception: a version conflict if the task exists
+     * and a version was expected, not found otherwise.
+     */
+    private void requireUpdated(int updatedRows, Long id, Integer expectedVersion) {
+        if (updatedRows > 0) {
+            return;
+        }
+        if (expectedVersion != null && taskRepository.existsById(id)) {
+            throw new TaskVersionConflictException(id, expectedVersion);
+        }
+        throw new TaskNotFoundException(id);
     }
 
 }
\ No newline at end of file
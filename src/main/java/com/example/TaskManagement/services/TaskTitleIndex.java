@@ -0,0 +1,416 @@
+package com.example.TaskManagement.services;
+
+import com.example.TaskManagement.model.TaskTitleSuggestionDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe in-memory trigram index over task titles, scoped by user, for case-insensitive substring
+ * autocomplete.
+ * <p>
+ * Every task occupies a slot of parallel primitive arrays. The slot is appended to one posting list per distinct
+ * trigram of its title, and to the list of each of its users, its author and its executor. All lists are plain
+ * {@code int[]} arrays in slot order, so newer tasks come last, and are found through open-addressing tables of
+ * primitive arrays; nothing is boxed.
+ * </p>
+ * <p>
+ * A query scans, newest first, the shorter of the user's list and the shortest posting list of its trigrams,
+ * keeping the slots of that user whose title contains the query; titles starting with the query are returned
+ * before other matches. Removing or changing a task only frees its slot, which every scan skips; freed slots are
+ * reclaimed by rebuilding the index once they outnumber the live ones. Reads share a read lock of a
+ * {@link StampedLock}; writes take its write lock.
+ * </p>
+ * <p>
+ * Task and user IDs must be positive; {@code 0} marks "no executor".
+ * </p>
+ */
+final class TaskTitleIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_RECLAIMED_SLOTS = 1024;
+
+    /**
+     * Rough per-title overhead of a {@link String} and its backing array, in bytes.
+     */
+    private static final int STRING_OVERHEAD = 40;
+
+    private final StampedLock lock = new StampedLock();
+
+    private long[] taskIds;
+    private long[] authors;
+    private long[] executors;
+    private String[] titles;
+    private int slotCount;
+    private int size;
+    private long titleChars;
+
+    private LongIntTable slotsByTask;
+    private LongIntTable listsByGram;
+    private LongIntTable listsByUser;
+    private int[][] lists;
+    private int[] listSizes;
+    private int listCount;
+    private long listBytes;
+
+    TaskTitleIndex() {
+        reset();
+    }
+
+    /**
+     * Adds a task or replaces its title and users.
+     *
+     * @param taskId     the task ID
+     * @param title      the title
+     * @param authorId   the author ID
+     * @param executorId the executor ID, or {@code 0} if the task has no executor
+     */
+    void put(long taskId, String title, long authorId, long executorId) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotsByTask.get(taskId);
+            if (slot >= 0) {
+                if (authors[slot] == authorId && executors[slot] == executorId && titles[slot].equals(title)) {
+                    return;
+                }
+                free(slot);
+            }
+            add(taskId, title, authorId, executorId);
+            reclaimIfSparse();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Replaces the executor of a task, if present, keeping its title and author.
+     *
+     * @param taskId     the task ID
+     * @param executorId the new executor ID
+     */
+    void reassign(long taskId, long executorId) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotsByTask.get(taskId);
+            if (slot >= 0 && executors[slot] != executorId) {
+                String title = titles[slot];
+                long authorId = authors[slot];
+                free(slot);
+                add(taskId, title, authorId, executorId);
+                reclaimIfSparse();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes a task, if present.
+     *
+     * @param taskId the task ID
+     */
+    void remove(long taskId) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotsByTask.get(taskId);
+            if (slot >= 0) {
+                free(slot);
+                reclaimIfSparse();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Finds the tasks of a user whose title contains the query, ignoring case: titles starting with the query
+     * first, newest first within each group.
+     *
+     * @param userId the ID of the author or executor
+     * @param query  the typed text
+     * @param limit  the maximum number of suggestions
+     * @return the suggestions
+     */
+    List<TaskTitleSuggestionDTO> search(long userId, String query, int limit) {
+        long stamp = lock.readLock();
+        try {
+            int list = listsByUser.get(userId);
+            if (list < 0) {
+                return List.of();
+            }
+            boolean ownList = true;
+            for (long gram : grams(query)) {
+                int posting = listsByGram.get(gram);
+                if (posting < 0) {
+                    return List.of();
+                }
+                if (listSizes[posting] < listSizes[list]) {
+                    list = posting;
+                    ownList = false;
+                }
+            }
+
+            int[] slots = lists[list];
+            List<TaskTitleSuggestionDTO> prefixMatches = new ArrayList<>(limit);
+            List<TaskTitleSuggestionDTO> otherMatches = new ArrayList<>(limit);
+            for (int i = listSizes[list] - 1; i >= 0 && prefixMatches.size() < limit; i--) {
+                int slot = slots[i];
+                String title = titles[slot];
+                if (title == null || !ownList && authors[slot] != userId && executors[slot] != userId) {
+                    continue;
+                }
+                if (title.regionMatches(true, 0, query, 0, query.length())) {
+                    prefixMatches.add(new TaskTitleSuggestionDTO(taskIds[slot], title));
+                } else if (otherMatches.size() < limit && containsIgnoreCase(title, query)) {
+                    otherMatches.add(new TaskTitleSuggestionDTO(taskIds[slot], title));
+                }
+            }
+            for (int i = 0; i < otherMatches.size() && prefixMatches.size() < limit; i++) {
+                prefixMatches.add(otherMatches.get(i));
+            }
+            return prefixMatches;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of indexed tasks.
+     *
+     * @return the number of tasks
+     */
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Estimates the memory held by the index: the slot arrays, the titles, the key tables and the lists.
+     *
+     * @return the estimated size in bytes
+     */
+    long sizeInBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) taskIds.length * (3 * Long.BYTES + Integer.BYTES)
+                    + (long) size * STRING_OVERHEAD + titleChars * Character.BYTES
+                    + slotsByTask.sizeInBytes() + listsByGram.sizeInBytes() + listsByUser.sizeInBytes()
+                    + (long) lists.length * (Long.BYTES + Integer.BYTES) + listBytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void reset() {
+        taskIds = new long[INITIAL_CAPACITY];
+        authors = new long[INITIAL_CAPACITY];
+        executors = new long[INITIAL_CAPACITY];
+        titles = new String[INITIAL_CAPACITY];
+        slotCount = 0;
+        size = 0;
+        titleChars = 0;
+        slotsByTask = new LongIntTable(INITIAL_CAPACITY);
+        listsByGram = new LongIntTable(INITIAL_CAPACITY);
+        listsByUser = new LongIntTable(INITIAL_CAPACITY);
+        lists = new int[INITIAL_CAPACITY][];
+        listSizes = new int[INITIAL_CAPACITY];
+        listCount = 0;
+        listBytes = 0;
+    }
+
+    private void add(long taskId, String title, long authorId, long executorId) {
+        if (slotCount == taskIds.length) {
+            int capacity = grow(slotCount);
+            taskIds = Arrays.copyOf(taskIds, capacity);
+            authors = Arrays.copyOf(authors, capacity);
+            executors = Arrays.copyOf(executors, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+        }
+        int slot = slotCount++;
+        taskIds[slot] = taskId;
+        authors[slot] = authorId;
+        executors[slot] = executorId;
+        titles[slot] = title;
+        size++;
+        titleChars += title.length();
+        slotsByTask.put(taskId, slot);
+
+        for (long gram : grams(title)) {
+            append(listsByGram, gram, slot);
+        }
+        append(listsByUser, authorId, slot);
+        if (executorId != 0 && executorId != authorId) {
+            append(listsByUser, executorId, slot);
+        }
+    }
+
+    private void free(int slot) {
+        slotsByTask.put(taskIds[slot], -1);
+        size--;
+        titleChars -= titles[slot].length();
+        titles[slot] = null;
+    }
+
+    private void append(LongIntTable table, long key, int slot) {
+        int list = table.get(key);
+        if (list < 0) {
+            if (listCount == lists.length) {
+                int capacity = grow(listCount);
+                lists = Arrays.copyOf(lists, capacity);
+                listSizes = Arrays.copyOf(listSizes, capacity);
+            }
+            list = listCount++;
+            lists[list] = new int[2];
+            listBytes += 16 + 2 * Integer.BYTES;
+            table.put(key, list);
+        }
+        int[] slots = lists[list];
+        if (listSizes[list] == slots.length) {
+            int capacity = grow(slots.length);
+            listBytes += (long) (capacity - slots.length) * Integer.BYTES;
+            slots = Arrays.copyOf(slots, capacity);
+            lists[list] = slots;
+        }
+        slots[listSizes[list]++] = slot;
+    }
+
+    /**
+     * Rebuilds the index from its live tasks once freed slots outnumber them.
+     */
+    private void reclaimIfSparse() {
+        int freed = slotCount - size;
+        if (freed < MIN_RECLAIMED_SLOTS || freed < size) {
+            return;
+        }
+        long[] liveTaskIds = taskIds;
+        long[] liveAuthors = authors;
+        long[] liveExecutors = executors;
+        String[] liveTitles = titles;
+        int liveSlots = slotCount;
+        reset();
+        for (int slot = 0; slot < liveSlots; slot++) {
+            if (liveTitles[slot] != null) {
+                add(liveTaskIds[slot], liveTitles[slot], liveAuthors[slot], liveExecutors[slot]);
+            }
+        }
+    }
+
+    private static int grow(int capacity) {
+        return Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1));
+    }
+
+    /**
+     * Returns the distinct trigrams of a text, lower-cased, each packed into a long with bit 48 set.
+     */
+    private static long[] grams(String text) {
+        int count = text.length() - 2;
+        if (count <= 0) {
+            return new long[0];
+        }
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = 1L << 48
+                    | (long) Character.toLowerCase(text.charAt(i)) << 32
+                    | (long) Character.toLowerCase(text.charAt(i + 1)) << 16
+                    | Character.toLowerCase(text.charAt(i + 2));
+        }
+        Arrays.sort(grams);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == count ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    private static boolean containsIgnoreCase(String title, String query) {
+        for (int i = 0, last = title.length() - query.length(); i <= last; i++) {
+            if (title.regionMatches(true, i, query, 0, query.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Open-addressing table from a positive long to an int, with linear probing; {@code 0} marks an empty slot.
+     * Entries are never removed, only overwritten; the index is rebuilt instead.
+     */
+    private static final class LongIntTable {
+
+        private long[] keys;
+        private int[] values;
+        private int mask;
+        private int size;
+
+        LongIntTable(int capacity) {
+            keys = new long[capacity];
+            values = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        int get(long key) {
+            for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+                if (keys[slot] == 0) {
+                    return -1;
+                }
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+                if (keys[slot] == 0) {
+                    keys[slot] = key;
+                    values[slot] = value;
+                    if (++size * 2 > keys.length) {
+                        resize();
+                    }
+                    return;
+                }
+                if (keys[slot] == key) {
+                    values[slot] = value;
+                    return;
+                }
+            }
+        }
+
+        long sizeInBytes() {
+            return (long) keys.length * (Long.BYTES + Integer.BYTES);
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = hash(oldKeys[i]) & mask;
+                    while (keys[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            return (int) (h ^ h >>> 33);
+        }
+    }
+}
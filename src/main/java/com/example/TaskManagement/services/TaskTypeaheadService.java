@@ -0,0 +1,228 @@
+package com.example.TaskManagement.services;
+
+import com.example.TaskManagement.model.TaskTitleSuggestionDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service class answering task title autocomplete from a {@link TaskTitleIndex} held by this instance.
+ * <p>
+ * The index is built at startup by streaming the {@code tasks} table in keyset chunks. Every create, update and
+ * delete is applied to the index of the instance that made it and broadcast, as task IDs, on the
+ * {@value #CHANNEL} Redis channel; every application instance re-reads those tasks from the {@code tasks} table
+ * and updates or removes their entries. Re-reads and build chunks are applied under one lock, so an entry read
+ * earlier never overwrites one read later. The lookup latency
+ * ({@code tasks.typeahead.lookup}, with its 99th percentile), the number of titles and the estimated memory,
+ * in total and per million titles, are published under {@code tasks.typeahead}.
+ * </p>
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Service
+public class TaskTypeaheadService implements MessageListener {
+
+    /**
+     * Redis channel on which the IDs of changed tasks are broadcast to all application instances.
+     */
+    public static final String CHANNEL = "task-title-index";
+
+    /**
+     * The maximum number of suggestions returned for one query.
+     */
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final String SELECT_CHUNK =
+            "SELECT id, title, author_id, executor_id FROM tasks WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_TASKS =
+            "SELECT id, title, author_id, executor_id FROM tasks WHERE id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The number of tasks read per chunk while building the index.
+     */
+    @Value("${tasks.typeahead.chunk-size:5000}")
+    private int chunkSize;
+
+    private final TaskTitleIndex index = new TaskTitleIndex();
+    private final Object applyLock = new Object();
+    private Timer lookups;
+
+    /**
+     * Subscribes to the change channel and registers the metrics.
+     */
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        lookups = Timer.builder("tasks.typeahead.lookup")
+                .publishPercentiles(0.99)
+                .register(meterRegistry);
+        Gauge.builder("tasks.typeahead.titles", index, TaskTitleIndex::size).register(meterRegistry);
+        Gauge.builder("tasks.typeahead.memory", index, TaskTitleIndex::sizeInBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("tasks.typeahead.memory.per-million-titles", index, TaskTypeaheadService::bytesPerMillionTitles)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Builds the index from the {@code tasks} table once the application is ready. Each chunk is read and added
+     * under the lock of the broadcast re-reads, so a task changed while the index is being built ends up with the
+     * entry read last, whether that is the chunk row or the re-read.
+     */
+    @Order(2)
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.nanoTime();
+        long[] lastId = {0};
+        int read;
+        do {
+            int[] rows = {0};
+            synchronized (applyLock) {
+                jdbcTemplate.query(SELECT_CHUNK, rs -> {
+                    lastId[0] = rs.getLong("id");
+                    index.put(lastId[0], rs.getString("title"), rs.getLong("author_id"), rs.getLong("executor_id"));
+                    rows[0]++;
+                }, lastId[0], chunkSize);
+            }
+            read = rows[0];
+        } while (read == chunkSize);
+        log.info("Built the title typeahead index of " + index.size() + " tasks in "
+                + (System.nanoTime() - started) / 1_000_000 + " ms, about " + index.sizeInBytes() / 1024 + " KiB");
+    }
+
+    /**
+     * Suggests the tasks of a user whose title contains the typed text, ignoring case; titles starting with it
+     * come first.
+     *
+     * @param userId The ID of the user, matched as author or executor.
+     * @param query The typed text.
+     * @param limit The maximum number of suggestions, capped at {@value #MAX_SUGGESTIONS}.
+     * @return The suggestions.
+     */
+    public List<TaskTitleSuggestionDTO> suggest(Long userId, String query, int limit) {
+        int capped = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        String text = query == null ? "" : query.strip();
+        return lookups.record(() -> index.search(userId, text, capped));
+    }
+
+    /**
+     * Adds a task to the index or updates its entry, here and on all other application instances.
+     *
+     * @param taskId The ID of the task.
+     * @param title The title of the task.
+     * @param authorId The ID of the author.
+     * @param executorId The ID of the executor, or {@code null} if the task has no executor.
+     */
+    public void indexTask(Long taskId, String title, Long authorId, Long executorId) {
+        index.put(taskId, title == null ? "" : title, authorId, executorId == null ? 0 : executorId);
+        broadcast(List.of(taskId));
+    }
+
+    /**
+     * Moves a task to a new executor in the index, here and on all other application instances.
+     *
+     * @param taskId The ID of the task.
+     * @param executorId The ID of the new executor.
+     */
+    public void updateExecutor(Long taskId, Long executorId) {
+        index.reassign(taskId, executorId);
+        broadcast(List.of(taskId));
+    }
+
+    /**
+     * Removes a task from the index, here and on all other application instances.
+     *
+     * @param taskId The ID of the task.
+     */
+    public void removeTask(Long taskId) {
+        index.remove(taskId);
+        broadcast(List.of(taskId));
+    }
+
+    /**
+     * Announces tasks created, changed or deleted in bulk; every application instance, this one included,
+     * re-reads them from the {@code tasks} table. Must be called after the change has been committed.
+     *
+     * @param taskIds The IDs of the tasks.
+     */
+    public void tasksChanged(Collection<Long> taskIds) {
+        if (!taskIds.isEmpty()) {
+            broadcast(taskIds);
+        }
+    }
+
+    /**
+     * Re-reads the tasks whose IDs were broadcast by any instance: tasks found are indexed again, the others
+     * removed.
+     *
+     * @param message The Redis message carrying the comma-separated task IDs.
+     * @param pattern The channel pattern, unused.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        Long[] taskIds = Arrays.stream(body.split(",")).map(Long::valueOf).toArray(Long[]::new);
+        try {
+            reread(taskIds);
+        } catch (DataAccessException e) {
+            log.warn("Could not re-read " + taskIds.length + " changed tasks for the title typeahead index", e);
+        }
+    }
+
+    private void reread(Long[] taskIds) {
+        synchronized (applyLock) {
+            Set<Long> missing = new HashSet<>(Arrays.asList(taskIds));
+            jdbcTemplate.query(SELECT_TASKS, rs -> {
+                long taskId = rs.getLong("id");
+                missing.remove(taskId);
+                index.put(taskId, rs.getString("title"), rs.getLong("author_id"), rs.getLong("executor_id"));
+            }, (Object) taskIds);
+            for (Long taskId : missing) {
+                index.remove(taskId);
+            }
+        }
+    }
+
+    private void broadcast(Collection<Long> taskIds) {
+        String message = taskIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (DataAccessException e) {
+            log.warn("Could not broadcast the change of tasks " + message + " to the title typeahead indexes", e);
+        }
+    }
+
+    private static double bytesPerMillionTitles(TaskTitleIndex index) {
+        int size = index.size();
+        return size == 0 ? 0 : (double) index.sizeInBytes() / size * 1_000_000;
+    }
+}
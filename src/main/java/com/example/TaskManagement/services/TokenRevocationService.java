@@ -0,0 +1,259 @@
+package com.example.TaskManagement.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CustomizableThreadCreator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class responsible for the token revocation list.
+ * <p>
+ * Revoked token IDs ({@code jti}) are stored in Redis until the token would have expired anyway. Every
+ * application instance mirrors the list into a local {@link BloomFilter}, rebuilt periodically from Redis
+ * and updated immediately through a pub/sub channel, so that checking a token only goes to Redis when the
+ * filter reports a probable hit. {@link #revoke Revoking} a token updates the local filter synchronously and
+ * Redis asynchronously, so the caller does not wait for Redis.
+ * </p>
+ * <p>
+ * A token that may be used only once, like a refresh token, is instead {@link #claim claimed}: revoked with one
+ * atomic {@code SET NX} in Redis, which only one of several concurrent uses can win.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService implements MessageListener {
+
+    /**
+     * Redis channel on which revoked token IDs are broadcast to all application instances.
+     */
+    public static final String REVOCATION_CHANNEL = "token-revocations";
+
+    private static final String KEY_PREFIX = "revoked-token:";
+    private static final String INDEX_KEY = "revoked-tokens";
+    private static final int REBUILD_PAGE_SIZE = 10_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The number of simultaneously revoked, unexpired tokens the Bloom filter is sized for at minimum.
+     */
+    @Value("${token.revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+
+    /**
+     * The false positive probability of the Bloom filter, i.e. the share of valid tokens checked against Redis.
+     */
+    @Value("${token.revocation.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    private volatile BloomFilter filter;
+    private BloomFilter building;
+    private ThreadPoolExecutor writer;
+    private Counter redisChecks;
+
+    /**
+     * Creates an empty filter, subscribes to the revocation channel and loads the current list from Redis.
+     */
+    @PostConstruct
+    public void init() {
+        filter = BloomFilter.create(expectedRevocations, falsePositiveProbability);
+        CustomizableThreadCreator threadCreator = new CustomizableThreadCreator("token-revocation-");
+        threadCreator.setDaemon(true);
+        writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(10_000), threadCreator::createThread, new ThreadPoolExecutor.CallerRunsPolicy());
+        redisChecks = Counter.builder("token.revocation.redis-checks")
+                .description("Token checks that hit the Bloom filter and had to be confirmed in Redis")
+                .register(meterRegistry);
+        Gauge.builder("token.revocation.bloom-filter.bytes", this, service -> service.filter.sizeInBytes())
+                .register(meterRegistry);
+        listenerContainer.addMessageListener(this, new ChannelTopic(REVOCATION_CHANNEL));
+        rebuild();
+    }
+
+    /**
+     * Stops the background Redis writer, letting queued revocations finish.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Checks whether the token with the given ID has been revoked.
+     * Only tokens reported by the local Bloom filter as probably revoked are confirmed in Redis.
+     * If Redis cannot be reached for the confirmation, the token is treated as revoked.
+     *
+     * @param tokenId The ID ({@code jti}) of the token.
+     * @return {@code true} if the token has been revoked, {@code false} otherwise.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        redisChecks.increment();
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + tokenId));
+        } catch (DataAccessException e) {
+            log.warn("Could not confirm revocation of token " + tokenId + ", rejecting it", e);
+            return true;
+        }
+    }
+
+    /**
+     * Revokes the token with the given ID until it expires. The local filter is updated at once;
+     * Redis and the other application instances are updated in the background.
+     *
+     * @param tokenId   The ID ({@code jti}) of the token.
+     * @param expiresAt The expiration time of the token.
+     */
+    public void revoke(String tokenId, Date expiresAt) {
+        if (tokenId == null || expiresAt == null || expiresAt.before(new Date())) {
+            return;
+        }
+        addLocally(tokenId);
+        writer.execute(() -> store(tokenId, expiresAt.getTime()));
+    }
+
+    /**
+     * Revokes the token with the given ID until it expires, unless it was revoked already. The check and the
+     * revocation are one atomic Redis command, so of concurrent claims of the same token only one succeeds.
+     * The index, the local filter and the other application instances are updated as for {@link #revoke}.
+     *
+     * @param tokenId   The ID ({@code jti}) of the token.
+     * @param expiresAt The expiration time of the token.
+     * @return {@code true} if this call revoked the token, {@code false} if it was already revoked or has expired.
+     * @throws DataAccessException if Redis cannot be reached.
+     */
+    public boolean claim(String tokenId, Date expiresAt) {
+        if (tokenId == null || expiresAt == null) {
+            return false;
+        }
+        long expiresAtMillis = expiresAt.getTime();
+        long ttlMillis = expiresAtMillis - System.currentTimeMillis();
+        if (ttlMillis <= 0) {
+            return false;
+        }
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(KEY_PREFIX + tokenId, "1", Duration.ofMillis(ttlMillis)))) {
+            return false;
+        }
+        addLocally(tokenId);
+        writer.execute(() -> index(tokenId, expiresAtMillis));
+        return true;
+    }
+
+    /**
+     * Rebuilds the local Bloom filter from the revocation list in Redis, dropping expired revocations.
+     * Runs at startup and then every {@code token.revocation.bloom-rebuild-ms}.
+     */
+    @Scheduled(fixedDelayString = "${token.revocation.bloom-rebuild-ms:30000}",
+            initialDelayString = "${token.revocation.bloom-rebuild-ms:30000}")
+    public void rebuild() {
+        try {
+            long now = System.currentTimeMillis();
+            redisTemplate.opsForZSet().removeRangeByScore(INDEX_KEY, 0, now);
+            Long size = redisTemplate.opsForZSet().zCard(INDEX_KEY);
+            BloomFilter next = BloomFilter.create(Math.max(expectedRevocations, size == null ? 0 : size * 2),
+                    falsePositiveProbability);
+            synchronized (this) {
+                building = next;
+            }
+            long loaded = 0;
+            for (long offset = 0; ; offset += REBUILD_PAGE_SIZE) {
+                Set<String> page = redisTemplate.opsForZSet().rangeByScore(INDEX_KEY, now, Double.MAX_VALUE,
+                        offset, REBUILD_PAGE_SIZE);
+                if (page == null || page.isEmpty()) {
+                    break;
+                }
+                page.forEach(next::put);
+                loaded += page.size();
+            }
+            synchronized (this) {
+                filter = next;
+                building = null;
+            }
+            log.debug("Rebuilt token revocation filter with " + loaded + " revoked tokens");
+        } catch (DataAccessException e) {
+            synchronized (this) {
+                building = null;
+            }
+            log.warn("Could not rebuild token revocation filter, keeping the previous one", e);
+        }
+    }
+
+    /**
+     * Handles a revocation broadcast by another application instance.
+     *
+     * @param message The Redis message carrying the token ID.
+     * @param pattern The channel pattern, unused.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        addLocally(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private synchronized void addLocally(String tokenId) {
+        filter.put(tokenId);
+        if (building != null) {
+            building.put(tokenId);
+        }
+    }
+
+    private void index(String tokenId, long expiresAtMillis) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                redis.zAdd(INDEX_KEY, expiresAtMillis, tokenId);
+                redis.publish(REVOCATION_CHANNEL, tokenId);
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.warn("Could not index revocation of token " + tokenId + " in Redis", e);
+        }
+    }
+
+    private void store(String tokenId, long expiresAtMillis) {
+        long ttlMillis = expiresAtMillis - System.currentTimeMillis();
+        if (ttlMillis <= 0) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                redis.pSetEx(KEY_PREFIX + tokenId, ttlMillis, "1");
+                redis.zAdd(INDEX_KEY, expiresAtMillis, tokenId);
+                redis.publish(REVOCATION_CHANNEL, tokenId);
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.warn("Could not store revocation of token " + tokenId + " in Redis", e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.TaskManagement.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Service class responsible for the per-user token version stamp.
+ * Every issued JWT carries the version that was current at issue time; bumping the version
+ * revokes all tokens issued before. Versions are stored in Redis and cached in-process for a
+ * short time, so checking a token costs no database query and, usually, no network round trip.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenVersionService {
+
+    private static final String KEY_PREFIX = "token-version:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * How long a version read from Redis is trusted locally. This bounds how long a revoked
+     * token is still accepted by other application instances.
+     */
+    @Value("${token.version.cache-ttl-ms:5000}")
+    private long cacheTtlMs;
+
+    private Cache<Long, Long> versions;
+
+    /**
+     * Builds the local version cache once the configuration properties have been injected.
+     */
+    @PostConstruct
+    public void init() {
+        versions = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .build();
+    }
+
+    /**
+     * Returns the current token version of the user. Users that never revoked their tokens are at version 0.
+     *
+     * @param userId The ID of the user.
+     * @return The current token version.
+     */
+    public long currentVersion(Long userId) {
+        return versions.get(userId, this::loadVersion);
+    }
+
+    /**
+     * Revokes all tokens issued to the user so far by bumping the user's token version.
+     *
+     * @param userId The ID of the user whose tokens are revoked.
+     * @return The new token version.
+     */
+    public long revokeTokens(Long userId) {
+        Long version = redisTemplate.opsForValue().increment(KEY_PREFIX + userId);
+        long current = version == null ? 0 : version;
+        versions.put(userId, current);
+        log.info("Revoked tokens of user " + userId + ", token version is now " + current);
+        return current;
+    }
+
+    private Long loadVersion(Long userId) {
+        String version = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+        return version == null ? 0L : Long.parseLong(version);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.TaskManagement.services;
+
+import com.example.TaskManagement.entity.User;
+import com.example.TaskManagement.model.UserIdentityView;
+import com.example.TaskManagement.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Service class responsible for resolving user identities (username or email to ID, ID to username)
+ * without loading full {@link User} entities.
+ * <p>
+ * Results, including "no such user", are kept in bounded in-process caches. When a user is created or
+ * saved, {@link #evict(User, UserIdentityView)} drops the affected entries locally, by key, and broadcasts the
+ * change on a Redis channel, so that every application instance drops them too. The message carries the new and
+ * the previous username and email, so that no cache has to be scanned.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserIdentityService implements MessageListener {
+
+    /**
+     * Redis channel on which user changes are broadcast to all application instances.
+     */
+    public static final String INVALIDATION_CHANNEL = "user-identity-invalidation";
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The maximum number of entries kept in each identity cache.
+     */
+    @Value("${users.identity-cache.maximum-size:100000}")
+    private long maximumSize;
+
+    /**
+     * How long a resolved identity is kept, as a safety net for missed invalidation messages.
+     */
+    @Value("${users.identity-cache.ttl-ms:600000}")
+    private long ttlMs;
+
+    private Cache<String, Optional<Long>> idsByUsername;
+    private Cache<String, Optional<Long>> idsByEmail;
+    private Cache<Long, Optional<String>> usernamesById;
+
+    /**
+     * Builds the identity caches and subscribes to the invalidation channel.
+     */
+    @PostConstruct
+    public void init() {
+        idsByUsername = newCache("users.ids-by-username");
+        idsByEmail = newCache("users.ids-by-email");
+        usernamesById = newCache("users.usernames-by-id");
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Resolves the ID of the user with the given username.
+     *
+     * @param username The username of the user.
+     * @return The user ID, or an empty {@link Optional} if no such user exists.
+     */
+    public Optional<Long> findIdByUsername(String username) {
+        return idsByUsername.get(username, userRepository::findIdByUsername);
+    }
+
+    /**
+     * Resolves the ID of the user with the given email.
+     *
+     * @param email The email of the user.
+     * @return The user ID, or an empty {@link Optional} if no such user exists.
+     */
+    public Optional<Long> findIdByEmail(String email) {
+        return idsByEmail.get(email, userRepository::findIdByEmail);
+    }
+
+    /**
+     * Resolves the username of the user with the given ID.
+     *
+     * @param id The ID of the user.
+     * @return The username, or an empty {@link Optional} if no such user exists.
+     */
+    public Optional<String> findUsernameById(Long id) {
+        return usernamesById.get(id, userRepository::findUsernameById);
+    }
+
+    /**
+     * Resolves the ID of the user with the given username.
+     *
+     * @param username The username of the user.
+     * @return The user ID.
+     * @throws UsernameNotFoundException if no user with the given username exists.
+     */
+    public Long getIdByUsername(String username) {
+        return findIdByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+
+    /**
+     * Resolves the ID of the user with the given email.
+     *
+     * @param email The email of the user.
+     * @return The user ID.
+     * @throws UsernameNotFoundException if no user with the given email exists.
+     */
+    public Long getIdByEmail(String email) {
+        return findIdByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+
+    /**
+     * Drops every cached entry the given user may affect, on this and on all other application instances.
+     * Must be called after a user has been created or changed.
+     *
+     * @param user The created or changed user.
+     * @param previous The username and email of the user before the change, or {@code null} for a new user.
+     */
+    public void evict(User user, UserIdentityView previous) {
+        String message = user.getId() + "\n" + user.getUsername() + "\n" + user.getEmail();
+        if (previous != null) {
+            message += "\n" + previous.getUsername() + "\n" + previous.getEmail();
+        }
+        invalidate(message);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (RuntimeException e) {
+            log.warn("Could not broadcast identity invalidation for user " + user.getId(), e);
+        }
+    }
+
+    /**
+     * Handles an invalidation message broadcast by {@link #evict(User, UserIdentityView)}.
+     *
+     * @param message The Redis message.
+     * @param pattern The channel pattern, unused.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Drops the entries named by a message: the user ID, the username and the email, optionally followed by the
+     * previous username and email.
+     */
+    private void invalidate(String message) {
+        String[] parts = message.split("\n", 5);
+        if (!"null".equals(parts[0])) {
+            usernamesById.invalidate(Long.valueOf(parts[0]));
+        }
+        idsByUsername.invalidate(parts[1]);
+        idsByEmail.invalidate(parts[2]);
+        if (parts.length == 5) {
+            idsByUsername.invalidate(parts[3]);
+            idsByEmail.invalidate(parts[4]);
+        }
+    }
+
+    private <K, V> Cache<K, V> newCache(String name) {
+        Cache<K, V> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+}
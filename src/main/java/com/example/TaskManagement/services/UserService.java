@@ -2,9 +2,12 @@ package com.example.TaskManagement.services;
 
 import com.example.TaskManagement.entity.User;
 import com.example.TaskManagement.exception.DuplicateException;
+import com.example.TaskManagement.model.AuthenticatedUser;
+import com.example.TaskManagement.model.UserIdentityView;
 import com.example.TaskManagement.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -12,20 +15,27 @@ import org.springframework.stereotype.Service;
 /**
  * Service class responsible for handling user-related operations, including user registration,
  * retrieval, and loading user details for authentication.
- * Implements {@link UserDetailsService} to provide custom user loading functionality for Spring Security.
+ * Implements {@link UserDetailsService} to provide custom user loading functionality for Spring Security,
+ * and {@link UserDetailsPasswordService} so that outdated password hashes are upgraded on login.
  */
 @Service
 @RequiredArgsConstructor
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
+    private final UserIdentityService userIdentityService;
 
     /**
-     * Saves a user entity in the repository.
+     * Saves a user entity in the repository and evicts the cached identities it may affect. For an existing user,
+     * the stored username and email are read first, so that the identities cached under them are evicted too.
      *
      * @param user The user entity to be saved.
      */
     public void save(User user) {
+        UserIdentityView previous = user.getId() == null
+                ? null
+                : userRepository.findIdentityById(user.getId()).orElse(null);
         userRepository.save(user);
+        userIdentityService.evict(user, previous);
     }
 
     /**
@@ -51,14 +61,28 @@ public class UserService implements UserDetailsService {
      * If no user is found with the given email, a {@link UsernameNotFoundException} is thrown.
      *
      * @param email The email of the user to be loaded.
-     * @return A {@link UserDetails} object containing user information for authentication.
+     * @return An {@link AuthenticatedUser} containing the user ID and the information needed for authentication.
      * @throws UsernameNotFoundException if no user is found with the given email.
      */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-        return new org.springframework.security.core.userdetails.User(user.getEmail(), user.getPassword(), user.getAuthorities());
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), user.getAuthorities());
+    }
+
+    /**
+     * Replaces the stored password hash of a user, after a successful login with an outdated hash.
+     *
+     * @param user        The authenticated user, as loaded by {@link #userDetailsService()}.
+     * @param newPassword The password re-hashed with the current encoder settings.
+     * @return The updated user.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = user instanceof User loaded ? loaded : getByEmail(user.getUsername());
+        entity.setPassword(newPassword);
+        return userRepository.save(entity);
     }
 
     /**
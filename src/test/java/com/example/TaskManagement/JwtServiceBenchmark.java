@@ -0,0 +1,92 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.entity.User;
+import com.example.TaskManagement.services.JwtService;
+import com.example.TaskManagement.services.TokenRevocationService;
+import com.example.TaskManagement.services.TokenVersionService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.mockito.Mockito;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of authenticating a bearer token with the former {@link JwtService}
+ * path (decode the secret, build a parser and verify the signature for every claim read) against the
+ * cached path, where a repeat token is answered from the verified-claims cache.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.mainClass=com.example.TaskManagement.JwtServiceBenchmark
+ * -Dexec.classpathScope=test}, or from the IDE through {@link #main(String[])}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "53A73E5F1C4E0A2D3B5F2D784E6A1B423D6F247D1F6E5C3A596D635A75327855";
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        TokenVersionService tokenVersionService = Mockito.mock(TokenVersionService.class);
+        jwtService = new JwtService(new SimpleMeterRegistry(), tokenVersionService,
+                Mockito.mock(TokenRevocationService.class));
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "lifelimit", 3_600_000);
+        ReflectionTestUtils.setField(jwtService, "cacheMaximumSize", 10_000L);
+        jwtService.init();
+
+        User user = User.builder().id(1L).username("Jon").email("jondoe@gmail.com").password("").build();
+        token = jwtService.generateToken(user);
+        userDetails = new org.springframework.security.core.userdetails.User(
+                user.getEmail(), "", Collections.emptyList());
+    }
+
+    @Benchmark
+    public boolean legacyPath() {
+        String email = legacyClaims(token).getSubject();
+        return email.equals(userDetails.getUsername())
+                && legacyClaims(token).getSubject().equals(userDetails.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean cachedPath() {
+        String email = jwtService.extractUserName(token);
+        return email.equals(userDetails.getUsername()) && jwtService.isTokenValid(token, userDetails);
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
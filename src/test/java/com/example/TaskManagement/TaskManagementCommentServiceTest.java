@@ -0,0 +1,110 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.entity.Comment;
+import com.example.TaskManagement.entity.Task;
+import com.example.TaskManagement.entity.User;
+import com.example.TaskManagement.exception.TaskNotFoundException;
+import com.example.TaskManagement.mappers.CommentMapper;
+import com.example.TaskManagement.model.CommentResponseDTO;
+import com.example.TaskManagement.model.CursorPage;
+import com.example.TaskManagement.model.KeysetCursor;
+import com.example.TaskManagement.repositories.CommentRepository;
+import com.example.TaskManagement.repositories.TaskRepository;
+import com.example.TaskManagement.repositories.UserRepository;
+import com.example.TaskManagement.services.CommentService;
+import com.example.TaskManagement.services.TaskEventPublisher;
+import com.example.TaskManagement.services.UserIdentityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskManagementCommentServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserIdentityService userIdentityService;
+
+    @Mock
+    private TaskEventPublisher taskEventPublisher;
+
+    private CommentService commentService;
+
+    @BeforeEach
+    void setUp() {
+        commentService = new CommentService(taskRepository, commentRepository, userRepository, userIdentityService,
+                Mappers.getMapper(CommentMapper.class), taskEventPublisher);
+    }
+
+    @Test
+    public void testListCommentReturnsPageAndCursorOfLastComment() {
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findFirstPageByTask(1L, PageRequest.ofSize(3)))
+                .thenReturn(List.of(comment(30L, 3), comment(20L, 2), comment(10L, 1)));
+
+        CursorPage<CommentResponseDTO> page = commentService.listComment(1L, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals("comment 30", page.getItems().get(0).getText());
+        assertEquals("author", page.getItems().get(0).getAuthorName());
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(20L, next.getId());
+        assertEquals(CREATED_AT.plusMinutes(2), next.getSortTime());
+    }
+
+    @Test
+    public void testListCommentContinuesAfterCursor() {
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findPageByTaskAfter(1L, CREATED_AT.plusMinutes(2), 20L, PageRequest.ofSize(3)))
+                .thenReturn(List.of(comment(10L, 1)));
+
+        CursorPage<CommentResponseDTO> page = commentService.listComment(1L,
+                KeysetCursor.of(CREATED_AT.plusMinutes(2), 20L).encode(), 2);
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    public void testListCommentOfUnknownTask() {
+        when(taskRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(TaskNotFoundException.class, () -> commentService.listComment(1L, null, 10));
+        verify(commentRepository, never()).findFirstPageByTask(any(), any());
+    }
+
+    private static Comment comment(Long id, int minutes) {
+        User author = new User();
+        author.setUsername("author");
+        Task task = new Task();
+        task.setTitle("title");
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setText("comment " + id);
+        comment.setAuthor(author);
+        comment.setTask(task);
+        comment.setCreatedAtComment(CREATED_AT.plusMinutes(minutes));
+        return comment;
+    }
+}
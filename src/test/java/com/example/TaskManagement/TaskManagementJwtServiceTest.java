@@ -0,0 +1,109 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.entity.User;
+import com.example.TaskManagement.model.AuthenticatedUser;
+import com.example.TaskManagement.services.JwtService;
+import com.example.TaskManagement.services.TokenRevocationService;
+import com.example.TaskManagement.services.TokenVersionService;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TaskManagementJwtServiceTest {
+
+    private static final String SECRET = "53A73E5F1C4E0A2D3B5F2D784E6A1B423D6F247D1F6E5C3A596D635A75327855";
+
+    private JwtService jwtService;
+    private TokenVersionService tokenVersionService;
+    private TokenRevocationService tokenRevocationService;
+    private User user;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        tokenVersionService = mock(TokenVersionService.class);
+        tokenRevocationService = mock(TokenRevocationService.class);
+        jwtService = new JwtService(new SimpleMeterRegistry(), tokenVersionService, tokenRevocationService);
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "lifelimit", 60_000);
+        ReflectionTestUtils.setField(jwtService, "refreshLifelimit", 600_000L);
+        ReflectionTestUtils.setField(jwtService, "cacheMaximumSize", 100L);
+        jwtService.init();
+
+        user = User.builder().id(1L).username("Jon").email("jondoe@gmail.com").password("").build();
+        userDetails = new org.springframework.security.core.userdetails.User(
+                user.getEmail(), "", Collections.emptyList());
+    }
+
+    @Test
+    public void testRepeatTokenIsVerifiedOnce() {
+        String token = jwtService.generateToken(user);
+
+        assertEquals("jondoe@gmail.com", jwtService.extractUserName(token));
+        assertTrue(jwtService.isTokenValid(token, userDetails));
+        assertTrue(jwtService.isTokenValid(token, userDetails));
+
+        assertEquals(1, jwtService.verifiedTokenStats().missCount());
+        assertEquals(2, jwtService.verifiedTokenStats().hitCount());
+    }
+
+    @Test
+    public void testPrincipalFromClaims() {
+        String token = jwtService.generateToken(user);
+
+        AuthenticatedUser principal = jwtService.extractPrincipal(token).orElseThrow();
+
+        assertEquals(1L, principal.getId());
+        assertEquals("jondoe@gmail.com", principal.getUsername());
+        assertTrue(principal.getAuthorities().isEmpty());
+        assertTrue(jwtService.isTokenValid(token, principal));
+    }
+
+    @Test
+    public void testRevokedTokenIsRejected() {
+        String token = jwtService.generateToken(user);
+
+        when(tokenVersionService.currentVersion(1L)).thenReturn(1L);
+
+        assertFalse(jwtService.isTokenValid(token, userDetails));
+        assertTrue(jwtService.isTokenValid(jwtService.generateToken(user), userDetails));
+    }
+
+    @Test
+    public void testRevokedTokenIdIsRejected() {
+        String token = jwtService.generateToken(user);
+        String tokenId = jwtService.extractAllClaims(token).getId();
+
+        when(tokenRevocationService.isRevoked(tokenId)).thenReturn(true);
+
+        assertNotNull(tokenId);
+        assertFalse(jwtService.isTokenValid(token, userDetails));
+    }
+
+    @Test
+    public void testRefreshTokenDoesNotAuthenticate() {
+        String refreshToken = jwtService.generateRefreshToken(user);
+
+        assertTrue(jwtService.isRefreshToken(jwtService.extractAllClaims(refreshToken)));
+        assertFalse(jwtService.isRefreshToken(jwtService.extractAllClaims(jwtService.generateToken(user))));
+        assertFalse(jwtService.isTokenValid(refreshToken, userDetails));
+    }
+
+    @Test
+    public void testTamperedTokenIsRejected() {
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.extractUserName(tampered));
+        assertEquals(0, jwtService.verifiedTokenStats().hitCount());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.model.TaskRolesView;
+import com.example.TaskManagement.repositories.TaskRepository;
+import com.example.TaskManagement.securityRedis.ReactiveTaskRoleRepository;
+import com.example.TaskManagement.securityRedis.TaskRole;
+import com.example.TaskManagement.securityRedis.TaskRoleNearCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class TaskManagementReactiveTaskRoleTest {
+
+    private ReactiveHashOperations<String, byte[], byte[]> hashOperations;
+    private TaskRepository taskRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private ReactiveTaskRoleRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        hashOperations = mock(ReactiveHashOperations.class);
+        ReactiveRedisTemplate<String, byte[]> template = mock(ReactiveRedisTemplate.class);
+        doReturn(hashOperations).when(template).opsForHash();
+        taskRepository = mock(TaskRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        TaskRoleNearCache nearCache = new TaskRoleNearCache(mock(RedisMessageListenerContainer.class), meterRegistry);
+        repository = new ReactiveTaskRoleRepository(template, taskRepository, nearCache, meterRegistry);
+        ReflectionTestUtils.setField(repository, "lookupTimeoutMs", 50L);
+        repository.init();
+    }
+
+    @Test
+    public void testRoleIsReadFromRedis() {
+        when(hashOperations.get(anyString(), any())).thenReturn(Mono.just(ByteBuffer.allocate(16).putLong(1L).putLong(2L).array()));
+
+        assertEquals(TaskRole.AUTHOR, repository.findRole(10L, 1L).block());
+        assertEquals(TaskRole.EXECUTOR, repository.findRole(10L, 2L).block());
+        assertEquals(TaskRole.NONE, repository.findRole(10L, 3L).block());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    public void testSlowRedisFallsBackToPostgres() {
+        when(hashOperations.get(anyString(), any())).thenReturn(Mono.never());
+        when(taskRepository.findRolesById(10L)).thenReturn(Optional.of(roles(1L, null)));
+
+        TaskRole role = repository.findRole(10L, 1L).block(Duration.ofSeconds(5));
+
+        assertEquals(TaskRole.AUTHOR, role);
+        assertEquals(1.0, meterRegistry.get("task-roles.lookup.fallbacks").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    public void testRedisMissFallsBackToPostgres() {
+        when(hashOperations.get(anyString(), any())).thenReturn(Mono.empty());
+        when(taskRepository.findRolesById(10L)).thenReturn(Optional.of(roles(1L, 2L)));
+        when(taskRepository.findRolesById(11L)).thenReturn(Optional.empty());
+
+        assertEquals(TaskRole.EXECUTOR, repository.findRole(10L, 2L).block());
+        assertEquals(TaskRole.NONE, repository.findRole(11L, 2L).block());
+        verify(taskRepository, times(1)).findRolesById(11L);
+    }
+
+    private static TaskRolesView roles(Long authorId, Long executorId) {
+        return new TaskRolesView() {
+            @Override
+            public Long getAuthorId() {
+                return authorId;
+            }
+
+            @Override
+            public Long getExecutorId() {
+                return executorId;
+            }
+        };
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.entity.RedisTask;
+import com.example.TaskManagement.securityRedis.RedisTaskRoleMigrator;
+import com.example.TaskManagement.securityRedis.RedisTaskRoleRepository;
+import com.example.TaskManagement.securityRedis.TaskRole;
+import com.example.TaskManagement.securityRedis.TaskRoleNearCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisSetCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class TaskManagementRedisTaskRoleTest {
+
+    private HashOperations<String, Object, Object> hashOperations;
+    private RedisHashCommands hashCommands;
+    private RedisKeyCommands keyCommands;
+    private RedisSetCommands setCommands;
+    private final Deque<List<Object>> pipelineReplies = new ArrayDeque<>();
+    private RedisTaskRoleRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        hashOperations = mock(HashOperations.class);
+        hashCommands = mock(RedisHashCommands.class);
+        keyCommands = mock(RedisKeyCommands.class);
+        setCommands = mock(RedisSetCommands.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.hashCommands()).thenReturn(hashCommands);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(connection.setCommands()).thenReturn(setCommands);
+
+        RedisTemplate<String, byte[]> template = mock(RedisTemplate.class);
+        doReturn(hashOperations).when(template).opsForHash();
+        when(template.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+        when(template.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+            return pipelineReplies.isEmpty() ? List.of() : pipelineReplies.poll();
+        });
+        when(template.executePipelined(any(RedisCallback.class), any())).thenAnswer(invocation -> {
+            invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+            return pipelineReplies.isEmpty() ? List.of() : pipelineReplies.poll();
+        });
+
+        TaskRoleNearCache nearCache = new TaskRoleNearCache(mock(RedisMessageListenerContainer.class),
+                new SimpleMeterRegistry());
+        repository = new RedisTaskRoleRepository(template, nearCache);
+    }
+
+    @Test
+    public void testRolesArePackedIntoBucketFieldsAndReadBack() {
+        repository.applyAll(List.of(new RedisTask(1234L, 7L, null), new RedisTask(1299L, 7L, 8L)), List.of(5L));
+
+        ArgumentCaptor<byte[]> value = ArgumentCaptor.forClass(byte[].class);
+        verify(hashCommands).hSet(eq(bytes("task-roles:12")), eq(bytes("34")), value.capture());
+        assertArrayEquals(packed(7, 0), value.getValue());
+        verify(hashCommands).hSet(bytes("task-roles:12"), bytes("99"), packed(7, 8));
+        verify(hashCommands).hDel(bytes("task-roles:0"), bytes("5"));
+        verify(keyCommands).del(bytes("Task:5"));
+
+        when(hashOperations.get(eq("task-roles:12"), any())).thenReturn(value.getValue());
+        RedisTask task = repository.findById(1234L).orElseThrow();
+        assertEquals(7L, task.getAuthorId());
+        assertNull(task.getExecutorId());
+        assertEquals(TaskRole.AUTHOR, repository.findRole(1234L, 7L));
+        assertEquals(TaskRole.NONE, repository.findRole(1234L, 8L));
+    }
+
+    @Test
+    public void testBatchLookupMatchesRepliesToTasksAcrossBuckets() {
+        pipelineReplies.add(List.of(Arrays.asList(packed(1, 2), null), Arrays.asList(packed(3, 0), packed(4, 5))));
+
+        Map<Long, RedisTask> tasks = repository.findAllById(List.of(250L, 1L, 205L, 3L));
+
+        verify(hashCommands).hMGet(bytes("task-roles:2"), bytes("50"), bytes("5"));
+        verify(hashCommands).hMGet(bytes("task-roles:0"), bytes("1"), bytes("3"));
+        assertEquals(3, tasks.size());
+        assertEquals(2L, tasks.get(250L).getExecutorId());
+        assertFalse(tasks.containsKey(205L));
+        assertEquals(3L, tasks.get(1L).getAuthorId());
+        assertNull(tasks.get(1L).getExecutorId());
+        assertEquals(5L, tasks.get(3L).getExecutorId());
+    }
+
+    @Test
+    public void testLegacyHashIsReadUntilTheMigrationIsDone() {
+        when(hashCommands.hMGet(eq(bytes("Task:42")), any(byte[].class), any(byte[].class)))
+                .thenReturn(Arrays.asList(bytes("7"), null));
+
+        assertEquals(TaskRole.AUTHOR, repository.findRole(42L, 7L));
+        assertNull(repository.findById(42L).orElseThrow().getExecutorId());
+
+        when(keyCommands.exists(bytes("Task"))).thenReturn(false);
+        assertEquals(0, new RedisTaskRoleMigrator(repository).migrate());
+
+        assertTrue(repository.findById(42L).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMigrationMovesLegacyRolesInBatches() {
+        RedisTaskRoleMigrator migrator = new RedisTaskRoleMigrator(repository);
+        ReflectionTestUtils.setField(migrator, "batchSize", 2);
+        when(keyCommands.exists(bytes("Task"))).thenReturn(true);
+        Iterator<byte[]> ids = List.of(bytes("1"), bytes("2"), bytes("3")).iterator();
+        Cursor<byte[]> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> ids.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> ids.next());
+        when(setCommands.sScan(eq(bytes("Task")), any())).thenReturn(cursor);
+        // task 2 has no legacy hash any more
+        pipelineReplies.add(List.of(List.of(bytes("7"), bytes("8")), Arrays.asList(null, null)));
+        pipelineReplies.add(List.of());
+        pipelineReplies.add(List.of(Arrays.asList(bytes("9"), null)));
+
+        assertEquals(2, migrator.migrate());
+
+        verify(hashCommands).hSetNX(bytes("task-roles:0"), bytes("1"), packed(7, 8));
+        verify(hashCommands).hSetNX(bytes("task-roles:0"), bytes("3"), packed(9, 0));
+        verify(hashCommands, never()).hSetNX(eq(bytes("task-roles:0")), eq(bytes("2")), any());
+        verify(keyCommands).del(bytes("Task:1"), bytes("Task:2"));
+        verify(keyCommands).del(bytes("Task:3"));
+        verify(keyCommands).del(bytes("Task"));
+    }
+
+    private static byte[] packed(long authorId, long executorId) {
+        return ByteBuffer.allocate(16).putLong(authorId).putLong(executorId).array();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -5,13 +5,24 @@ import com.example.TaskManagement.entity.PriorityTask;
 import com.example.TaskManagement.entity.StatusTask;
 import com.example.TaskManagement.entity.Task;
 import com.example.TaskManagement.entity.User;
+import com.example.TaskManagement.exception.InvalidCursorException;
 import com.example.TaskManagement.exception.TaskNotFoundException;
+import com.example.TaskManagement.exception.TaskVersionConflictException;
 import com.example.TaskManagement.mappers.TaskMapper;
+import com.example.TaskManagement.model.CursorPage;
+import com.example.TaskManagement.model.KeysetCursor;
+import com.example.TaskManagement.model.TaskChangeType;
 import com.example.TaskManagement.model.TaskResponseDTO;
-import com.example.TaskManagement.securityRedis.RedisTaskRoleRepository;
+import com.example.TaskManagement.model.TaskRolesView;
+import com.example.TaskManagement.model.TaskVersion;
+import com.example.TaskManagement.repositories.TaskReadRepository;
 import com.example.TaskManagement.repositories.TaskRepository;
 import com.example.TaskManagement.repositories.UserRepository;
+import com.example.TaskManagement.services.TaskETags;
 import com.example.TaskManagement.services.TaskService;
+import com.example.TaskManagement.services.TaskEventPublisher;
+import com.example.TaskManagement.services.TaskTypeaheadService;
+import com.example.TaskManagement.services.UserIdentityService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,11 +32,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
@@ -39,7 +56,16 @@ public class TaskManagementServiceTaskTests {
     private TaskRepository taskRepository;
 
     @Mock
-    private RedisTaskRoleRepository redisTaskRoleRepository;
+    private TaskReadRepository taskReadRepository;
+
+    @Mock
+    private UserIdentityService userIdentityService;
+
+    @Mock
+    private TaskTypeaheadService taskTypeaheadService;
+
+    @Mock
+    private TaskEventPublisher taskEventPublisher;
 
     @InjectMocks
     private TaskService taskService;
@@ -50,7 +76,7 @@ public class TaskManagementServiceTaskTests {
     @BeforeEach
     void setUp() {
         TaskMapper taskMapper = Mappers.getMapper(TaskMapper.class);
-        taskService = new TaskService(taskRepository, userRepository, redisTaskRoleRepository, taskMapper);
+        taskService = new TaskService(taskRepository, taskReadRepository, userRepository, userIdentityService, taskMapper, taskTypeaheadService, taskEventPublisher);
         expectedDTO = new TaskResponseDTO();
         expectedDTO.setTitle("title");
         expectedDTO.setText("text");
@@ -80,7 +106,7 @@ public class TaskManagementServiceTaskTests {
     @Test
     public void testGetTask_Success() {
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(expectedEntity));
+        when(taskReadRepository.findById(1L)).thenReturn(Optional.of(expectedDTO));
 
         TaskResponseDTO result = taskService.getById(1L);
 
@@ -91,7 +117,8 @@ public class TaskManagementServiceTaskTests {
         assertEquals(expectedDTO.getAuthorName(), result.getAuthorName());
         assertEquals(expectedDTO.getExecutorName(), result.getExecutorName());
 
-        verify(taskRepository, times(1)).findById(1L);
+        verify(taskReadRepository, times(1)).findById(1L);
+        verify(taskRepository, never()).findById(any());
         verify(taskRepository, never()).save(any());
     }
 
@@ -100,9 +127,7 @@ public class TaskManagementServiceTaskTests {
         expectedEntity.setExecutor(null);
         expectedDTO.setExecutorName("You have not assigned a task executor");
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(expectedEntity));
-
-        TaskResponseDTO result = taskService.getById(1L);
+        TaskResponseDTO result = Mappers.getMapper(TaskMapper.class).toDTO(expectedEntity);
 
         assertEquals(expectedDTO.getTitle(), result.getTitle());
         assertEquals(expectedDTO.getText(), result.getText());
@@ -110,9 +135,6 @@ public class TaskManagementServiceTaskTests {
         assertEquals(expectedDTO.getPriority(), result.getPriority());
         assertEquals(expectedDTO.getAuthorName(), result.getAuthorName());
         assertEquals(expectedDTO.getExecutorName(), result.getExecutorName());
-
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, never()).save(any());
     }
 
 
@@ -121,7 +143,7 @@ public class TaskManagementServiceTaskTests {
 
         Long taskId = 2L;
 
-        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskReadRepository.findById(taskId)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(TaskNotFoundException.class, () -> {
             taskService.getById(taskId);
@@ -129,6 +151,124 @@ public class TaskManagementServiceTaskTests {
 
         assertEquals("Task with ID " + taskId + " not found", exception.getMessage());
         verify(taskRepository, never()).save(any(Task.class));
-        verify(redisTaskRoleRepository, never()).addTask(anyLong(), anyLong(), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAuthorTasksAreKeysetPaginated() {
+        expectedDTO.setId(1L);
+        TaskResponseDTO second = new TaskResponseDTO();
+        second.setId(7L);
+        when(userIdentityService.getIdByUsername("authorName")).thenReturn(1L);
+        when(taskReadRepository.findAllWithAuthor(1L, 0L, 2)).thenReturn(List.of(expectedDTO, second));
+
+        CursorPage<TaskResponseDTO> firstPage = taskService.getAllTasksAuthor("authorName", null, 1);
+
+        assertEquals(1, firstPage.getItems().size());
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(1L, KeysetCursor.decode(firstPage.getNextCursor()).getId());
+
+        when(taskReadRepository.findAllWithAuthor(1L, 1L, 2)).thenReturn(List.of(second));
+
+        CursorPage<TaskResponseDTO> lastPage = taskService.getAllTasksAuthor("authorName", firstPage.getNextCursor(), 1);
+
+        assertEquals(1, lastPage.getItems().size());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    public void testETagIsComputedWithoutLoadingTask() {
+        expectedDTO.setId(1L);
+        expectedDTO.setVersion(3);
+        expectedDTO.setCommentsRevision(2);
+        when(taskReadRepository.findVersion(1L)).thenReturn(Optional.of(new TaskVersion(1L, 3, 2)));
+
+        assertEquals("\"3.2\"", taskService.getETag(1L));
+        assertEquals(TaskETags.of(expectedDTO), taskService.getETag(1L));
+        verify(taskReadRepository, never()).findById(any());
+
+        when(taskReadRepository.findVersion(2L)).thenReturn(Optional.empty());
+        assertThrows(TaskNotFoundException.class, () -> taskService.getETag(2L));
+    }
+
+    @Test
+    public void testPageETagMatchesLoadedPage() {
+        expectedDTO.setId(1L);
+        expectedDTO.setVersion(3);
+        TaskResponseDTO second = new TaskResponseDTO();
+        second.setId(7L);
+        when(userIdentityService.getIdByUsername("authorName")).thenReturn(1L);
+        when(taskReadRepository.findVersionsWithAuthor(1L, 0L, 2))
+                .thenReturn(List.of(new TaskVersion(1L, 3, 0), new TaskVersion(7L, 0, 0)));
+        when(taskReadRepository.findAllWithAuthor(1L, 0L, 2)).thenReturn(List.of(expectedDTO, second));
+
+        String etag = taskService.getAllTasksAuthorETag("authorName", null, 1);
+        CursorPage<TaskResponseDTO> page = taskService.getAllTasksAuthor("authorName", null, 1);
+
+        assertEquals(TaskETags.ofTasks(page.getItems(), page.hasNext()), etag);
+        assertNotEquals(TaskETags.ofTasks(page.getItems(), false), etag);
+    }
+
+    @Test
+    public void testStatusIsPatchedWithoutLoadingTask() {
+        when(taskRepository.updateStatus(1L, "COMPLETED", 3)).thenReturn(1);
+        when(taskRepository.findRolesById(1L)).thenReturn(Optional.of(roles(7L, 8L)));
+
+        taskService.patchStatusTaskCompleted(1L, 3);
+
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).save(any());
+        verify(taskEventPublisher).publish(argThat(event -> event.getType() == TaskChangeType.STATUS_CHANGED
+                && event.getTaskId() == 1L && "COMPLETED".equals(event.getStatus())), eq(7L), eq(8L));
+    }
+
+    @Test
+    public void testExecutorChangeIsAnnouncedToPreviousExecutor() {
+        when(userIdentityService.getIdByUsername("executorName")).thenReturn(9L);
+        when(taskRepository.findRolesById(1L)).thenReturn(Optional.of(roles(7L, 8L)), Optional.of(roles(7L, 9L)));
+        when(taskRepository.updateExecutor(1L, 9L, null)).thenReturn(1);
+
+        taskService.updateExecutor(1L, "executorName", null);
+
+        verify(taskEventPublisher).publish(argThat(event -> event.getType() == TaskChangeType.EXECUTOR_CHANGED
+                && "executorName".equals(event.getExecutorName())), eq(8L), eq(7L), eq(9L));
+    }
+
+    private static TaskRolesView roles(Long authorId, Long executorId) {
+        return new TaskRolesView() {
+            @Override
+            public Long getAuthorId() {
+                return authorId;
+            }
+
+            @Override
+            public Long getExecutorId() {
+                return executorId;
+            }
+        };
+    }
+
+    @Test
+    public void testStalePatchIsRejected() {
+        when(taskRepository.updatePriority(1L, "HIGH", 3)).thenReturn(0);
+        when(taskRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(TaskVersionConflictException.class, () -> taskService.patchPriorityTaskHigh(1L, 3));
+    }
+
+    @Test
+    public void testPatchOfMissingTask() {
+        when(userIdentityService.getIdByUsername("executorName")).thenReturn(2L);
+        when(taskRepository.updateExecutor(5L, 2L, null)).thenReturn(0);
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.updateExecutor(5L, "executorName", null));
+        verify(taskTypeaheadService, never()).updateExecutor(anyLong(), anyLong());
+    }
+
+    @Test
+    public void testInvalidCursor() {
+        when(userIdentityService.getIdByUsername("executorName")).thenReturn(2L);
+
+        assertThrows(InvalidCursorException.class, () -> taskService.getAllTasksExecutor("executorName", "not-a-cursor", 10));
+        verify(taskReadRepository, never()).findAllWithExecutor(anyLong(), anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.entity.PriorityTask;
+import com.example.TaskManagement.entity.RedisTask;
+import com.example.TaskManagement.entity.StatusTask;
+import com.example.TaskManagement.model.BulkTaskChangeRequest;
+import com.example.TaskManagement.model.BulkTaskOutcome;
+import com.example.TaskManagement.model.BulkTaskResultDTO;
+import com.example.TaskManagement.model.TaskChangeType;
+import com.example.TaskManagement.repositories.TaskBulkRepository;
+import com.example.TaskManagement.securityRedis.RedisTaskRoleRepository;
+import com.example.TaskManagement.services.TaskBulkService;
+import com.example.TaskManagement.services.TaskEventPublisher;
+import com.example.TaskManagement.services.TaskTypeaheadService;
+import com.example.TaskManagement.services.UserIdentityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskManagementTaskBulkServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private TaskBulkRepository taskBulkRepository;
+
+    @Mock
+    private RedisTaskRoleRepository redisTaskRoleRepository;
+
+    @Mock
+    private UserIdentityService userIdentityService;
+
+    @Mock
+    private TaskTypeaheadService taskTypeaheadService;
+
+    @Mock
+    private TaskEventPublisher taskEventPublisher;
+
+    private TaskBulkService taskBulkService;
+
+    @BeforeEach
+    void setUp() {
+        taskBulkService = new TaskBulkService(taskBulkRepository, redisTaskRoleRepository, userIdentityService,
+                taskTypeaheadService, taskEventPublisher);
+    }
+
+    @Test
+    public void testPriorityChangeReportsOutcomePerTask() {
+        when(redisTaskRoleRepository.findAllById(Set.of(10L, 11L, 12L, 13L))).thenReturn(Map.of(
+                10L, new RedisTask(10L, USER_ID, null),
+                11L, new RedisTask(11L, 2L, USER_ID)));
+        when(taskBulkRepository.findRoles(List.of(12L, 13L))).thenReturn(Map.of(12L, new RedisTask(12L, USER_ID, 3L)));
+        when(taskBulkRepository.update(List.of(10L, 12L), USER_ID, null, PriorityTask.HIGH, null))
+                .thenReturn(Set.of(10L, 12L));
+
+        List<BulkTaskResultDTO> results = taskBulkService.apply(USER_ID,
+                request(List.of(10L, 11L, 12L, 13L, 10L), null, PriorityTask.HIGH, null));
+
+        assertEquals(List.of(10L, 11L, 12L, 13L), results.stream().map(BulkTaskResultDTO::getTaskId).toList());
+        assertEquals(List.of(BulkTaskOutcome.UPDATED, BulkTaskOutcome.FORBIDDEN, BulkTaskOutcome.UPDATED,
+                BulkTaskOutcome.NOT_FOUND), results.stream().map(BulkTaskResultDTO::getOutcome).toList());
+        verify(taskEventPublisher).publish(argThat(event -> event.getType() == TaskChangeType.PRIORITY_CHANGED
+                && event.getTaskId() == 12L && event.getPriority().equals("HIGH")), eq(USER_ID), eq(3L));
+        verify(taskEventPublisher, times(2)).publish(any(), any(Long[].class));
+    }
+
+    @Test
+    public void testExecutorMayChangeStatusOnly() {
+        when(redisTaskRoleRepository.findAllById(Set.of(11L))).thenReturn(Map.of(11L, new RedisTask(11L, 2L, USER_ID)));
+        when(taskBulkRepository.update(List.of(11L), USER_ID, StatusTask.COMPLETED, null, null)).thenReturn(Set.of());
+
+        List<BulkTaskResultDTO> results = taskBulkService.apply(USER_ID,
+                request(List.of(11L), StatusTask.COMPLETED, null, null));
+
+        // permitted, but gone by the time of the update
+        assertEquals(BulkTaskOutcome.NOT_FOUND, results.get(0).getOutcome());
+    }
+
+    @Test
+    public void testExecutorChangeUpdatesTypeaheadIndex() {
+        when(userIdentityService.getIdByUsername("executor")).thenReturn(5L);
+        when(redisTaskRoleRepository.findAllById(Set.of(10L, 12L))).thenReturn(Map.of(10L, new RedisTask(10L, USER_ID, null)));
+        when(taskBulkRepository.findRoles(List.of(12L))).thenReturn(Map.of(12L, new RedisTask(12L, USER_ID, null)));
+        when(taskBulkRepository.update(List.of(10L, 12L), USER_ID, null, null, 5L)).thenReturn(Set.of(10L, 12L));
+
+        List<BulkTaskResultDTO> results = taskBulkService.apply(USER_ID, request(List.of(10L, 12L), null, null, "executor"));
+
+        assertTrue(results.stream().allMatch(result -> result.getOutcome() == BulkTaskOutcome.UPDATED));
+        verify(taskTypeaheadService).tasksChanged(Set.of(10L, 12L));
+        verify(taskEventPublisher).publish(argThat(event -> event.getType() == TaskChangeType.EXECUTOR_CHANGED
+                && event.getTaskId() == 10L && event.getExecutorName().equals("executor")), eq(USER_ID), eq(5L), isNull());
+    }
+
+    private static BulkTaskChangeRequest request(List<Long> taskIds, StatusTask status, PriorityTask priority,
+                                                 String executorName) {
+        BulkTaskChangeRequest request = new BulkTaskChangeRequest();
+        request.setTaskIds(taskIds);
+        request.setStatus(status);
+        request.setPriority(priority);
+        request.setExecutorName(executorName);
+        return request;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.services.TaskCountService;
+import com.example.TaskManagement.services.UserIdentityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskManagementTaskCountTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TaskCountService taskCountService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        UserIdentityService userIdentityService = mock(UserIdentityService.class);
+        when(userIdentityService.getIdByUsername("author")).thenReturn(1L);
+        taskCountService = new TaskCountService(jdbcTemplate, userIdentityService, new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(taskCountService, "exactThreshold", 10_000L);
+        ReflectionTestUtils.setField(taskCountService, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(taskCountService, "maximumSize", 100L);
+        taskCountService.init();
+    }
+
+    @Test
+    public void testLargeCountIsEstimatedAndCached() {
+        when(jdbcTemplate.queryForObject(startsWith("EXPLAIN"), eq(String.class)))
+                .thenReturn("[{\"Plan\": {\"Node Type\": \"Index Only Scan\", \"Plan Rows\": 250000}}]");
+
+        assertEquals(250_000L, taskCountService.approximateAuthorTaskCount("author"));
+        assertEquals(250_000L, taskCountService.approximateAuthorTaskCount("author"));
+
+        verify(jdbcTemplate, times(1)).queryForObject(startsWith("EXPLAIN"), eq(String.class));
+        verify(jdbcTemplate, never()).queryForObject(startsWith("SELECT count"), eq(Long.class), any());
+    }
+
+    @Test
+    public void testSmallCountIsExact() {
+        when(jdbcTemplate.queryForObject(startsWith("EXPLAIN"), eq(String.class)))
+                .thenReturn("[{\"Plan\": {\"Plan Rows\": 40}}]");
+        when(jdbcTemplate.queryForObject(startsWith("SELECT count"), eq(Long.class), eq(1L))).thenReturn(37L);
+
+        assertEquals(37L, taskCountService.approximateAuthorTaskCount("author"));
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.services.TaskEventPublisher;
+import com.example.TaskManagement.services.TaskEventStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskManagementTaskEventStreamTest {
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private TaskEventPublisher taskEventPublisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TaskEventStream taskEventStream;
+
+    @BeforeEach
+    void setUp() {
+        taskEventStream = new TaskEventStream(listenerContainer, taskEventPublisher, new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(taskEventStream, "replaySize", 3);
+        ReflectionTestUtils.setField(taskEventStream, "bufferSize", 2);
+        ReflectionTestUtils.setField(taskEventStream, "senderThreads", 1);
+        taskEventStream.init();
+        ReflectionTestUtils.setField(taskEventStream, "sender", new ExecutorServiceAdapter(new SyncTaskExecutor()));
+    }
+
+    @Test
+    public void testEventsReachTheirRecipientsOnly() {
+        RecordingEmitter author = subscribe(1L, null);
+        RecordingEmitter stranger = subscribe(3L, null);
+
+        receive(1, "STATUS_CHANGED", 1L, 2L);
+
+        assertEquals(List.of("id:1\nevent:STATUS_CHANGED\ndata:{\"type\":\"STATUS_CHANGED\",\"taskId\":10}\n\n"),
+                author.sent);
+        assertTrue(stranger.sent.isEmpty());
+        assertEquals(2, meterRegistry.get("tasks.events.connections").gauge().value());
+    }
+
+    @Test
+    public void testReconnectReplaysMissedEventsOrResets() {
+        receive(5, "TASK_CREATED", 1L);
+        receive(6, "TASK_CREATED", 2L);
+        receive(7, "STATUS_CHANGED", 1L);
+
+        assertEquals(List.of("7"), ids(subscribe(1L, 5L)));
+
+        receive(8, "TASK_DELETED", 1L);
+
+        assertEquals(List.of("7", "8"), ids(subscribe(1L, 6L)));
+        assertEquals(List.of("RESET"), events(subscribe(1L, 4L)));
+        verifyNoInteractions(taskEventPublisher);
+    }
+
+    @Test
+    public void testMissingEventIdResetsReplayAndOpenConnections() {
+        RecordingEmitter live = subscribe(1L, null);
+        receive(1, "TASK_CREATED", 1L);
+        receive(2, "STATUS_CHANGED", 1L);
+        receive(4, "TASK_DELETED", 1L);
+
+        assertEquals(List.of("RESET"), events(subscribe(1L, 1L)));
+        assertEquals(List.of("4"), ids(subscribe(1L, 3L)));
+        assertEquals(List.of("TASK_CREATED", "STATUS_CHANGED", "RESET", "TASK_DELETED"), events(live));
+    }
+
+    @Test
+    public void testResumeBeforeFirstEventAsksRedis() {
+        when(taskEventPublisher.lastEventId()).thenReturn(12L);
+
+        RecordingEmitter upToDate = subscribe(1L, 12L);
+        RecordingEmitter behind = subscribe(1L, 11L);
+
+        assertTrue(upToDate.sent.isEmpty());
+        assertEquals(1, behind.sent.size());
+        assertTrue(behind.sent.get(0).contains("event:RESET"));
+    }
+
+    @Test
+    public void testSlowClientIsDisconnected() {
+        List<Runnable> stalled = new ArrayList<>();
+        ReflectionTestUtils.setField(taskEventStream, "sender", new ExecutorServiceAdapter(stalled::add));
+        RecordingEmitter slow = subscribe(1L, null);
+
+        receive(1, "TASK_CREATED", 1L);
+        receive(2, "STATUS_CHANGED", 1L);
+        assertFalse(slow.completed);
+        receive(3, "PRIORITY_CHANGED", 1L);
+
+        assertTrue(slow.completed);
+        assertEquals(1, meterRegistry.counter("tasks.events.overflows").count());
+        assertEquals(0, meterRegistry.get("tasks.events.connections").gauge().value());
+        stalled.forEach(Runnable::run);
+        assertTrue(slow.sent.isEmpty());
+    }
+
+    private RecordingEmitter subscribe(Long userId, Long lastEventId) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        taskEventStream.subscribe(userId, lastEventId, emitter);
+        return emitter;
+    }
+
+    private void receive(long id, String type, Long... recipients) {
+        String body = id + " {\"recipients\":[" + List.of(recipients).stream().map(String::valueOf)
+                .collect(Collectors.joining(",")) + "],\"event\":{\"type\":\"" + type + "\",\"taskId\":10}}";
+        taskEventStream.onMessage(new DefaultMessage(TaskEventPublisher.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    private static List<String> ids(RecordingEmitter emitter) {
+        return emitter.sent.stream()
+                .map(text -> text.lines().findFirst().orElseThrow().substring(3))
+                .toList();
+    }
+
+    private static List<String> events(RecordingEmitter emitter) {
+        return emitter.sent.stream()
+                .map(text -> text.lines().filter(line -> line.startsWith("event:")).findFirst().orElseThrow().substring(6))
+                .toList();
+    }
+
+    /**
+     * Records the text of every event instead of writing it to a response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder.build().stream().map(data -> data.getData().toString()).collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.model.CommentResponseDTO;
+import com.example.TaskManagement.model.TaskImportRow;
+import com.example.TaskManagement.model.TaskResponseDTO;
+import com.example.TaskManagement.repositories.TaskExportRepository;
+import com.example.TaskManagement.services.TaskExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskManagementTaskExportTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock
+    private TaskExportRepository taskExportRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TaskExportService taskExportService;
+
+    @BeforeEach
+    void setUp() {
+        taskExportService = new TaskExportService(taskExportRepository, objectMapper);
+    }
+
+    @Test
+    public void testNdjsonExportCanBeImportedAgain() throws IOException {
+        doAnswer(invocation -> {
+            TaskExportRepository.Visitor visitor = invocation.getArgument(2);
+            visitor.task(task(7L, "Release", "notes, \"draft\"", null));
+            visitor.comment(comment(70L, "bob", "looks good"), CREATED_AT);
+            visitor.comment(comment(71L, "alice", "merged"), CREATED_AT.plusMinutes(1));
+            visitor.task(task(9L, "Deploy", null, "bob"));
+            return null;
+        }).when(taskExportRepository).exportAuthored(eq(1L), eq(5L), any());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        taskExportService.export(1L, TaskExportService.Role.AUTHOR, TaskExportService.Format.NDJSON, false, 5L, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        TaskImportRow first = objectMapper.readerFor(TaskImportRow.class).readValue(lines[0]);
+        assertEquals("Release", first.getTitle());
+        assertEquals("notes, \"draft\"", first.getText());
+        assertEquals("alice", first.getAuthorName());
+        assertNull(first.getExecutorName());
+        assertEquals(2, first.getComments().size());
+        assertEquals("bob", first.getComments().get(0).getAuthorName());
+        assertEquals("merged", first.getComments().get(1).getText());
+        assertEquals(9, objectMapper.readTree(lines[1]).get("id").asLong());
+        assertEquals(0, objectMapper.readTree(lines[1]).get("comments").size());
+    }
+
+    @Test
+    public void testGzipCsvExportHasRowPerTaskAndComment() throws IOException {
+        doAnswer(invocation -> {
+            TaskExportRepository.Visitor visitor = invocation.getArgument(2);
+            visitor.task(task(7L, "Release", "two\nlines", "bob"));
+            visitor.comment(comment(70L, "bob", "looks \"good\""), CREATED_AT);
+            return null;
+        }).when(taskExportRepository).exportExecuted(eq(2L), eq(0L), any());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        taskExportService.export(2L, TaskExportService.Role.EXECUTOR, TaskExportService.Format.CSV, true, 0L, output);
+
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(output.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertEquals("type,id,taskId,title,text,status,priority,authorName,executorName,createdAt,updatedAt\r\n" +
+                "task,7,7,Release,\"two\nlines\",WAITING,HIGH,alice,bob,2024-05-01T12:00,\r\n" +
+                "comment,70,7,,\"looks \"\"good\"\"\",,,bob,,2024-05-01T12:00,\r\n", csv);
+    }
+
+    @Test
+    public void testClientDisconnectSurfacesAsIOException() throws IOException {
+        doThrow(new IOException("Broken pipe"))
+                .when(taskExportRepository).exportAuthored(eq(1L), eq(0L), any());
+
+        IOException e = assertThrows(IOException.class, () -> taskExportService.export(1L,
+                TaskExportService.Role.AUTHOR, TaskExportService.Format.NDJSON, false, 0L, new ByteArrayOutputStream()));
+        assertEquals("Broken pipe", e.getMessage());
+    }
+
+    @Test
+    public void testRepositoryReadsInKeysetChunks() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        TaskExportRepository repository = new TaskExportRepository(jdbcTemplate);
+        ReflectionTestUtils.setField(repository, "chunkSize", 2);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row(1L, 10L));
+            handler.processRow(row(1L, 11L));
+            handler.processRow(row(2L, null));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(5L), eq(0L), eq(2));
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row(3L, null));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(5L), eq(2L), eq(2));
+
+        List<String> visited = new ArrayList<>();
+        repository.exportAuthored(5L, 0L, new TaskExportRepository.Visitor() {
+            @Override
+            public void task(TaskResponseDTO task) {
+                visited.add("task " + task.getId());
+            }
+
+            @Override
+            public void comment(CommentResponseDTO comment, LocalDateTime createdAt) {
+                visited.add("comment " + comment.getId());
+            }
+        });
+
+        assertEquals(List.of("task 1", "comment 10", "comment 11", "task 2", "task 3"), visited);
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    private static ResultSet row(long taskId, Long commentId) throws Exception {
+        ResultSet row = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(row.getLong("id")).thenReturn(taskId);
+        when(row.getString("title")).thenReturn("Task " + taskId);
+        when(row.getLong("comment_id")).thenReturn(commentId == null ? 0 : commentId);
+        when(row.wasNull()).thenReturn(commentId == null);
+        return row;
+    }
+
+    private static TaskResponseDTO task(Long id, String title, String text, String executorName) {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setId(id);
+        task.setTitle(title);
+        task.setText(text);
+        task.setStatus("WAITING");
+        task.setPriority("HIGH");
+        task.setAuthorName("alice");
+        task.setExecutorName(executorName);
+        task.setCreatedAt(CREATED_AT);
+        return task;
+    }
+
+    private static CommentResponseDTO comment(Long id, String authorName, String text) {
+        CommentResponseDTO comment = new CommentResponseDTO();
+        comment.setId(id);
+        comment.setAuthorName(authorName);
+        comment.setText(text);
+        return comment;
+    }
+}
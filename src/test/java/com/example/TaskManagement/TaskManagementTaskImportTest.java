@@ -0,0 +1,137 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.model.TaskChangeType;
+import com.example.TaskManagement.model.TaskImportReport;
+import com.example.TaskManagement.repositories.TaskImportRepository;
+import com.example.TaskManagement.services.TaskEventPublisher;
+import com.example.TaskManagement.services.TaskImportService;
+import com.example.TaskManagement.services.TaskTypeaheadService;
+import com.example.TaskManagement.services.UserIdentityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskManagementTaskImportTest {
+
+    @Mock
+    private TaskImportRepository taskImportRepository;
+
+    @Mock
+    private UserIdentityService userIdentityService;
+
+    @Mock
+    private TaskTypeaheadService taskTypeaheadService;
+
+    @Mock
+    private TaskEventPublisher taskEventPublisher;
+
+    private TaskImportService taskImportService;
+
+    @BeforeEach
+    void setUp() {
+        taskImportService = new TaskImportService(taskImportRepository, userIdentityService, taskTypeaheadService,
+                taskEventPublisher, new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(taskImportService, "batchSize", 2);
+        ReflectionTestUtils.setField(taskImportService, "maxErrors", 100);
+        taskImportService.init();
+        lenient().when(userIdentityService.findIdByUsername(anyString())).thenReturn(Optional.empty());
+        lenient().when(userIdentityService.findIdByUsername("alice")).thenReturn(Optional.of(1L));
+        lenient().when(userIdentityService.findIdByUsername("bob")).thenReturn(Optional.of(2L));
+    }
+
+    @Test
+    public void testNdjsonImportWritesBatchesAndReportsInvalidRows() throws IOException {
+        when(taskImportRepository.reserveIdBlocks(eq(TaskImportRepository.TASK_SEQUENCE), anyInt()))
+                .thenReturn(List.of(101L));
+        when(taskImportRepository.reserveIdBlocks(TaskImportRepository.COMMENT_SEQUENCE, 1)).thenReturn(List.of(51L));
+        List<List<Object[]>> taskBatches = new ArrayList<>();
+        List<List<Object[]>> commentBatches = new ArrayList<>();
+        doAnswer(invocation -> {
+            taskBatches.add(invocation.getArgument(0));
+            commentBatches.add(invocation.getArgument(1));
+            return null;
+        }).when(taskImportRepository).insert(any(), any());
+
+        TaskImportReport report = taskImportService.importTasks(stream("""
+                {"title": "Migrate", "authorName": "alice", "executorName": "bob", "status": "IN_PROCESS", \
+                "comments": [{"text": "first"}, {"authorName": "bob", "text": "second"}], "externalKey": "JIRA-1"}
+                {"title": "No author"}
+
+                {"title": "Unknown author", "authorName": "carol"}
+                {"title": "Bad status", "authorName": "alice", "status": "DONE"}
+                {"title": "Review", "authorName": "bob", "executorName": "carol"}
+                {"title": "Plan", "authorName": "alice", "priority": "HIGH"}
+                """), TaskImportService.Format.NDJSON);
+
+        assertEquals(6, report.getRows());
+        assertEquals(3, report.getImported());
+        assertEquals(2, report.getComments());
+        assertEquals(3, report.getFailed());
+        assertEquals(List.of("line 2: authorName is required", "line 4: unknown author carol"),
+                report.getErrors().subList(0, 2));
+        assertTrue(report.getErrors().get(2).startsWith("line 5: malformed JSON"), report.getErrors().get(2));
+
+        assertEquals(2, taskBatches.size());
+        assertArrayEquals(new Object[]{101L, "Migrate", null, "IN_PROCESS", "MEDIUM", 1L, 2L}, taskBatches.get(0).get(0));
+        assertArrayEquals(new Object[]{102L, "Review", null, "WAITING", "MEDIUM", 2L, null}, taskBatches.get(0).get(1));
+        assertArrayEquals(new Object[]{103L, "Plan", null, "WAITING", "HIGH", 1L, null}, taskBatches.get(1).get(0));
+        assertArrayEquals(new Object[]{51L, "first", 1L, 101L}, commentBatches.get(0).get(0));
+        assertArrayEquals(new Object[]{52L, "second", 2L, 101L}, commentBatches.get(0).get(1));
+
+        // one block of 50 IDs serves both batches, and each username is resolved once
+        verify(taskImportRepository, times(1)).reserveIdBlocks(eq(TaskImportRepository.TASK_SEQUENCE), anyInt());
+        verify(userIdentityService, times(1)).findIdByUsername("alice");
+        verify(userIdentityService, times(1)).findIdByUsername("carol");
+        verify(taskTypeaheadService).tasksChanged(List.of(101L, 102L));
+        verify(taskTypeaheadService).tasksChanged(List.of(103L));
+        verify(taskEventPublisher).publish(argThat(event -> event.getType() == TaskChangeType.TASK_CREATED
+                && event.getTaskId() == 101L && event.getStatus().equals("IN_PROCESS")
+                && event.getExecutorName().equals("bob")), eq(1L), eq(2L));
+        verify(taskEventPublisher, times(3)).publish(any(), any(Long[].class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCsvImportParsesQuotedFieldsInAnyColumnOrder() throws IOException {
+        when(taskImportRepository.reserveIdBlocks(TaskImportRepository.TASK_SEQUENCE, 1)).thenReturn(List.of(1L));
+        ArgumentCaptor<List<Object[]>> tasks = ArgumentCaptor.forClass(List.class);
+
+        TaskImportReport report = taskImportService.importTasks(stream(
+                "authorName,priority,title,text,ignored\r\n" +
+                "alice,low,\"Quote \"\"this\"\", please\",\"two\r\nlines\",x\r\n" +
+                "\r\n" +
+                "bob,URGENT,Bad priority,,\r\n" +
+                "bob,,Last,,"), TaskImportService.Format.CSV);
+
+        assertEquals(3, report.getRows());
+        assertEquals(2, report.getImported());
+        assertEquals(List.of("line 5: unknown priority URGENT"), report.getErrors());
+        verify(taskImportRepository).insert(tasks.capture(), eq(List.of()));
+        assertArrayEquals(new Object[]{1L, "Quote \"this\", please", "two\r\nlines", "WAITING", "LOW", 1L, null},
+                tasks.getValue().get(0));
+        assertArrayEquals(new Object[]{2L, "Last", null, "WAITING", "MEDIUM", 2L, null}, tasks.getValue().get(1));
+        verify(taskTypeaheadService).tasksChanged(List.of(1L, 2L));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.mappers.TaskMapper;
+import com.example.TaskManagement.model.KeysetCursor;
+import com.example.TaskManagement.model.TaskResponseDTO;
+import com.example.TaskManagement.repositories.TaskReadRepository;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Proves that {@link TaskReadRepository} reads a page of tasks with their comments in a constant number of
+ * queries, by counting the statements prepared on the connection, and embeds only the most recent comments.
+ * Needs Docker; skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class TaskManagementTaskReadQueryCountTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final AtomicInteger STATEMENTS = new AtomicInteger();
+    private static TaskReadRepository taskReadRepository;
+    // task IDs come from a pooled sequence, so they are not consecutive
+    private static Long busyTaskId;
+    private static Long quietTaskId;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:/db/changelog/db.changelog-master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("INSERT INTO users (name, email, password) " +
+                "SELECT 'user' || i, 'user' || i || '@vkdo.ru', 'password' FROM generate_series(1, 3) i");
+        jdbc.execute("INSERT INTO tasks (title, status, priority, author_id, executor_id, created_at, version) " +
+                "SELECT 'task ' || i, 'WAITING', 'MEDIUM', 1, CASE WHEN i % 2 = 0 THEN NULL ELSE 2 END, now(), 0 " +
+                "FROM generate_series(1, 50) i");
+        jdbc.execute("INSERT INTO comments (text, author_id, task_id, created_at, version) " +
+                "SELECT 'comment ' || c, 1 + c % 3, t.id, timestamp '2024-01-01' + c * interval '1 minute', 0 " +
+                "FROM tasks t CROSS JOIN generate_series(1, 3) c");
+        jdbc.execute("INSERT INTO comments (text, author_id, task_id, created_at, version) " +
+                "SELECT 'comment ' || c, 1 + c % 3, t.id, timestamp '2024-01-01' + c * interval '1 minute', 0 " +
+                "FROM tasks t CROSS JOIN generate_series(4, 1000) c WHERE t.title = 'task 1'");
+        busyTaskId = jdbc.queryForObject("SELECT id FROM tasks WHERE title = 'task 1'", Long.class);
+        quietTaskId = jdbc.queryForObject("SELECT id FROM tasks WHERE title = 'task 2'", Long.class);
+
+        taskReadRepository = new TaskReadRepository(new NamedParameterJdbcTemplate(counting(dataSource)));
+        ReflectionTestUtils.setField(taskReadRepository, "embeddedComments", 5);
+    }
+
+    @BeforeEach
+    void resetCount() {
+        STATEMENTS.set(0);
+    }
+
+    @Test
+    public void testPageCostsTwoQueriesRegardlessOfSize() {
+        List<TaskResponseDTO> smallPage = taskReadRepository.findAllWithAuthor(1L, 0L, 2);
+        int smallPageStatements = STATEMENTS.getAndSet(0);
+        List<TaskResponseDTO> largePage = taskReadRepository.findAllWithAuthor(1L, 0L, 50);
+
+        assertEquals(2, smallPage.size());
+        assertEquals(50, largePage.size());
+        assertEquals(2, smallPageStatements);
+        assertEquals(2, STATEMENTS.get());
+        assertTrue(largePage.stream().skip(1).allMatch(task -> task.getComments().size() == 3
+                && task.getCommentCount() == 3 && task.getCommentsCursor() == null));
+        assertEquals("user1", largePage.get(0).getAuthorName());
+        assertEquals("user2", largePage.get(0).getExecutorName());
+        assertEquals(TaskMapper.NO_EXECUTOR, largePage.get(1).getExecutorName());
+    }
+
+    @Test
+    public void testSingleTaskCostsTwoQueries() {
+        TaskResponseDTO task = taskReadRepository.findById(quietTaskId).orElseThrow();
+
+        assertEquals(3, task.getComments().size());
+        assertEquals("comment 3", task.getComments().get(0).getText());
+        assertEquals(2, STATEMENTS.get());
+    }
+
+    @Test
+    public void testBusyTaskEmbedsMostRecentComments() {
+        TaskResponseDTO task = taskReadRepository.findById(busyTaskId).orElseThrow();
+
+        assertEquals(5, task.getComments().size());
+        assertEquals("comment 1000", task.getComments().get(0).getText());
+        assertEquals("comment 996", task.getComments().get(4).getText());
+        assertEquals(1000, task.getCommentCount());
+        KeysetCursor cursor = KeysetCursor.decode(task.getCommentsCursor());
+        assertEquals(task.getComments().get(4).getId(), cursor.getId());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(996), cursor.getSortTime());
+    }
+
+    @Test
+    public void testEmptyPageCostsOneQuery() {
+        assertTrue(taskReadRepository.findAllWithExecutor(3L, 0L, 10).isEmpty());
+        assertEquals(1, STATEMENTS.get());
+    }
+
+    /**
+     * Wraps a data source so that every statement prepared on its connections is counted.
+     */
+    private static DataSource counting(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                        (proxy, method, args) -> {
+                            if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                                STATEMENTS.incrementAndGet();
+                            }
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                        });
+            }
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.securityRedis.TaskRoleNearCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class TaskManagementTaskRoleNearCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskRoleNearCache nearCache;
+    private final long[] roles = new long[2];
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nearCache = new TaskRoleNearCache(mock(RedisMessageListenerContainer.class), meterRegistry);
+        ReflectionTestUtils.setField(nearCache, "enabled", true);
+        ReflectionTestUtils.setField(nearCache, "maximumSize", 1_000);
+        ReflectionTestUtils.setField(nearCache, "ttlSeconds", 300);
+        nearCache.init();
+    }
+
+    @Test
+    public void testPutGetAndInvalidate() {
+        assertFalse(nearCache.get(42L, roles));
+
+        nearCache.put(42L, 1L, 0L, nearCache.generation());
+
+        assertTrue(nearCache.get(42L, roles));
+        assertArrayEquals(new long[]{1L, 0L}, roles);
+        nearCache.invalidate(42L);
+        assertFalse(nearCache.get(42L, roles));
+        assertEquals(1.0 / 3, meterRegistry.get("task-roles.near-cache.hit-ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    public void testStaleReadIsNotCached() {
+        long generation = nearCache.generation();
+        nearCache.invalidate(42L);
+
+        nearCache.put(42L, 1L, 2L, generation);
+
+        assertFalse(nearCache.get(42L, roles));
+    }
+
+    @Test
+    public void testSizeIsBoundedAndSurvivorsStayReachable() {
+        for (long taskId = 1; taskId <= 10_000; taskId++) {
+            nearCache.put(taskId, taskId, taskId + 1, nearCache.generation());
+            if (taskId % 3 == 0) {
+                nearCache.invalidate(taskId - 1);
+            }
+        }
+
+        assertTrue(meterRegistry.get("task-roles.near-cache.size").gauge().value() <= 1_000);
+        assertTrue(meterRegistry.get("task-roles.near-cache.memory").gauge().value() > 0);
+        int found = 0;
+        for (long taskId = 1; taskId <= 10_000; taskId++) {
+            if (nearCache.get(taskId, roles)) {
+                assertArrayEquals(new long[]{taskId, taskId + 1}, roles);
+                found++;
+            }
+        }
+        assertEquals(meterRegistry.get("task-roles.near-cache.size").gauge().value(), found);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.entity.RedisTask;
+import com.example.TaskManagement.repositories.TaskRoleOutboxRepository;
+import com.example.TaskManagement.repositories.TaskRoleOutboxRepository.Entry;
+import com.example.TaskManagement.securityRedis.RedisTaskRoleRepository;
+import com.example.TaskManagement.securityRedis.TaskRoleOutboxRelay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskManagementTaskRoleOutboxTest {
+
+    @Mock
+    private TaskRoleOutboxRepository taskRoleOutboxRepository;
+
+    @Mock
+    private RedisTaskRoleRepository redisTaskRoleRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Entry> outbox = new ArrayList<>();
+    private TaskRoleOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new TaskRoleOutboxRelay(taskRoleOutboxRepository, redisTaskRoleRepository, meterRegistry);
+        ReflectionTestUtils.setField(relay, "batchSize", 3);
+        relay.init();
+        // behaves like the table: a batch is removed only if the consumer returns
+        lenient().when(taskRoleOutboxRepository.drain(anyInt(), any())).thenAnswer(invocation -> {
+            List<Entry> batch = List.copyOf(outbox.subList(0, Math.min(invocation.<Integer>getArgument(0), outbox.size())));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            invocation.<Consumer<List<Entry>>>getArgument(1).accept(batch);
+            outbox.subList(0, batch.size()).clear();
+            return batch.size();
+        });
+        lenient().when(taskRoleOutboxRepository.backlog())
+                .thenAnswer(invocation -> new TaskRoleOutboxRepository.Backlog(outbox.size(), outbox.isEmpty() ? 0 : 4.5));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testBatchesKeepLatestEntryPerTask() {
+        outbox.add(new Entry(1, 10, 1L, null, false, 0.2));
+        outbox.add(new Entry(2, 10, 1L, 2L, false, 0.1));
+        outbox.add(new Entry(3, 11, null, null, true, 0.1));
+        outbox.add(new Entry(4, 12, 3L, null, false, 0.1));
+
+        assertEquals(4, relay.relay());
+
+        ArgumentCaptor<Collection<RedisTask>> tasks = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection<Long>> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(redisTaskRoleRepository, times(2)).applyAll(tasks.capture(), deleted.capture());
+        RedisTask task = tasks.getAllValues().get(0).iterator().next();
+        assertEquals(1, tasks.getAllValues().get(0).size());
+        assertEquals(2L, task.getExecutorId());
+        assertEquals(List.of(11L), List.copyOf(deleted.getAllValues().get(0)));
+        assertEquals(12L, tasks.getAllValues().get(1).iterator().next().getId());
+        assertTrue(outbox.isEmpty());
+        assertEquals(4, meterRegistry.counter("redis.task-roles.outbox.relayed").count());
+        assertEquals(4, meterRegistry.timer("redis.task-roles.outbox.lag").count());
+    }
+
+    @Test
+    public void testFailedBatchStaysInOutbox() {
+        outbox.add(new Entry(1, 10, 1L, null, false, 4.5));
+        doThrow(new RedisConnectionFailureException("down")).when(redisTaskRoleRepository).applyAll(any(), any());
+
+        relay.relayOnSchedule();
+
+        assertEquals(1, outbox.size());
+        assertEquals(1, meterRegistry.counter("redis.task-roles.outbox.failures").count());
+        assertEquals(1, meterRegistry.get("redis.task-roles.outbox.pending").gauge().value());
+        assertEquals(4.5, meterRegistry.get("redis.task-roles.outbox.oldest-age").gauge().value());
+
+        doNothing().when(redisTaskRoleRepository).applyAll(any(), any());
+        relay.relayOnSchedule();
+
+        assertTrue(outbox.isEmpty());
+        assertEquals(0, meterRegistry.get("redis.task-roles.outbox.pending").gauge().value());
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.securityRedis.ReconciliationReport;
+import com.example.TaskManagement.securityRedis.RedisTaskRoleRepository;
+import com.example.TaskManagement.securityRedis.TaskRoleNearCache;
+import com.example.TaskManagement.securityRedis.TaskRoleReconciler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskManagementTaskRoleReconcilerTest {
+
+    private static final byte[] CHANNEL = bytes(TaskRoleNearCache.INVALIDATION_CHANNEL);
+
+    private JdbcTemplate jdbcTemplate;
+    private RedisHashCommands hashCommands;
+    private RedisKeyCommands keyCommands;
+    private RedisScriptingCommands scriptingCommands;
+    private RedisConnection connection;
+    private final Deque<List<Object>> pipelineReplies = new ArrayDeque<>();
+    private final Map<Long, long[]> rereadRows = new HashMap<>();
+    private SimpleMeterRegistry meterRegistry;
+    private TaskRoleReconciler reconciler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        hashCommands = mock(RedisHashCommands.class);
+        keyCommands = mock(RedisKeyCommands.class);
+        scriptingCommands = mock(RedisScriptingCommands.class);
+        connection = mock(RedisConnection.class);
+        when(connection.hashCommands()).thenReturn(hashCommands);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+
+        RedisTemplate<String, byte[]> template = mock(RedisTemplate.class);
+        when(template.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+        when(template.executePipelined(any(RedisCallback.class), any())).thenAnswer(invocation -> {
+            invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+            return pipelineReplies.isEmpty() ? List.of() : pipelineReplies.poll();
+        });
+        RedisTaskRoleRepository repository = new RedisTaskRoleRepository(template,
+                new TaskRoleNearCache(mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry()));
+
+        meterRegistry = new SimpleMeterRegistry();
+        reconciler = new TaskRoleReconciler(jdbcTemplate, repository, meterRegistry);
+        ReflectionTestUtils.setField(reconciler, "chunkSize", 2);
+        reconciler.init();
+        // the roles read again for the stale entries of a chunk
+        doAnswer(invocation -> {
+            for (Long taskId : (Long[]) invocation.getArgument(2)) {
+                if (rereadRows.containsKey(taskId)) {
+                    invocation.<RowCallbackHandler>getArgument(1).processRow(row(rereadRows.get(taskId)));
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(contains("= ANY"), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    @Test
+    public void testMissingAndWrongEntriesAreRepairedWithACompareAndSet() throws Exception {
+        // the tasks table, read in chunks of two: [1, 2], [3, 4], then an empty chunk
+        stubChunk(0L, new long[]{1, 1, 2}, new long[]{2, 1, 0});
+        stubChunk(2L, new long[]{3, 3, 0}, new long[]{4, 4, 0});
+        stubChunk(4L);
+        // task 1 is right, task 2 is missing, task 3 is wrong; task 4 changed after its chunk was read, and the
+        // relay has already written the new roles, which the re-read returns
+        stubReread(new long[]{2, 1, 0});
+        stubReread(new long[]{3, 3, 0}, new long[]{4, 5, 0});
+        pipelineReplies.add(List.of(Arrays.asList(packed(1, 2), null)));
+        pipelineReplies.add(List.of(1L));
+        pipelineReplies.add(List.of(Arrays.asList(packed(9, 9), packed(5, 0))));
+        pipelineReplies.add(List.of(1L));
+        stubBuckets();
+
+        ReconciliationReport report = reconciler.reconcile();
+
+        assertEquals(4, report.getScanned());
+        assertEquals(2, report.getRepaired());
+        assertEquals(0, report.getPurged());
+        verify(scriptingCommands).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(1), eq(bytes("task-roles:0")),
+                eq(bytes("2")), eq(new byte[0]), eq(packed(1, 0)), eq(bytes("2")), eq(CHANNEL));
+        verify(scriptingCommands).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(1), eq(bytes("task-roles:0")),
+                eq(bytes("3")), eq(packed(9, 9)), eq(packed(3, 0)), eq(bytes("3")), eq(CHANNEL));
+        verify(scriptingCommands, times(2)).eval(any(byte[].class), any(), anyInt(), any(byte[][].class));
+        verify(jdbcTemplate, times(3)).query(startsWith("SELECT id, author_id, executor_id FROM tasks WHERE id >"),
+                any(RowCallbackHandler.class), any(Object[].class));
+        assertEquals(2.0, meterRegistry.counter("task-roles.reconcile.repaired").count());
+    }
+
+    @Test
+    public void testEntryRewrittenByTheRelayDuringTheRepairIsNotCounted() throws Exception {
+        stubChunk(0L, new long[]{1, 1, 0});
+        stubReread(new long[]{1, 1, 0});
+        pipelineReplies.add(List.of(Arrays.<Object>asList((Object) null)));
+        // the compare-and-set finds another value than the one read with HMGET
+        pipelineReplies.add(List.of(0L));
+        stubBuckets();
+
+        ReconciliationReport report = reconciler.reconcile();
+
+        assertEquals(1, report.getScanned());
+        assertEquals(0, report.getRepaired());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEntriesOfDeletedTasksArePurged() throws Exception {
+        stubChunk(0L);
+        stubBuckets("task-roles:0", "task-roles:1");
+        pipelineReplies.add(List.of(List.of(bytes("1"), bytes("4"))));
+        pipelineReplies.add(List.of(List.of(bytes("7"))));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class))).thenAnswer(invocation -> {
+            Long[] taskIds = (Long[]) invocation.getArgument(2);
+            return Arrays.stream(taskIds).filter(taskId -> taskId < 100).toList();
+        });
+
+        ReconciliationReport report = reconciler.reconcile();
+
+        assertEquals(1, report.getPurged());
+        verify(hashCommands).hDel(bytes("task-roles:1"), bytes("7"));
+        verify(connection).publish(CHANNEL, bytes("107"));
+        verify(hashCommands, times(1)).hDel(any(byte[].class), any(byte[][].class));
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(Long.class), any(Object[].class));
+    }
+
+    private void stubChunk(long afterId, long[]... rows) throws Exception {
+        doAnswer(invocation -> {
+            for (long[] row : rows) {
+                invocation.<RowCallbackHandler>getArgument(1).processRow(row(row));
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT id, author_id, executor_id FROM tasks WHERE id >"),
+                any(RowCallbackHandler.class), eq(afterId), eq(2));
+    }
+
+    private void stubReread(long[]... rows) {
+        for (long[] row : rows) {
+            rereadRows.put(row[0], row);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubBuckets(String... keys) {
+        Iterator<String> iterator = List.of(keys).iterator();
+        Cursor<byte[]> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> bytes(iterator.next()));
+        when(keyCommands.scan(any(ScanOptions.class))).thenReturn(cursor);
+    }
+
+    private static ResultSet row(long[] values) throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong(1)).thenReturn(values[0]);
+        when(row.getLong(2)).thenReturn(values[1]);
+        when(row.getLong(3)).thenReturn(values[2]);
+        return row;
+    }
+
+    private static byte[] packed(long authorId, long executorId) {
+        return ByteBuffer.allocate(16).putLong(authorId).putLong(executorId).array();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.entity.PriorityTask;
+import com.example.TaskManagement.entity.StatusTask;
+import com.example.TaskManagement.model.KeysetCursor;
+import com.example.TaskManagement.model.TaskSortField;
+import com.example.TaskManagement.repositories.TaskSearchQuery;
+import com.example.TaskManagement.repositories.TaskSearchQueryBuilder;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Proves with {@code EXPLAIN} that every filter shape produced by {@link TaskSearchQueryBuilder} is answered
+ * from an index. Needs Docker; skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class TaskManagementTaskSearchIndexTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 2, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    private static NamedParameterJdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:/db/changelog/db.changelog-master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("INSERT INTO users (name, email, password) " +
+                "SELECT 'user' || i, 'user' || i || '@vkdo.ru', 'password' FROM generate_series(1, 1000) i");
+        jdbc.execute("INSERT INTO tasks (title, status, priority, author_id, executor_id, created_at, updated_at, version) " +
+                "SELECT 'task ' || i, " +
+                "(ARRAY['WAITING', 'IN_PROCESS', 'COMPLETED'])[1 + i % 3], " +
+                "(ARRAY['HIGH', 'MEDIUM', 'LOW'])[1 + (i / 3) % 3], " +
+                "1 + i % 1000, " +
+                "CASE WHEN i % 4 = 0 THEN NULL ELSE 1 + (i * 7) % 1000 END, " +
+                "timestamp '2024-01-01' + i * interval '1 minute', " +
+                "timestamp '2024-01-01' + i * interval '1 minute' + (i % 100) * interval '1 hour', " +
+                "0 " +
+                "FROM generate_series(1, 200000) i");
+        jdbc.execute("ANALYZE tasks");
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    static Stream<Arguments> filterShapes() {
+        return Stream.of(
+                Arguments.of("author", TaskSearchQueryBuilder.create().author(42L)),
+                Arguments.of("executor", TaskSearchQueryBuilder.create().executor(42L)),
+                Arguments.of("author + executor", TaskSearchQueryBuilder.create().author(42L).executor(294L)),
+                Arguments.of("author + status", TaskSearchQueryBuilder.create().author(42L).status(StatusTask.WAITING)),
+                Arguments.of("author + status + priority", TaskSearchQueryBuilder.create().author(42L)
+                        .status(StatusTask.WAITING).priority(PriorityTask.HIGH)),
+                Arguments.of("executor + status + priority", TaskSearchQueryBuilder.create().executor(42L)
+                        .status(StatusTask.IN_PROCESS).priority(PriorityTask.LOW)),
+                Arguments.of("executor + priority", TaskSearchQueryBuilder.create().executor(42L)
+                        .priority(PriorityTask.MEDIUM)),
+                Arguments.of("author + created range", TaskSearchQueryBuilder.create().author(42L)
+                        .createdBetween(FROM, TO)),
+                Arguments.of("executor + updated range, by update", TaskSearchQueryBuilder.create().executor(42L)
+                        .updatedBetween(FROM, TO).orderBy(TaskSortField.UPDATED_AT, true)),
+                Arguments.of("executor + status + created range, ascending", TaskSearchQueryBuilder.create().executor(42L)
+                        .status(StatusTask.COMPLETED).createdBetween(FROM, null).orderBy(TaskSortField.CREATED_AT, false)),
+                Arguments.of("author, next page by update", TaskSearchQueryBuilder.create().author(42L)
+                        .orderBy(TaskSortField.UPDATED_AT, true)
+                        .after(KeysetCursor.of(TO, 100_000L)))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filterShapes")
+    public void testFilterShapeUsesIndex(String shape, TaskSearchQueryBuilder builder) {
+        TaskSearchQuery query = builder.limit(11).build();
+
+        String plan = String.join("\n",
+                jdbcTemplate.queryForList("EXPLAIN " + query.getSql(), query.getParameters(), String.class));
+
+        assertTrue(plan.contains("Index"), shape + ":\n" + plan);
+        assertFalse(plan.contains("Seq Scan"), shape + ":\n" + plan);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.entity.PriorityTask;
+import com.example.TaskManagement.entity.StatusTask;
+import com.example.TaskManagement.exception.InvalidSearchException;
+import com.example.TaskManagement.model.KeysetCursor;
+import com.example.TaskManagement.model.TaskSortField;
+import com.example.TaskManagement.repositories.TaskSearchQuery;
+import com.example.TaskManagement.repositories.TaskSearchQueryBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskManagementTaskSearchQueryTest {
+
+    @Test
+    public void testQueryShape() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+
+        TaskSearchQuery query = TaskSearchQueryBuilder.create()
+                .executor(7L)
+                .priority(PriorityTask.HIGH)
+                .status(StatusTask.WAITING)
+                .orderBy(TaskSortField.CREATED_AT, true)
+                .after(KeysetCursor.of(createdAt, 99L))
+                .limit(11)
+                .build();
+
+        assertEquals("SELECT t.* FROM tasks t WHERE t.executor_id = :executorId" +
+                " AND t.priority = :priority AND t.status = :status" +
+                " AND (t.created_at, t.id) < (:afterSortKey, :afterId)" +
+                " ORDER BY t.created_at DESC, t.id DESC LIMIT :limit", query.getSql());
+        assertEquals(createdAt, query.getParameters().get("afterSortKey"));
+        assertEquals("HIGH", query.getParameters().get("priority"));
+        assertEquals(11, query.getParameters().get("limit"));
+        assertEquals("page.created_at DESC, page.id DESC", query.orderBy("page"));
+    }
+
+    @Test
+    public void testUnanchoredSearchIsRejected() {
+        assertThrows(InvalidSearchException.class,
+                () -> TaskSearchQueryBuilder.create().status(StatusTask.WAITING).build());
+        assertThrows(InvalidSearchException.class, () -> TaskSortField.fromParameter("title"));
+    }
+}
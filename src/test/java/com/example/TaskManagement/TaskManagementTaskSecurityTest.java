@@ -0,0 +1,169 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.controllers.TaskController;
+import com.example.TaskManagement.model.AuthenticatedUser;
+import com.example.TaskManagement.model.CursorPage;
+import com.example.TaskManagement.model.TaskResponseDTO;
+import com.example.TaskManagement.repositories.TaskRepository;
+import com.example.TaskManagement.repositories.UserRepository;
+import com.example.TaskManagement.securityRedis.ReactiveTaskRoleRepository;
+import com.example.TaskManagement.securityRedis.TaskRole;
+import com.example.TaskManagement.securityRedis.TaskRoleContext;
+import com.example.TaskManagement.securityRedis.TaskSecurityService;
+import com.example.TaskManagement.services.JwtService;
+import com.example.TaskManagement.services.TaskBulkService;
+import com.example.TaskManagement.services.TaskCountService;
+import com.example.TaskManagement.services.TaskEventStream;
+import com.example.TaskManagement.services.TaskExportService;
+import com.example.TaskManagement.services.TaskImportService;
+import com.example.TaskManagement.services.TaskSearchService;
+import com.example.TaskManagement.services.TaskService;
+import com.example.TaskManagement.services.TaskTypeaheadService;
+import com.example.TaskManagement.services.UserIdentityService;
+import com.example.TaskManagement.services.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TaskController.class)
+public class TaskManagementTaskSecurityTest {
+
+    private static final AuthenticatedUser AUTHOR = new AuthenticatedUser(1L, "author@vkdo.ru", null, List.of());
+    private static final AuthenticatedUser EXECUTOR = new AuthenticatedUser(2L, "executor@vkdo.ru", null, List.of());
+    private static final AuthenticatedUser STRANGER = new AuthenticatedUser(3L, "stranger@vkdo.ru", null, List.of());
+
+    @TestConfiguration
+    @EnableMethodSecurity
+    @Import(TaskRoleContext.class)
+    static class MethodSecurityConfiguration {
+        @Bean
+        public TaskSecurityService taskSecurityService() {
+            return new TaskSecurityService();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private TaskService taskService;
+    @MockBean
+    private TaskCountService taskCountService;
+    @MockBean
+    private TaskSearchService taskSearchService;
+    @MockBean
+    private TaskTypeaheadService taskTypeaheadService;
+    @MockBean
+    private TaskBulkService taskBulkService;
+    @MockBean
+    private TaskImportService taskImportService;
+    @MockBean
+    private TaskExportService taskExportService;
+    @MockBean
+    private TaskEventStream taskEventStream;
+    @MockBean
+    private ReactiveTaskRoleRepository reactiveTaskRoleRepository;
+    @MockBean
+    private UserIdentityService userIdentityService;
+    @MockBean
+    private UserRepository userRepository;
+    @MockBean
+    private TaskRepository taskRepository;
+    @MockBean
+    private UserService userService;
+    @MockBean
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        when(reactiveTaskRoleRepository.findRole(eq(10L), anyLong())).thenAnswer(invocation -> Mono.just(switch ((int) (long) invocation.getArgument(1, Long.class)) {
+            case 1 -> TaskRole.AUTHOR;
+            case 2 -> TaskRole.EXECUTOR;
+            default -> TaskRole.NONE;
+        }));
+    }
+
+    @Test
+    public void testCompoundCheckResolvesRoleOnce() throws Exception {
+        mockMvc.perform(patch("/api/tasks/10/status/completed").with(user(EXECUTOR)).with(csrf()))
+                .andExpect(status().isOk());
+
+        verify(reactiveTaskRoleRepository, times(1)).findRole(eq(10L), anyLong());
+        verifyNoInteractions(userIdentityService, userRepository, taskRepository);
+    }
+
+    @Test
+    public void testAuthorCheckResolvesRoleOnce() throws Exception {
+        mockMvc.perform(patch("/api/tasks/10/priority/high").with(user(AUTHOR)).with(csrf()))
+                .andExpect(status().isOk());
+
+        verify(reactiveTaskRoleRepository, times(1)).findRole(eq(10L), anyLong());
+        verifyNoInteractions(userIdentityService, userRepository, taskRepository);
+    }
+
+    @Test
+    public void testRolesAreEnforced() throws Exception {
+        mockMvc.perform(patch("/api/tasks/10/priority/high").with(user(EXECUTOR)).with(csrf()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(patch("/api/tasks/10/status/completed").with(user(STRANGER)).with(csrf()))
+                .andExpect(status().isForbidden());
+
+        verify(reactiveTaskRoleRepository, times(2)).findRole(eq(10L), anyLong());
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    public void testUnchangedTaskIsNotModifiedWithoutLoadingIt() throws Exception {
+        when(taskService.getETag(10L)).thenReturn("\"3.2\"");
+
+        mockMvc.perform(get("/api/tasks/10").header("If-None-Match", "\"3.2\"").with(user(AUTHOR)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3.2\""));
+
+        verify(taskService, never()).getById(anyLong());
+    }
+
+    @Test
+    public void testChangedTaskIsReturnedWithItsETag() throws Exception {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setId(10L);
+        task.setVersion(4);
+        task.setCommentsRevision(2);
+        when(taskService.getETag(10L)).thenReturn("\"4.2\"");
+        when(taskService.getById(10L)).thenReturn(task);
+
+        mockMvc.perform(get("/api/tasks/10").header("If-None-Match", "\"3.2\"").with(user(AUTHOR)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4.2\""));
+    }
+
+    @Test
+    public void testTextSearchIsScopedToCaller() throws Exception {
+        when(taskSearchService.searchText(2L, "report", null, 10)).thenReturn(new CursorPage<>(List.of(), null));
+
+        mockMvc.perform(get("/api/tasks/text-search").param("q", "report").with(user(EXECUTOR)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TaskController.HAS_NEXT_HEADER, "false"));
+
+        verify(taskSearchService).searchText(2L, "report", null, 10);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.model.KeysetCursor;
+import com.example.TaskManagement.model.TaskSearchHitDTO;
+import com.example.TaskManagement.repositories.TaskTextSearchRepository;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the search vectors of tasks and comments follow their text, and that full-text search
+ * ranks, highlights, pages and stays within the tasks of the caller. Needs Docker; skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class TaskManagementTaskTextSearchTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbc;
+    private static TaskTextSearchRepository taskTextSearchRepository;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:/db/changelog/db.changelog-master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("INSERT INTO users (name, email, password) " +
+                "SELECT 'user' || i, 'user' || i || '@vkdo.ru', 'password' FROM generate_series(1, 3) i");
+        jdbc.execute("INSERT INTO tasks (title, text, status, priority, author_id, executor_id, created_at, version) VALUES " +
+                "('Quarterly report', 'Collect the numbers', 'WAITING', 'HIGH', 1, 2, now(), 0), " +
+                "('Release notes', 'Mention the quarterly report', 'WAITING', 'LOW', 1, NULL, now(), 0), " +
+                "('Team lunch', 'Book a table', 'WAITING', 'LOW', 2, NULL, now(), 0), " +
+                "('Quarterly report of the other team', 'Not ours', 'WAITING', 'LOW', 3, NULL, now(), 0)");
+        taskTextSearchRepository = new TaskTextSearchRepository(new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    @Test
+    public void testTitleMatchOutranksTextMatchAndStaysWithinCallerTasks() {
+        List<TaskSearchHitDTO> hits = taskTextSearchRepository.search(1L, "quarterly report", null, 10);
+
+        assertEquals(List.of("Quarterly report", "Release notes"), hits.stream().map(TaskSearchHitDTO::getTitle).toList());
+        assertTrue(hits.get(0).getRank() > hits.get(1).getRank());
+        assertTrue(hits.get(1).getHeadline().contains("<b>quarterly</b>"), hits.get(1).getHeadline());
+    }
+
+    @Test
+    public void testExecutorFindsAssignedTasks() {
+        List<TaskSearchHitDTO> hits = taskTextSearchRepository.search(2L, "report", null, 10);
+
+        assertEquals(List.of("Quarterly report"), hits.stream().map(TaskSearchHitDTO::getTitle).toList());
+    }
+
+    @Test
+    public void testCommentsAreSearchableAfterInsertAndDelete() {
+        jdbc.update("INSERT INTO comments (text, author_id, task_id, created_at, version) " +
+                "SELECT 'reserve a terrace', 2, id, now(), 0 FROM tasks WHERE title = 'Team lunch'");
+        assertEquals(1, taskTextSearchRepository.search(2L, "terrace", null, 10).size());
+
+        jdbc.update("DELETE FROM comments WHERE task_id = (SELECT id FROM tasks WHERE title = 'Team lunch')");
+        assertTrue(taskTextSearchRepository.search(2L, "terrace", null, 10).isEmpty());
+    }
+
+    @Test
+    public void testTaskWithSeveralMatchingCommentsIsFoundOnceAndFollowsEdits() {
+        jdbc.update("INSERT INTO comments (text, author_id, task_id, created_at, version) " +
+                "SELECT 'bring the slides', 1 + c % 2, id, now(), 0 FROM tasks, generate_series(1, 3) c " +
+                "WHERE title = 'Release notes'");
+        List<TaskSearchHitDTO> hits = taskTextSearchRepository.search(1L, "slides", null, 10);
+        assertEquals(List.of("Release notes"), hits.stream().map(TaskSearchHitDTO::getTitle).toList());
+
+        jdbc.update("UPDATE comments SET text = 'bring the handouts' " +
+                "WHERE task_id = (SELECT id FROM tasks WHERE title = 'Release notes')");
+        assertTrue(taskTextSearchRepository.search(1L, "slides", null, 10).isEmpty());
+        assertEquals(1, taskTextSearchRepository.search(1L, "handouts", null, 10).size());
+
+        jdbc.update("DELETE FROM comments WHERE task_id = (SELECT id FROM tasks WHERE title = 'Release notes')");
+    }
+
+    @Test
+    public void testNextPageContinuesAfterCursor() {
+        List<TaskSearchHitDTO> first = taskTextSearchRepository.search(1L, "quarterly", null, 1);
+        KeysetCursor cursor = KeysetCursor.decode(TaskTextSearchRepository.cursorOf(first.get(0)).encode());
+        List<TaskSearchHitDTO> second = taskTextSearchRepository.search(1L, "quarterly", cursor, 1);
+
+        assertEquals("Quarterly report", first.get(0).getTitle());
+        assertEquals("Release notes", second.get(0).getTitle());
+        assertTrue(taskTextSearchRepository.search(1L, "quarterly",
+                TaskTextSearchRepository.cursorOf(second.get(0)), 1).isEmpty());
+    }
+}
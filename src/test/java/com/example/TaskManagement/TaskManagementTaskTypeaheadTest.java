@@ -0,0 +1,121 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.model.TaskTitleSuggestionDTO;
+import com.example.TaskManagement.services.TaskTypeaheadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskManagementTaskTypeaheadTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+    private StringRedisTemplate redisTemplate;
+    private TaskTypeaheadService typeaheadService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jdbcTemplate = mock(JdbcTemplate.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        typeaheadService = new TaskTypeaheadService(jdbcTemplate, redisTemplate,
+                mock(RedisMessageListenerContainer.class), meterRegistry);
+        typeaheadService.init();
+        typeaheadService.indexTask(1L, "Quarterly report", 1L, 2L);
+        typeaheadService.indexTask(2L, "Report the outage", 1L, null);
+        typeaheadService.indexTask(3L, "Review the quarterly budget", 2L, null);
+        typeaheadService.indexTask(4L, "Reporting of another team", 3L, null);
+    }
+
+    @Test
+    public void testSuggestsOwnTasksPrefixMatchesFirst() {
+        assertEquals(List.of("Report the outage", "Quarterly report"), titles(typeaheadService.suggest(1L, "REPO", 10)));
+        assertEquals(List.of("Quarterly report", "Review the quarterly budget"),
+                titles(typeaheadService.suggest(2L, "quarterly", 10)));
+        assertEquals(List.of("Report the outage"), titles(typeaheadService.suggest(1L, "repo", 1)));
+        assertTrue(typeaheadService.suggest(1L, "budget", 10).isEmpty());
+    }
+
+    @Test
+    public void testShortQueryListsNewestTasksOfUser() {
+        assertEquals(List.of("Report the outage", "Quarterly report"), titles(typeaheadService.suggest(1L, "r", 10)));
+        assertEquals(List.of("Review the quarterly budget", "Quarterly report"), titles(typeaheadService.suggest(2L, "", 10)));
+    }
+
+    @Test
+    public void testUpdatesAndDeletesAreApplied() {
+        typeaheadService.indexTask(1L, "Yearly summary", 1L, null);
+        typeaheadService.removeTask(2L);
+
+        assertTrue(typeaheadService.suggest(1L, "report", 10).isEmpty());
+        assertTrue(typeaheadService.suggest(2L, "yearly", 10).isEmpty());
+        assertEquals(List.of(1L), typeaheadService.suggest(1L, "summ", 10).stream().map(TaskTitleSuggestionDTO::getTaskId).toList());
+        assertEquals(3.0, meterRegistry.get("tasks.typeahead.titles").gauge().value());
+    }
+
+    @Test
+    public void testFreedSlotsAreReclaimed() {
+        for (int round = 0; round < 5; round++) {
+            for (long taskId = 100; taskId < 1100; taskId++) {
+                typeaheadService.indexTask(taskId, "Task " + taskId + " round " + round, 5L, 6L);
+            }
+        }
+
+        assertEquals(1004.0, meterRegistry.get("tasks.typeahead.titles").gauge().value());
+        assertEquals(List.of("Task 1099 round 4"), titles(typeaheadService.suggest(6L, "1099", 10)));
+        assertTrue(typeaheadService.suggest(5L, "round 3", 10).isEmpty());
+        assertTrue(meterRegistry.get("tasks.typeahead.memory").gauge().value() > 0);
+    }
+
+    @Test
+    public void testChangesAreBroadcastByTaskId() {
+        typeaheadService.removeTask(2L);
+        typeaheadService.tasksChanged(List.of(7L, 8L));
+        typeaheadService.tasksChanged(List.of());
+
+        verify(redisTemplate).convertAndSend(TaskTypeaheadService.CHANNEL, "1");
+        verify(redisTemplate, times(2)).convertAndSend(TaskTypeaheadService.CHANNEL, "2");
+        verify(redisTemplate).convertAndSend(TaskTypeaheadService.CHANNEL, "7,8");
+        verify(redisTemplate, times(6)).convertAndSend(eq(TaskTypeaheadService.CHANNEL), anyString());
+    }
+
+    @Test
+    public void testBroadcastChangesAreReReadFromTheTasksTable() throws Exception {
+        // task 1 moved from executor 2 to executor 3 and task 2 was deleted on another instance
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong("id")).thenReturn(1L);
+        when(row.getString("title")).thenReturn("Quarterly report");
+        when(row.getLong("author_id")).thenReturn(1L);
+        when(row.getLong("executor_id")).thenReturn(3L);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(argThat((String sql) -> sql.contains("ANY")), any(RowCallbackHandler.class),
+                any(Object[].class));
+
+        typeaheadService.onMessage(new DefaultMessage(TaskTypeaheadService.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "1,2".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertEquals(List.of("Review the quarterly budget"), titles(typeaheadService.suggest(2L, "quarterly", 10)));
+        assertEquals(List.of("Quarterly report"), titles(typeaheadService.suggest(3L, "quarterly", 10)));
+        assertTrue(typeaheadService.suggest(1L, "outage", 10).isEmpty());
+        assertEquals(3.0, meterRegistry.get("tasks.typeahead.titles").gauge().value());
+    }
+
+    private static List<String> titles(List<TaskTitleSuggestionDTO> suggestions) {
+        return suggestions.stream().map(TaskTitleSuggestionDTO::getTitle).toList();
+    }
+}
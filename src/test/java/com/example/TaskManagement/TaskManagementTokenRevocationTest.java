@@ -0,0 +1,86 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.services.TokenRevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskManagementTokenRevocationTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StringRedisTemplate redisTemplate;
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        redisTemplate = mock(StringRedisTemplate.class);
+        ZSetOperations<String, String> zSetOperations = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.rangeByScore(anyString(), anyDouble(), anyDouble(), eq(0L), anyLong()))
+                .thenReturn(Set.of("revoked-on-another-instance"));
+        when(zSetOperations.rangeByScore(anyString(), anyDouble(), anyDouble(), longThat(offset -> offset > 0), anyLong()))
+                .thenReturn(Set.of());
+
+        tokenRevocationService = new TokenRevocationService(redisTemplate,
+                mock(RedisMessageListenerContainer.class), meterRegistry);
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedRevocations", 1_000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "falsePositiveProbability", 0.01);
+        tokenRevocationService.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        tokenRevocationService.shutdown();
+    }
+
+    @Test
+    public void testUnknownTokenIsCheckedLocally() {
+        assertFalse(tokenRevocationService.isRevoked("never-revoked"));
+
+        verify(redisTemplate, never()).hasKey(anyString());
+        assertEquals(0.0, meterRegistry.get("token.revocation.redis-checks").counter().count());
+    }
+
+    @Test
+    public void testRevokedTokenIsConfirmedInRedis() {
+        when(redisTemplate.hasKey("revoked-token:revoked-on-another-instance")).thenReturn(true);
+        when(redisTemplate.hasKey("revoked-token:revoked-here")).thenReturn(true);
+
+        tokenRevocationService.revoke("revoked-here", new Date(System.currentTimeMillis() + 60_000));
+
+        assertTrue(tokenRevocationService.isRevoked("revoked-on-another-instance"));
+        assertTrue(tokenRevocationService.isRevoked("revoked-here"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTokenIsClaimedOnce() {
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("revoked-token:refresh"), eq("1"), any(Duration.class)))
+                .thenReturn(true, false);
+        Date expiresAt = new Date(System.currentTimeMillis() + 60_000);
+
+        assertTrue(tokenRevocationService.claim("refresh", expiresAt));
+        assertFalse(tokenRevocationService.claim("refresh", expiresAt));
+        assertFalse(tokenRevocationService.claim("expired", new Date(System.currentTimeMillis() - 1)));
+        when(redisTemplate.hasKey("revoked-token:refresh")).thenReturn(true);
+        assertTrue(tokenRevocationService.isRevoked("refresh"));
+    }
+}
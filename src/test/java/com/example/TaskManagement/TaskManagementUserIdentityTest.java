@@ -0,0 +1,81 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.entity.User;
+import com.example.TaskManagement.model.UserIdentityView;
+import com.example.TaskManagement.repositories.UserRepository;
+import com.example.TaskManagement.services.UserIdentityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskManagementUserIdentityTest {
+
+    private UserRepository userRepository;
+    private StringRedisTemplate redisTemplate;
+    private UserIdentityService userIdentityService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        userIdentityService = new UserIdentityService(userRepository, redisTemplate,
+                mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userIdentityService, "maximumSize", 100L);
+        ReflectionTestUtils.setField(userIdentityService, "ttlMs", 600_000L);
+        userIdentityService.init();
+        when(userRepository.findIdByUsername("old")).thenReturn(Optional.of(1L));
+        when(userRepository.findIdByUsername("other")).thenReturn(Optional.of(2L));
+    }
+
+    @Test
+    public void testRenameEvictsPreviousUsernameByKey() {
+        userIdentityService.findIdByUsername("old");
+        userIdentityService.findIdByUsername("other");
+
+        User renamed = User.builder().id(1L).username("new").email("new@vkdo.ru").build();
+        userIdentityService.evict(renamed, identity("old", "old@vkdo.ru"));
+        when(userRepository.findIdByUsername("old")).thenReturn(Optional.empty());
+
+        assertTrue(userIdentityService.findIdByUsername("old").isEmpty());
+        assertEquals(Optional.of(2L), userIdentityService.findIdByUsername("other"));
+        verify(userRepository, times(1)).findIdByUsername("other");
+        verify(redisTemplate).convertAndSend(UserIdentityService.INVALIDATION_CHANNEL,
+                "1\nnew\nnew@vkdo.ru\nold\nold@vkdo.ru");
+    }
+
+    @Test
+    public void testBroadcastEvictsOnOtherInstances() {
+        userIdentityService.findIdByUsername("old");
+
+        userIdentityService.onMessage(new DefaultMessage(
+                UserIdentityService.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "1\nnew\nnew@vkdo.ru\nold\nold@vkdo.ru".getBytes(StandardCharsets.UTF_8)), null);
+        userIdentityService.findIdByUsername("old");
+
+        verify(userRepository, times(2)).findIdByUsername("old");
+    }
+
+    private static UserIdentityView identity(String username, String email) {
+        return new UserIdentityView() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
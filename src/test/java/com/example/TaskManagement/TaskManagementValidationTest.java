@@ -5,6 +5,7 @@ import com.example.TaskManagement.model.JwtAuthenticationResponse;
 import com.example.TaskManagement.model.SignUpRequest;
 import com.example.TaskManagement.services.AuthorizationService;
 import com.example.TaskManagement.services.JwtService;
+import com.example.TaskManagement.services.TokenVersionService;
 import com.example.TaskManagement.services.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +33,8 @@ public class TaskManagementValidationTest {
     private UserService userService;
     @MockBean
     private JwtService jwtService;
+    @MockBean
+    private TokenVersionService tokenVersionService;
 
 
     @Test
@@ -0,0 +1,84 @@
+package com.example.TaskManagement;
+
+import com.example.TaskManagement.model.TaskTitleSuggestionDTO;
+import com.example.TaskManagement.services.TaskTypeaheadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency distribution of title autocomplete over one million titles spread across 10,000 users,
+ * plus one heavy user owning 100,000 of them, and prints the memory held by the index per million titles.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.mainClass=com.example.TaskManagement.TaskTypeaheadBenchmark
+ * -Dexec.classpathScope=test}, or from the IDE through {@link #main(String[])}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class TaskTypeaheadBenchmark {
+
+    private static final String[] WORDS = {"report", "release", "budget", "review", "deploy", "meeting", "invoice",
+            "onboarding", "migration", "quarterly", "customer", "incident", "roadmap", "backlog", "security"};
+    private static final int TITLES = 1_000_000;
+    private static final int USERS = 10_000;
+    private static final long HEAVY_USER = USERS + 1;
+
+    private TaskTypeaheadService typeaheadService;
+    private SimpleMeterRegistry meterRegistry;
+    private String[] queries;
+    private long[] users;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        typeaheadService = new TaskTypeaheadService(Mockito.mock(JdbcTemplate.class),
+                Mockito.mock(StringRedisTemplate.class, Mockito.withSettings().stubOnly()),
+                Mockito.mock(RedisMessageListenerContainer.class), meterRegistry);
+        typeaheadService.init();
+        Random random = new Random(42);
+        for (long taskId = 1; taskId <= TITLES; taskId++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " #" + taskId;
+            long authorId = taskId % 10 == 0 ? HEAVY_USER : 1 + random.nextInt(USERS);
+            typeaheadService.indexTask(taskId, title, authorId, 1L + random.nextInt(USERS));
+        }
+        System.out.printf("%nIndex memory: %.1f MiB per million titles%n",
+                meterRegistry.get("tasks.typeahead.memory.per-million-titles").gauge().value() / (1 << 20));
+
+        queries = new String[1024];
+        users = new long[1024];
+        for (int i = 0; i < queries.length; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            queries[i] = word.substring(0, 1 + random.nextInt(word.length()));
+            users[i] = i % 4 == 0 ? HEAVY_USER : 1 + random.nextInt(USERS);
+        }
+    }
+
+    @Benchmark
+    public List<TaskTitleSuggestionDTO> suggest() {
+        int i = next++ & (queries.length - 1);
+        return typeaheadService.suggest(users[i], queries[i], 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskTypeaheadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}